@@ -0,0 +1,57 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Vector2;
+import de.tum.cit.fop.maze.AI.Grid;
+import de.tum.cit.fop.maze.Procedure.DungeonLayout;
+import de.tum.cit.fop.maze.World.MapFile;
+import de.tum.cit.fop.maze.World.TileMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Maps shared by the JMH benchmarks: "level-N" is maps/level-N.properties, "dungeon-N"
+ * a 100x100 endless-mode floor generated with seed N (at difficulty 10).
+ */
+final class BenchmarkMaps {
+    static final File MAPS = new File("maps"); // Benchmarks run in the project root
+
+    private BenchmarkMaps() {
+    }
+
+    static Grid loadGrid(String name) throws IOException {
+        if (name.startsWith("dungeon-")) {
+            DungeonLayout layout = new DungeonLayout(100, 100, Long.parseLong(name.substring("dungeon-".length())));
+            Grid grid = new Grid(layout.generate(10), new ArrayList<>());
+            grid.setNavGraph(layout.getNavGraph());
+            return grid;
+        }
+        TileMap tiles = MapFile.loadTiles(new FileHandle(new File(MAPS, name + ".properties")));
+        return new Grid(tiles, new ArrayList<>());
+    }
+
+    /**
+     * @return {@code count} seeded (start, goal) pairs of floor tile centers, in world coordinates.
+     */
+    static Vector2[][] pickPairs(Grid grid, int count, long seed) {
+        List<Vector2> floor = new ArrayList<>();
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                if (grid.isWalkable(x, y)) floor.add(new Vector2(x * 16 + 8, y * 16 + 8));
+            }
+        }
+        Random random = new Random(seed);
+        Vector2[][] pairs = new Vector2[count][];
+        for (int i = 0; i < count; i++) {
+            pairs[i] = new Vector2[] {
+                floor.get(random.nextInt(floor.size())),
+                floor.get(random.nextInt(floor.size()))
+            };
+        }
+        return pairs;
+    }
+}
@@ -0,0 +1,62 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.utils.Array;
+import de.tum.cit.fop.maze.AI.Grid;
+import de.tum.cit.fop.maze.Procedure.Chunk;
+import de.tum.cit.fop.maze.Procedure.ChunkLayout;
+import de.tum.cit.fop.maze.Procedure.ChunkStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Infinite mode: generating a chunk, and moving the chunk window by one chunk plus
+ * shifting its {@link Grid}, which is what GameScreen does when the player walks
+ * over a chunk border. The window walks east forever, so every move loads new chunks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkStreamBenchmark {
+
+    private ChunkLayout layout;
+    private ChunkStream stream;
+    private Grid grid;
+    private final Array<Chunk> loaded = new Array<>();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        layout = new ChunkLayout(1);
+        stream = new ChunkStream(layout);
+        grid = new Grid(stream.getTiles(), new ArrayList<>());
+    }
+
+    @Benchmark
+    public Chunk generateChunk() {
+        return layout.generate(next++, 0);
+    }
+
+    @Benchmark
+    public Grid moveWindow() {
+        // A player tile in the chunk east of the middle one, past the margin
+        int east = (ChunkStream.WINDOW / 2 + 1) * ChunkLayout.SIZE + ChunkStream.MARGIN;
+        loaded.clear();
+        stream.update(east, ChunkStream.WINDOW / 2 * ChunkLayout.SIZE + ChunkLayout.SIZE / 2, loaded);
+        grid.shift(stream.getTiles(), -stream.getShiftX() * ChunkLayout.SIZE, -stream.getShiftY() * ChunkLayout.SIZE);
+        return grid;
+    }
+}
@@ -0,0 +1,99 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+import de.tum.cit.fop.maze.AI.Grid;
+import de.tum.cit.fop.maze.GameObj.PlayerBody;
+import de.tum.cit.fop.maze.World.TileMap;
+import de.tum.cit.fop.maze.World.TileType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The player's collision check against the map objects: {@link PlayerBody#collide()},
+ * which goes through the {@link Grid}'s per-tile index, and a scan of the full object
+ * list for comparison. The maps grow while the objects stay equally dense, so
+ * {@code indexed} should stay flat and {@code linear} grow with the map area.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    private static final int TILES_PER_OBJECT = 10;
+    private static final int PROBES = 1024; // Power of two, see next()
+
+    // Map width and height in tiles
+    @Param({"100", "300", "1000"})
+    public int size;
+
+    private PlayerBody body;
+    private List<Grid.Occupant> occupants;
+    private Rectangle[] probes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        TileMap tiles = new TileMap(size, size);
+        tiles.fill(TileType.FLOOR);
+        Random random = new Random(5);
+        occupants = new ArrayList<>();
+        int objects = size * size / TILES_PER_OBJECT;
+        for (int i = 0; i < objects; i++) {
+            Rectangle bounds = new Rectangle(random.nextInt(size) * 16, random.nextInt(size) * 16, 16, 16);
+            occupants.add(() -> bounds);
+        }
+        body = new PlayerBody(0, 0);
+        body.setGrid(new Grid(tiles, occupants));
+        body.setContacts(new PlayerBody.Contacts() {
+            @Override
+            public boolean isContact(Grid.Occupant occupant) {
+                return true;
+            }
+
+            @Override
+            public boolean blocks(Grid.Occupant occupant) {
+                return false;
+            }
+
+            @Override
+            public void touched(Grid.Occupant occupant) {
+            }
+        });
+        probes = new Rectangle[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = new Rectangle(random.nextFloat() * (size * 16 - 8), random.nextFloat() * (size * 16 - 8), 8, 8);
+        }
+    }
+
+    @Benchmark
+    public Grid.Occupant indexed() {
+        Rectangle bounds = probes[next++ & (PROBES - 1)];
+        body.setPosition(bounds.x - 4, bounds.y - 4); // The hitbox sits at (4, 4) in the body
+        return body.collide();
+    }
+
+    @Benchmark
+    public Grid.Occupant linear() {
+        Rectangle bounds = probes[next++ & (PROBES - 1)];
+        for (Grid.Occupant occupant : occupants) {
+            if (bounds.overlaps(occupant.getBounds())) return occupant;
+        }
+        return null;
+    }
+}
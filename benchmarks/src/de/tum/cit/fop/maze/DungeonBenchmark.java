@@ -0,0 +1,61 @@
+package de.tum.cit.fop.maze;
+
+import de.tum.cit.fop.maze.AI.Grid;
+import de.tum.cit.fop.maze.Procedure.DungeonLayout;
+import de.tum.cit.fop.maze.Procedure.Floor;
+import de.tum.cit.fop.maze.World.TileMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Endless-mode floors: compiling rooms, corridors and object placements (the part of
+ * DungeonGenerator.generate that needs no textures) and building their {@link Grid},
+ * sized by difficulty the same way GameScreen does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DungeonBenchmark {
+
+    @Param({"1", "10", "30", "80", "230", "480"})
+    public int difficulty;
+
+    private int size;
+    private DungeonLayout layout;
+    private TileMap tiles;
+
+    @Setup
+    public void setUp() {
+        size = DungeonLayout.floorSize(difficulty);
+        layout = new DungeonLayout(size, size, difficulty);
+        tiles = layout.generate(difficulty);
+    }
+
+    @Benchmark
+    public Floor compile() {
+        // Same seed every call, so iterations measure the same work
+        return layout.compile(difficulty);
+    }
+
+    @Benchmark
+    public Grid buildGrid() {
+        Grid grid = new Grid(tiles, new ArrayList<>());
+        grid.setNavGraph(layout.getNavGraph());
+        return grid;
+    }
+}
@@ -0,0 +1,62 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.math.Vector2;
+import de.tum.cit.fop.maze.AI.Grid;
+import de.tum.cit.fop.maze.AI.PathFinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link PathFinder#findPath} call per invocation, cycling through seeded random
+ * floor-to-floor queries. The path cache is off so every call searches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindPathBenchmark {
+    private static final int QUERIES = 256; // Power of two, see next()
+
+    @Param({"level-1", "level-2", "level-3", "level-4", "level-5", "level-6", "dungeon-1", "dungeon-2", "dungeon-3"})
+    public String map;
+
+    @Param({"ASTAR", "JPS_PLUS"})
+    public PathFinder.Mode mode;
+
+    @Param({"false", "true"})
+    public boolean hierarchical;
+
+    private Grid grid;
+    private Vector2[][] queries;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        grid = BenchmarkMaps.loadGrid(map);
+        queries = BenchmarkMaps.pickPairs(grid, QUERIES, 42);
+        PathFinder.setMode(mode);
+        PathFinder.setHierarchical(hierarchical);
+        PathFinder.setCaching(false);
+    }
+
+    @Benchmark
+    public List<Vector2> findPath() {
+        Vector2[] query = queries[next++ & (QUERIES - 1)];
+        return PathFinder.findPath(grid, query[0], query[1]);
+    }
+}
@@ -0,0 +1,84 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+import de.tum.cit.fop.maze.AI.Grid;
+import de.tum.cit.fop.maze.World.CompiledMap;
+import de.tum.cit.fop.maze.World.MapFile;
+import de.tum.cit.fop.maze.World.TileMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a level: reading and parsing the .properties file into tiles (the part of
+ * MapLoader.loadMap that needs no textures), and building the {@link Grid} on top.
+ * {@link #compileText()} and {@link #readCompiled()} compare the whole text path with
+ * reading the level's {@link CompiledMap}, which is what the game loads when it exists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapLoadBenchmark {
+
+    @Param({"level-1", "level-2", "level-3", "level-4", "level-5", "level-6"})
+    public String map;
+
+    private FileHandle file;
+    private Properties props;
+    private TileMap tiles;
+    private FileHandle compiled;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = new FileHandle(new File(BenchmarkMaps.MAPS, map + ".properties"));
+        props = MapFile.read(file);
+        tiles = MapFile.buildTiles(props);
+
+        File temp = File.createTempFile(map, CompiledMap.SUFFIX);
+        temp.deleteOnExit();
+        compiled = new FileHandle(temp);
+        MapFile.compile(props).write(compiled);
+    }
+
+    @Benchmark
+    public Properties readFile() throws IOException {
+        return MapFile.read(file);
+    }
+
+    @Benchmark
+    public TileMap buildTiles() {
+        return MapFile.buildTiles(props);
+    }
+
+    @Benchmark
+    public CompiledMap compileText() throws IOException {
+        return MapFile.compile(MapFile.read(file));
+    }
+
+    @Benchmark
+    public CompiledMap readCompiled() throws IOException {
+        return CompiledMap.read(compiled);
+    }
+
+    @Benchmark
+    public Grid buildGrid() {
+        return new Grid(tiles, new ArrayList<>());
+    }
+}
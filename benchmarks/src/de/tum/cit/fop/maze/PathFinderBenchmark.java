@@ -0,0 +1,273 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.AI.AStarSearch;
+import de.tum.cit.fop.maze.AI.Grid;
+import de.tum.cit.fop.maze.AI.JumpPointSearch;
+import de.tum.cit.fop.maze.AI.MovingTargetSearch;
+import de.tum.cit.fop.maze.AI.NavGraph;
+import de.tum.cit.fop.maze.AI.PathFinder;
+import de.tum.cit.fop.maze.Procedure.DungeonLayout;
+import de.tum.cit.fop.maze.World.MapFile;
+import de.tum.cit.fop.maze.World.TileMap;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the classic object-based A*, the array-backed A* and JPS+ on the
+ * shipped maps and on a few generated 100x100 endless-mode floors. On the
+ * generated floors it also times hierarchical planning on the room graph
+ * (first leg only, so it is not part of the path length check).
+ * <p>
+ * For every map a fixed set of random start/goal pairs is drawn (seeded, so runs
+ * are comparable). All implementations must agree on reachability and path
+ * length before anything is timed. A second table compares replanning from
+ * scratch with incremental replanning while a chaser follows a wandering target. The path cache is switched off for the
+ * timings, but its answers (including reused partial paths) are checked too.
+ * <p>
+ * Usage: {@code ./gradlew :benchmarks:run} (optional argument: maps directory).
+ */
+public class PathFinderBenchmark {
+
+    private static final int PAIRS = 500;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+
+    public static void main(String[] args) throws Exception {
+        File dir = new File(args.length > 0 ? args[0] : "maps");
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".properties"));
+        if (files == null) files = new File[0];
+        Arrays.sort(files);
+        PathFinder.setCaching(false);
+
+        System.out.printf("%-20s %8s %12s %12s %12s %12s %16s%n", "map", "size", "classic", "astar", "jps+", "hpa* leg", "expanded a*/jps");
+        for (File file : files) {
+            run(file.getName(), MapFile.loadTiles(new FileHandle(file)), null);
+        }
+        for (int seed = 1; seed <= 5; seed++) {
+            DungeonLayout layout = new DungeonLayout(100, 100, seed);
+            TileMap tiles = layout.generate(10);
+            run("dungeon-" + seed, tiles, layout.getNavGraph());
+        }
+
+        System.out.printf("%n%-20s %12s %12s %14s %16s%n", "chase replans", "astar", "jps+", "moving target", "expanded a*/mt");
+        for (int seed = 1; seed <= 5; seed++) {
+            TileMap tiles = new DungeonLayout(100, 100, seed).generate(10);
+            runChase("dungeon-" + seed, new Grid(tiles, new ArrayList<>()));
+        }
+    }
+
+    /**
+     * Simulates chases: the target wanders one tile at a time and the chaser takes one
+     * step along its plan in between. Every step is a replan, either from scratch
+     * (A*, JPS+) or incrementally with {@link MovingTargetSearch}.
+     */
+    private static void runChase(String name, Grid grid) {
+        int[][] chases = recordChases(grid, new Random(7));
+        IntArray out = new IntArray();
+        long astar = 0, jps = 0, incremental = 0;
+        long astarExpanded = 0, incrementalExpanded = 0;
+        int replans = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            boolean timed = round >= WARMUP_ROUNDS;
+            for (int[] chase : chases) {
+                MovingTargetSearch planner = new MovingTargetSearch();
+                for (int i = 0; i < chase.length; i += 4) {
+                    long t0 = System.nanoTime();
+                    AStarSearch.get().search(grid, chase[i], chase[i + 1], chase[i + 2], chase[i + 3], out);
+                    long t1 = System.nanoTime();
+                    JumpPointSearch.get().search(grid, chase[i], chase[i + 1], chase[i + 2], chase[i + 3], out);
+                    long t2 = System.nanoTime();
+                    planner.update(grid, chase[i], chase[i + 1], chase[i + 2], chase[i + 3], Integer.MAX_VALUE, out);
+                    long t3 = System.nanoTime();
+                    if (timed) {
+                        astar += t1 - t0;
+                        jps += t2 - t1;
+                        incremental += t3 - t2;
+                        astarExpanded += AStarSearch.get().getExpanded();
+                        incrementalExpanded += planner.getExpanded();
+                        replans++;
+                    }
+                }
+            }
+        }
+        double scale = 1000.0 * replans;
+        System.out.printf("%-20s %9.2f us %9.2f us %11.2f us %16s%n", name, astar / scale, jps / scale, incremental / scale,
+            (astarExpanded / replans) + " / " + (incrementalExpanded / replans));
+    }
+
+    /**
+     * @return Per chase the (chaser x, chaser y, target x, target y) tiles of every replan.
+     */
+    private static int[][] recordChases(Grid grid, Random random) {
+        List<int[]> floor = new ArrayList<>();
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                if (grid.isWalkable(x, y)) floor.add(new int[] {x, y});
+            }
+        }
+        int[][] dirs = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+        IntArray path = new IntArray();
+        int[][] chases = new int[20][];
+        for (int c = 0; c < chases.length; c++) {
+            int[] s = floor.get(random.nextInt(floor.size()));
+            int[] e = floor.get(random.nextInt(floor.size()));
+            int sx = s[0], sy = s[1], ex = e[0], ey = e[1];
+            IntArray steps = new IntArray();
+            for (int step = 0; step < 60; step++) {
+                if (step % 2 == 0) {
+                    int[] d = dirs[random.nextInt(4)];
+                    if (grid.isWalkable(ex + d[0], ey + d[1])) {
+                        ex += d[0];
+                        ey += d[1];
+                    }
+                } else if (AStarSearch.get().search(grid, sx, sy, ex, ey, path) && path.size > 1) {
+                    sx = path.get(1) % grid.getWidth();
+                    sy = path.get(1) / grid.getWidth();
+                }
+                steps.addAll(sx, sy, ex, ey);
+            }
+            chases[c] = steps.toArray();
+        }
+        return chases;
+    }
+
+    private static void run(String name, TileMap tiles, NavGraph navGraph) {
+        Grid grid = new Grid(tiles, new ArrayList<>());
+        Vector2[][] pairs = pickPairs(grid, new Random(42));
+        if (pairs.length == 0) return;
+
+        verify(name, grid, pairs);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runClassic(grid, pairs);
+            runMode(grid, pairs, PathFinder.Mode.ASTAR);
+            runMode(grid, pairs, PathFinder.Mode.JPS_PLUS);
+        }
+        long classic = 0;
+        long astar = 0;
+        long jps = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long t0 = System.nanoTime();
+            runClassic(grid, pairs);
+            long t1 = System.nanoTime();
+            runMode(grid, pairs, PathFinder.Mode.ASTAR);
+            long t2 = System.nanoTime();
+            runMode(grid, pairs, PathFinder.Mode.JPS_PLUS);
+            long t3 = System.nanoTime();
+            classic += t1 - t0;
+            astar += t2 - t1;
+            jps += t3 - t2;
+        }
+
+        double scale = 1000.0 * ROUNDS * pairs.length;
+        String hierarchical = "-";
+        if (navGraph != null) {
+            grid.setNavGraph(navGraph);
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                runMode(grid, pairs, PathFinder.Mode.JPS_PLUS);
+            }
+            long t0 = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                runMode(grid, pairs, PathFinder.Mode.JPS_PLUS);
+            }
+            hierarchical = String.format("%9.2f us", (System.nanoTime() - t0) / scale);
+            grid.setNavGraph(null);
+        }
+        System.out.printf("%-20s %8s %9.2f us %9.2f us %9.2f us %12s %16s%n", name,
+            grid.getWidth() + "x" + grid.getHeight(), classic / scale, astar / scale, jps / scale,
+            hierarchical, countExpanded(grid, pairs));
+        PathFinder.setMode(PathFinder.Mode.JPS_PLUS);
+    }
+
+    private static Vector2[][] pickPairs(Grid grid, Random random) {
+        List<Vector2> floor = new ArrayList<>();
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                if (grid.isWalkable(x, y)) floor.add(new Vector2(x * 16 + 8, y * 16 + 8));
+            }
+        }
+        if (floor.size() < 2) return new Vector2[0][];
+
+        Vector2[][] pairs = new Vector2[PAIRS][];
+        for (int i = 0; i < PAIRS; i++) {
+            pairs[i] = new Vector2[] {
+                floor.get(random.nextInt(floor.size())),
+                floor.get(random.nextInt(floor.size()))
+            };
+        }
+        return pairs;
+    }
+
+    private static void verify(String map, Grid grid, Vector2[][] pairs) {
+        for (Vector2[] pair : pairs) {
+            List<Vector2> expected = PathFinder.findPathClassic(grid, pair[0], pair[1]);
+            int expectedLength = expected == null ? -1 : expected.size();
+            for (PathFinder.Mode mode : PathFinder.Mode.values()) {
+                PathFinder.setMode(mode);
+                List<Vector2> actual = PathFinder.findPath(grid, pair[0], pair[1]);
+                int actualLength = actual == null ? -1 : actual.size();
+                if (expectedLength != actualLength) {
+                    throw new IllegalStateException(map + ": path length mismatch for " + pair[0] + " -> " + pair[1]
+                        + " (classic " + expectedLength + ", " + mode + " " + actualLength + ")");
+                }
+            }
+        }
+
+        // Twice through the cache: the first pass fills it (and already reuses partial paths), the second only hits
+        PathFinder.setCaching(true);
+        for (int pass = 0; pass < 2; pass++) {
+            for (Vector2[] pair : pairs) {
+                List<Vector2> expected = PathFinder.findPathClassic(grid, pair[0], pair[1]);
+                List<Vector2> cached = PathFinder.findPath(grid, pair[0], pair[1]);
+                int expectedLength = expected == null ? -1 : expected.size();
+                int cachedLength = cached == null ? -1 : cached.size();
+                if (expectedLength != cachedLength) {
+                    throw new IllegalStateException(map + ": cached path length mismatch for " + pair[0] + " -> " + pair[1]
+                        + " (classic " + expectedLength + ", cached " + cachedLength + ")");
+                }
+            }
+        }
+        PathFinder.setCaching(false);
+    }
+
+    private static String countExpanded(Grid grid, Vector2[][] pairs) {
+        IntArray out = new IntArray();
+        long astar = 0;
+        long jps = 0;
+        for (Vector2[] pair : pairs) {
+            int sx = (int) (pair[0].x / 16), sy = (int) (pair[0].y / 16);
+            int ex = (int) (pair[1].x / 16), ey = (int) (pair[1].y / 16);
+            AStarSearch.get().search(grid, sx, sy, ex, ey, out);
+            astar += AStarSearch.get().getExpanded();
+            JumpPointSearch.get().search(grid, sx, sy, ex, ey, out);
+            jps += JumpPointSearch.get().getExpanded();
+        }
+        return (astar / pairs.length) + " / " + (jps / pairs.length);
+    }
+
+    private static int runClassic(Grid grid, Vector2[][] pairs) {
+        int total = 0;
+        for (Vector2[] pair : pairs) {
+            List<Vector2> path = PathFinder.findPathClassic(grid, pair[0], pair[1]);
+            if (path != null) total += path.size();
+        }
+        return total;
+    }
+
+    private static int runMode(Grid grid, Vector2[][] pairs, PathFinder.Mode mode) {
+        PathFinder.setMode(mode);
+        int total = 0;
+        for (Vector2[] pair : pairs) {
+            List<Vector2> path = PathFinder.findPath(grid, pair[0], pair[1]);
+            if (path != null) total += path.size();
+        }
+        return total;
+    }
+}
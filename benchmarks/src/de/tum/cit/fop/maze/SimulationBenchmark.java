@@ -0,0 +1,192 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import de.tum.cit.fop.maze.AI.FieldOfView;
+import de.tum.cit.fop.maze.AI.FlowField;
+import de.tum.cit.fop.maze.AI.Grid;
+import de.tum.cit.fop.maze.AI.PathFinder;
+import de.tum.cit.fop.maze.AI.PathService;
+import de.tum.cit.fop.maze.GameObj.EnemyStore;
+import de.tum.cit.fop.maze.GameObj.PlayerBody;
+import de.tum.cit.fop.maze.Procedure.DungeonLayout;
+import de.tum.cit.fop.maze.World.TileMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Runs the enemy simulation of a generated floor without a window or GL context,
+ * the way the game does per fixed step (chase field, player view, path service,
+ * enemy store), while the player's {@link PlayerBody} walks between random rooms
+ * along searched paths, colliding with the walls like in the game.
+ * <p>
+ * Usage: {@code ./gradlew :benchmarks:simulation} (optional arguments: floor size, enemy count).
+ */
+public class SimulationBenchmark {
+
+    private static final float STEP = 1 / 60f;
+    private static final int WARMUP_TICKS = 600;
+    private static final int TICKS = 3600;
+
+    /**
+     * The player's body that never dies, steered like the keyboard would towards the next path tile.
+     */
+    private static class Player implements EnemyStore.Target, PlayerBody.Controls, PlayerBody.Contacts {
+        final PlayerBody body;
+        List<Vector2> path;
+        int next;
+        int hits;
+
+        Player(Grid grid, float x, float y) {
+            body = new PlayerBody(x, y);
+            body.setGrid(grid);
+            body.setContacts(this);
+        }
+
+        @Override
+        public void getDirection(Vector2 out) {
+            if (path == null || next >= path.size()) return;
+            Rectangle bounds = body.getBounds();
+            float dx = path.get(next).x - (bounds.x + 4);
+            float dy = path.get(next).y - (bounds.y + 4);
+            if (Math.abs(dx) <= 2f && Math.abs(dy) <= 2f) {
+                next++; // Reached this tile, head for the next one from the next step on
+                return;
+            }
+            if (Math.abs(dx) > 2f) out.x = Math.signum(dx);
+            if (Math.abs(dy) > 2f) out.y = Math.signum(dy);
+        }
+
+        @Override
+        public boolean isRunning() {
+            return false;
+        }
+
+        @Override
+        public boolean isContact(Grid.Occupant occupant) {
+            return false; // The floor has no objects
+        }
+
+        @Override
+        public boolean blocks(Grid.Occupant occupant) {
+            return false;
+        }
+
+        @Override
+        public void touched(Grid.Occupant occupant) {
+        }
+
+        @Override
+        public Rectangle getBounds() {
+            return body.getBounds();
+        }
+
+        @Override
+        public boolean isShielded() {
+            return false;
+        }
+
+        @Override
+        public void takeDamage() {
+            hits++;
+        }
+    }
+
+    /**
+     * Enemy without a sprite.
+     */
+    private static class Agent implements EnemyStore.View {
+        int index;
+
+        @Override
+        public void attach(EnemyStore<?> store, int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void detach() {
+        }
+
+        @Override
+        public int getIndex() {
+            return index;
+        }
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        TileMap tiles = new DungeonLayout(size, size, 1).generate(size / 10);
+        Grid grid = new Grid(tiles, new ArrayList<>());
+        Random random = new Random(3);
+        int[] floor = new int[size * size];
+        int floorCount = 0;
+        for (int tile = 0; tile < floor.length; tile++) {
+            if (grid.isWalkable(tile % size, tile / size)) floor[floorCount++] = tile;
+        }
+
+        int start = floor[random.nextInt(floorCount)];
+        Player player = new Player(grid, (start % size) * 16 + 4, (start / size) * 16 + 4);
+        FlowField flowField = new FlowField(grid, 32);
+        FieldOfView playerView = new FieldOfView(grid, 12);
+        PathService pathService = new PathService();
+        pathService.setGrid(grid);
+        EnemyStore<Agent> enemies = new EnemyStore<>(grid, player, count, 1);
+        enemies.setFlowField(flowField);
+        enemies.setPathService(pathService);
+        enemies.setFieldOfView(playerView, new FieldOfView(grid, 3));
+        for (int i = 0; i < count; i++) {
+            int tile = floor[random.nextInt(floorCount)];
+            byte kind = i % 4 == 0 ? EnemyStore.KIND_GHOST : EnemyStore.KIND_ENEMY;
+            enemies.add(new Agent(), kind, (tile % size) * 16, (tile / size) * 16, 100);
+        }
+
+        // The player walks to a random floor tile, then picks the next one (also when it got stuck)
+        Rectangle bounds = player.getBounds();
+        Vector2 from = new Vector2();
+        Vector2 to = new Vector2();
+        Rectangle screen = new Rectangle();
+        int stuck = 0;
+        long total = 0;
+        long worst = 0;
+        for (int tick = 0; tick < WARMUP_TICKS + TICKS; tick++) {
+            if (player.path == null || player.next >= player.path.size() || stuck > 60) {
+                int goal = floor[random.nextInt(floorCount)];
+                from.set(bounds.x + 4, bounds.y + 4);
+                to.set((goal % size) * 16 + 8, (goal / size) * 16 + 8);
+                player.path = PathFinder.findPath(grid, from, to);
+                player.next = 0;
+                stuck = 0;
+            }
+            float px = bounds.x + 4;
+            float py = bounds.y + 4;
+            player.body.accelerate(STEP, player);
+            player.body.move(STEP);
+            stuck = bounds.x + 4 == px && bounds.y + 4 == py ? stuck + 1 : 0;
+
+            long t0 = System.nanoTime();
+            int tileX = (int) (bounds.x + 4) / 16;
+            int tileY = (int) (bounds.y + 4) / 16;
+            flowField.update(tileX, tileY);
+            playerView.update(tileX, tileY);
+            screen.set(px - 320, py - 180, 640, 360);
+            pathService.setFocus(px, py, screen);
+            pathService.update();
+            enemies.setVisibleArea(screen);
+            enemies.update(STEP);
+            long elapsed = System.nanoTime() - t0;
+            if (tick >= WARMUP_TICKS) {
+                total += elapsed;
+                worst = Math.max(worst, elapsed);
+            }
+        }
+        pathService.dispose();
+
+        double average = total / 1e6 / TICKS;
+        System.out.printf("%dx%d floor, %d enemies: %.3f ms/tick (worst %.2f ms), %.0f ticks/s, %d awake, %d resting, %d hits%n",
+            size, size, count, average, worst / 1e6, 1000 / average, enemies.getAwake(), enemies.getResting(), player.hits);
+    }
+}
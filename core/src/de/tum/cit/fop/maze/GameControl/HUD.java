@@ -32,6 +32,7 @@ public class HUD {
     private TextButton infiniteHpBtn;
     private TextButton shieldBtn;
     private Label timeLabel;
+    private Label statsLabel; // F3 render statistics
     
     // Dependencies
     private final GameScreen gameScreen;
@@ -101,6 +102,25 @@ private void setupUI() {
         
         stage.addActor(table);
         stage.addActor(table);
+
+        // F3 debug statistics (below the heart)
+        Table statsTable = new Table();
+        statsTable.top().left();
+        statsTable.setFillParent(true);
+        statsLabel = new Label("", skin);
+        statsLabel.setVisible(false);
+        statsTable.add(statsLabel).left().padTop(90).padLeft(10);
+        stage.addActor(statsTable);
+    }
+
+    /**
+     * Shows or hides the F3 statistics text (culling counters etc.).
+     */
+    public void setDebugStats(boolean visible, String text) {
+        statsLabel.setVisible(visible);
+        if (visible) {
+            statsLabel.setText(text);
+        }
     }
     
     private void setupDebugMenu() {
@@ -7,18 +7,20 @@
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.MathUtils;
+import de.tum.cit.fop.maze.AI.Grid;
 import java.util.List;
 
-public class Character extends MovableObject {
+/**
+ * The player as the game sees it: sprite, animations, keyboard input, items and
+ * damage. Movement and collision live in its {@link PlayerBody}; the position,
+ * velocity and hitbox of this object are the body's.
+ */
+public class Character extends MovableObject implements EnemyStore.Target {
     // private int lives; // Removed, using health
     private boolean hasKey = false;
-    private float speed;
-    private static final float WALK_SPEED = 100f;
-    private static final float RUN_SPEED = 200f;
     private float stateTime;
     private boolean isLevelCompleted = false;
 
@@ -37,31 +39,100 @@ public class Character extends MovableObject {
     private TextureRegion arrowRegion;
     private Vector2 targetPosition; 
 
+    // Movement and collision, fed by the keyboard
+    private final PlayerBody body;
+    private final KeyboardControls controls = new KeyboardControls();
+
     public enum Direction {
         DOWN, RIGHT, UP, LEFT
     }
 
+    /**
+     * Reads the movement keys for the body.
+     */
+    private static class KeyboardControls implements PlayerBody.Controls {
+        de.tum.cit.fop.maze.GameControl.ConfigManager configManager;
+
+        @Override
+        public void getDirection(Vector2 out) {
+            if (Gdx.input.isKeyPressed(configManager.getKey("UP"))) out.y = 1;
+            if (Gdx.input.isKeyPressed(configManager.getKey("DOWN"))) out.y = -1;
+            if (Gdx.input.isKeyPressed(configManager.getKey("LEFT"))) out.x = -1;
+            if (Gdx.input.isKeyPressed(configManager.getKey("RIGHT"))) out.x = 1;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT) || Gdx.input.isKeyPressed(Input.Keys.SHIFT_RIGHT);
+        }
+    }
+
+    // Keys, pickups, traps and exits under the body
+    private final PlayerBody.Contacts contacts = new PlayerBody.Contacts() {
+        @Override
+        public boolean isContact(Grid.Occupant occupant) {
+            GameObject obj = (GameObject) occupant; // Only map objects are indexed
+            if (obj.isMarkedForRemoval()) return false;
+            return obj instanceof Key || obj instanceof Exit || obj instanceof Trap || obj instanceof Collectable;
+        }
+
+        @Override
+        public boolean blocks(Grid.Occupant occupant) {
+            return occupant instanceof Exit && !hasKey; // Locked without the key
+        }
+
+        @Override
+        public void touched(Grid.Occupant occupant) {
+            if (occupant instanceof Key) {
+                hasKey = true;
+                ((Key) occupant).setMarkedForRemoval(true);
+                System.out.println("Key collected!");
+            } else if (occupant instanceof Collectable) {
+                ((Collectable) occupant).collect(Character.this);
+            } else if (occupant instanceof Exit) {
+                isLevelCompleted = true;
+                System.out.println("Level Completed!");
+            } else if (occupant instanceof Trap) {
+                // 1. 扣血
+                takeDamage();
+                System.out.println("Stepped on a trap! Lives left: " + getLives());
+            }
+        }
+    };
+
     public Character(float x, float y) {
         super(x, y, 16, 32, null); 
         this.health = 4; // Use inherited health
-        this.speed = WALK_SPEED;
-        
-        // Physics Init
-        this.maxSpeed = WALK_SPEED;
-        this.acceleration = 800f;
-        this.friction = 800f;
         
         this.currentDirection = Direction.DOWN;
         this.stateTime = 0f;
 
         loadAnimations();
 
-        this.bounds = new Rectangle(x+4, y+4, 8, 8);
+        body = new PlayerBody(x, y);
+        body.setContacts(contacts);
+        this.position = body.getPosition();
+        this.velocity = body.getVelocity();
+        this.bounds = body.getBounds();
     }
     
     public void setPosition(float x, float y) {
-        this.position.set(x, y);
-        updateBounds();
+        body.setPosition(x, y); // Teleports are not interpolated
+    }
+
+    /**
+     * Moves the character without breaking the interpolation, see {@link PlayerBody#translate}.
+     */
+    public void translate(float dx, float dy) {
+        body.translate(dx, dy);
+    }
+
+    /**
+     * Sets the grid whose occupancy index is used for collision checks.
+     * Must be called whenever a new level is loaded.
+     */
+    public void setGrid(Grid grid) {
+        body.setGrid(grid);
     }
 
     // ... (isLevelCompleted and loadAnimations omitted, assumed unchanged if not in range) ...
@@ -86,7 +157,6 @@ public void resetForNewLevel() {
         
         // Reset physical state
         this.velocity.set(0, 0);
-        this.acceleration = 800f; // Reset accel in case it was modified? (Not usually, but safe)
     }
 
     private void loadAnimations() {
@@ -125,57 +195,13 @@ private void loadAnimations() {
         this.textureRegion = downFrames[0];
     }
 
-    private void collisionAddressing(GameObject hitObject, float oldPosition, boolean isXAxis){
-        if (hitObject != null) {
-            if(hitObject instanceof Wall){
-                if (isXAxis) {
-                    this.position.x = oldPosition;
-                    this.velocity.x = 0;
-                } else {
-                    this.position.y = oldPosition;
-                    this.velocity.y = 0;
-                }
-                updateBounds();
-            }
-            else if(hitObject instanceof Key){
-                this.hasKey = true;
-                hitObject.setMarkedForRemoval(true);
-                System.out.println("Key collected!");
-            }
-            else if(hitObject instanceof Collectable){
-                ((Collectable) hitObject).collect(this);
-            }
-            else if(hitObject instanceof Exit){
-                if(this.hasKey){
-                    this.isLevelCompleted = true;
-                    System.out.println("Level Completed!");
-                }
-                else{
-                    if (isXAxis) {
-                        this.position.x = oldPosition;
-                        this.velocity.x = 0;
-                    } else {
-                        this.position.y = oldPosition;
-                        this.velocity.y = 0;
-                    }
-                    updateBounds();
-                }
-            }
-            else if (hitObject instanceof Trap) {
-                // 1. 扣血
-                this.takeDamage();
-                System.out.println("Stepped on a trap! Lives left: " + getLives());
-            }
-        }
-    }
-
     public void update(float delta, List<GameObject> mapObjects, de.tum.cit.fop.maze.GameControl.ConfigManager configManager) {
         stateTime += delta;
+        updateDamageFlash(delta);
 
-        handleInput(configManager);
-
-        // Physics update (Inherited)
-        updatePhysics(delta);
+        controls.configManager = configManager;
+        body.accelerate(delta, controls);
+        isMoving = body.isMoving();
 
         // Animation state
         if (isMoving) {
@@ -187,27 +213,7 @@ public void update(float delta, List<GameObject> mapObjects, de.tum.cit.fop.maze
             }
         }
 
-        if (velocity.len() > 1f) {
-            float oldX = position.x;
-            float oldY = position.y;
-
-            // Move X
-            position.x += velocity.x * delta;
-            updateBounds();
-            GameObject colX = checkCollision(mapObjects);
-            collisionAddressing(colX, oldX, true);
-
-
-            // Move Y
-            position.y += velocity.y * delta;
-            updateBounds();
-            GameObject colY = checkCollision(mapObjects);
-            collisionAddressing(colY, oldY, false);
-
-
-            // Corner Sliding Logic
-            handleWallSliding(delta, mapObjects, colX, colY);
-        }
+        body.move(delta);
 
         // Update texture based on animation
         Animation<TextureRegion> currentAnim;
@@ -265,20 +271,32 @@ private void loadShieldAnimation() {
          shieldAnimation.setPlayMode(Animation.PlayMode.LOOP);
     }
     
+    @Override
     public boolean isShielded() {
         return shieldTime > 0;
     }
 
     public void draw(SpriteBatch batch) {
+        draw(batch, 1f);
+    }
+
+    /**
+     * Draws the character between its last two positions.
+     *
+     * @param alpha 0 = position before the last update, 1 = current position.
+     */
+    public void draw(SpriteBatch batch, float alpha) {
         // boolean isFlashing = damageFlashTime > 0; // inherited
-        
+        float x = getDrawX(alpha);
+        float y = getDrawY(alpha);
+
         setupDamageFlash(batch);
         
-        batch.draw(textureRegion, position.x, position.y, width, height);
+        batch.draw(textureRegion, x, y, width, height);
 
         endDamageFlash(batch);
         
-        drawArrow(batch);
+        drawArrow(batch, x, y);
         
         // Reset Color (Important! Otherwise everything else becomes transparent/tinted)
         batch.setColor(Color.WHITE);
@@ -298,11 +316,11 @@ public void draw(SpriteBatch batch) {
                 float actualHeight = 16f * scaleY;
                 
                 // Center X: SpriteCenter (pos.x + 8) - HalfNewWidth
-                float drawX = (position.x + 8) - (actualWidth / 2);
+                float drawX = (x + 8) - (actualWidth / 2);
                 
                 // Bottom Y: Aligned with Hitbox Bottom (pos.y + 4) or slightly offset (+6)
                 // Growing height keeps bottom fixed.
-                float drawY = position.y + 5; 
+                float drawY = y + 5; 
                 
                 batch.draw(shieldFrame, drawX, drawY, actualWidth, actualHeight);
                 
@@ -311,6 +329,14 @@ public void draw(SpriteBatch batch) {
     }
 
     
+    public float getDrawX(float alpha) {
+        return MathUtils.lerp(body.getPreviousPosition().x, position.x, alpha);
+    }
+
+    public float getDrawY(float alpha) {
+        return MathUtils.lerp(body.getPreviousPosition().y, position.y, alpha);
+    }
+
     // approach helper removed as it is now in MovableObject
     
     private void updateTarget(List<GameObject> mapObjects) {
@@ -346,14 +372,18 @@ private void updateTarget(List<GameObject> mapObjects) {
     }
 
     public void drawArrow(SpriteBatch batch) {
+        drawArrow(batch, position.x, position.y);
+    }
+
+    private void drawArrow(SpriteBatch batch, float x, float y) {
         if (targetPosition == null) return;
 
-        float angle = MathUtils.atan2(targetPosition.y - position.y, targetPosition.x - position.x) * MathUtils.radiansToDegrees;
+        float angle = MathUtils.atan2(targetPosition.y - y, targetPosition.x - x) * MathUtils.radiansToDegrees;
         float radius = 20f;
 
         // Center of character
-        float cx = position.x + width / 2;
-        float cy = position.y + height / 2; 
+        float cx = x + width / 2;
+        float cy = y + height / 2; 
 
         float arrowX = cx + MathUtils.cosDeg(angle) * (radius);
         float arrowY = cy + MathUtils.sinDeg(angle) * (radius);
@@ -371,43 +401,6 @@ public void drawArrow(SpriteBatch batch) {
         );
     }
 
-    private void handleInput(de.tum.cit.fop.maze.GameControl.ConfigManager configManager) {
-        if (Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT) || Gdx.input.isKeyPressed(Input.Keys.SHIFT_RIGHT)) {
-            maxSpeed = RUN_SPEED;
-        } else {
-            maxSpeed = WALK_SPEED;
-        }
-
-        inputVector.set(0, 0);
-        if (Gdx.input.isKeyPressed(configManager.getKey("UP"))) inputVector.y = 1;
-        if (Gdx.input.isKeyPressed(configManager.getKey("DOWN"))) inputVector.y = -1;
-        if (Gdx.input.isKeyPressed(configManager.getKey("LEFT"))) inputVector.x = -1;
-        if (Gdx.input.isKeyPressed(configManager.getKey("RIGHT"))) inputVector.x = 1;
-
-        if (inputVector.len2() > 0) {
-            inputVector.nor(); // Normalize for consistent diagonal speed
-        }
-    }
-    
-    // Bounds update logic stays here
-    private void updateBounds() {
-        this.bounds.setPosition(position.x+4, position.y+4);
-    }
-
-    private GameObject checkCollision(List<GameObject> mapObjects) {
-        for (GameObject obj : mapObjects) {
-            if (obj == this) continue;
-
-            // Wall collision
-            if (obj instanceof Wall || obj instanceof Key || obj instanceof Exit || obj instanceof Trap || obj instanceof Collectable) {
-                if (bounds.overlaps(obj.getBounds())) {
-                    return obj;
-                }
-            }
-        }
-        return null;
-    }
-
     private boolean screenShakeRequested = false;
     private boolean damageNumberRequested = false;
     private float invincibleTime = 0f;
@@ -437,6 +430,7 @@ public void takeDamage(int amount) {
         }
     }
 
+    @Override
     public void takeDamage() {
         takeDamage(1);
     }
@@ -496,100 +490,4 @@ public void addLives(int amount) {
     public Vector2 getVelocity() {
         return velocity;
     }
-
-    private void handleWallSliding(float delta, List<GameObject> mapObjects, GameObject colX, GameObject colY) {
-        float SLIDE_THRESHOLD = 8.0f; // User requested 8.0f
-        float slideSpeed = 100f; 
-
-        // Case 1: Hitting Vertical Wall (X-Collision), trying to move Horizontally
-        if (colX instanceof Wall && Math.abs(inputVector.x) > 0 && Math.abs(inputVector.y) == 0) {
-            Rectangle wallBounds = colX.getBounds();
-            float overlapY = Math.min(bounds.y + bounds.height, wallBounds.y + wallBounds.height) - Math.max(bounds.y, wallBounds.y);
-            
-            if (overlapY > 0 && overlapY <= SLIDE_THRESHOLD) {
-                float centerY = bounds.y + bounds.height/2;
-                float wallCenterY = wallBounds.y + wallBounds.height/2;
-                float slideAmount = slideSpeed * delta;
-                
-                float newY = position.y;
-                boolean slidingDown = centerY < wallCenterY;
-                
-                // Continuity Check: Is there a wall in the direction we want to slide?
-                // If sliding down, check directly below the current wall.
-                // If sliding up, check directly above.
-                float checkY = slidingDown ? wallBounds.y - 1 : wallBounds.y + wallBounds.height + 1;
-                // Check a thin strip along the wall's vertical seam
-                Rectangle neighborCheck = new Rectangle(wallBounds.x, checkY, wallBounds.width, 1);
-                
-                if (!isWallAt(neighborCheck, mapObjects, colX)) { // Only slide if NO wall there
-                    if (slidingDown) newY -= slideAmount;
-                    else newY += slideAmount;
-
-                    if (isPositionFree(position.x, newY, mapObjects, this)) {
-                        position.y = newY;
-                        updateBounds();
-                    }
-                }
-            }
-        }
-
-        // Case 2: Hitting Horizontal Wall (Y-Collision), trying to move Vertically
-        if (colY instanceof Wall && Math.abs(inputVector.y) > 0 && Math.abs(inputVector.x) == 0) {
-            Rectangle wallBounds = colY.getBounds();
-            float overlapX = Math.min(bounds.x + bounds.width, wallBounds.x + wallBounds.width) - Math.max(bounds.x, wallBounds.x);
-            
-            if (overlapX > 0 && overlapX <= SLIDE_THRESHOLD) {
-                float centerX = bounds.x + bounds.width/2;
-                float wallCenterX = wallBounds.x + wallBounds.width/2;
-                float slideAmount = slideSpeed * delta;
-                
-                float newX = position.x;
-                boolean slidingLeft = centerX < wallCenterX;
-                
-                // Continuity Check
-                float checkX = slidingLeft ? wallBounds.x - 1 : wallBounds.x + wallBounds.width + 1;
-                Rectangle neighborCheck = new Rectangle(checkX, wallBounds.y, 1, wallBounds.height);
-                
-                if (!isWallAt(neighborCheck, mapObjects, colY)) {
-                    if (slidingLeft) newX -= slideAmount;
-                    else newX += slideAmount;
-
-                    if (isPositionFree(newX, position.y, mapObjects, this)) {
-                        position.x = newX;
-                        updateBounds();
-                    }
-                }
-            }
-        }
-    }
-
-    private boolean isWallAt(Rectangle area, List<GameObject> mapObjects, GameObject ignoreSelf) {
-        for (GameObject obj : mapObjects) {
-            if (obj == ignoreSelf) continue;
-            if (obj instanceof Wall) {
-                if (area.overlaps(obj.getBounds())) return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean isPositionFree(float x, float y, List<GameObject> mapObjects, GameObject ignoreSelf) {
-        // Temporarily move bounds to check collision
-        Rectangle testBounds = new Rectangle(x+4, y+4, 8, 8); // Match constructor logic
-        for (GameObject obj : mapObjects) {
-            if (obj == ignoreSelf) continue;
-            if (obj instanceof Wall || obj instanceof Exit) {
-                 if (obj instanceof Exit && hasKey) continue; // Passable if has key
-                 
-                 if (testBounds.overlaps(obj.getBounds())) {
-                     return false;
-                 }
-            }
-        }
-        return true;
-    }
-
-
 }
-
-
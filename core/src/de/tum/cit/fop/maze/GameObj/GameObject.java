@@ -5,7 +5,7 @@
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 
-public abstract class GameObject {
+public abstract class GameObject implements de.tum.cit.fop.maze.AI.Grid.Occupant {
 
     //坐标
     protected Vector2 position;
@@ -57,6 +57,7 @@ public void setHeight(float height) {
         this.height = height;
     }
 
+    @Override
     public Rectangle getBounds() {
         return bounds;
     }
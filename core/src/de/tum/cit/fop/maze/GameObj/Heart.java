@@ -9,6 +9,7 @@
 public class Heart extends GameObject implements Collectable {
     private Animation<TextureRegion> floatAnimation;
     private float stateTime;
+    private static Texture texture; // objects.png, shared by all instances
 
     public Heart(float x, float y) {
         super(x, y, 16, 16, null); // Texture set later
@@ -16,7 +17,9 @@ public Heart(float x, float y) {
     }
     
     private void loadAnimation() {
-        Texture texture = new Texture(Gdx.files.internal("objects.png"));
+        if (texture == null) {
+            texture = new Texture(Gdx.files.internal("objects.png"));
+        }
         TextureRegion[][] tmp = TextureRegion.split(texture, 16, 16);
         
         // Row 3, Cols 0-3
@@ -1,9 +0,0 @@
-package de.tum.cit.fop.maze.GameObj;
-
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
-
-public class Path extends GameObject {
-    public Path(float x, float y, float width, float height, TextureRegion textureRegion) {
-        super(x, y, width, height, textureRegion);
-    }
-}
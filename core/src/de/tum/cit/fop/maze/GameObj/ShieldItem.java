@@ -8,6 +8,7 @@
 public class ShieldItem extends GameObject implements Collectable {
     private Animation<TextureRegion> animation;
     private float stateTime;
+    private static Texture texture; // objects.png, shared by all instances
 
     public ShieldItem(float x, float y) {
         super(x, y, 16, 16, null);
@@ -15,7 +16,9 @@ public ShieldItem(float x, float y) {
     }
     
     private void loadAnimation() {
-        Texture texture = new Texture(Gdx.files.internal("objects.png"));
+        if (texture == null) {
+            texture = new Texture(Gdx.files.internal("objects.png"));
+        }
         TextureRegion[][] tmp = TextureRegion.split(texture, 16, 16);
         
         // Row 3, Cols 4-10 (4,5,6,7,8,9,10 = 7 frames)
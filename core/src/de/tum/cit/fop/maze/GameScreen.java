@@ -50,7 +50,27 @@ public class GameScreen implements Screen {
     // Game Objects
     private de.tum.cit.fop.maze.GameObj.Character character;
     private List<GameObject> mapObjects;
-    private List<de.tum.cit.fop.maze.GameObj.Enemy> enemies;
+    private de.tum.cit.fop.maze.World.TileMap tileMap; // Static floor/wall layer
+    private de.tum.cit.fop.maze.AI.NavGraph navGraph; // Room graph of generated floors, null for map files
+    private de.tum.cit.fop.maze.AI.FlowField flowField; // Distances to the player for chasing enemies
+    private static final int FLOW_FIELD_RADIUS = 32; // Tiles; enemies give up the chase well before that
+    private de.tum.cit.fop.maze.AI.FieldOfView playerView; // Tiles the player can see (enemy sight checks)
+    private static final int PLAYER_VIEW_RADIUS = 12; // Tiles; enemies lose sight at 6
+    private de.tum.cit.fop.maze.AI.PathService pathService; // Worker threads for enemy path searches
+    private de.tum.cit.fop.maze.World.TileRenderer tileRenderer; // Chunked render cache for tileMap
+    private final com.badlogic.gdx.math.Rectangle viewBounds = new com.badlogic.gdx.math.Rectangle(); // Camera rectangle in world space
+
+    // Visibility culling
+    private static final float CULL_CELL_SIZE = 64f; // 4 tiles per spatial hash cell
+    private static final float CULL_MARGIN = 16f;    // Entities are anchored at their bottom-left corner
+    private final com.badlogic.gdx.math.Rectangle cullBounds = new com.badlogic.gdx.math.Rectangle();
+    private final de.tum.cit.fop.maze.World.SpatialHash<GameObject> objectHash = new de.tum.cit.fop.maze.World.SpatialHash<>(CULL_CELL_SIZE);
+    private final de.tum.cit.fop.maze.World.SpatialHash<de.tum.cit.fop.maze.GameObj.Enemy> enemyHash = new de.tum.cit.fop.maze.World.SpatialHash<>(CULL_CELL_SIZE);
+    private final com.badlogic.gdx.utils.Array<GameObject> visibleObjects = new com.badlogic.gdx.utils.Array<>();
+    private final com.badlogic.gdx.utils.Array<de.tum.cit.fop.maze.GameObj.Enemy> visibleEnemies = new com.badlogic.gdx.utils.Array<>();
+    private int objectsConsidered, objectsDrawn;
+    private int enemiesConsidered, enemiesDrawn;
+    private de.tum.cit.fop.maze.GameObj.EnemyStore<de.tum.cit.fop.maze.GameObj.Enemy> enemies; // Simulation state of all enemies, Enemy objects are views
     private FileHandle mapFile;
     private de.tum.cit.fop.maze.AI.Grid grid;
     private List<de.tum.cit.fop.maze.VFX.DamageNumber> damageNumbers;
@@ -58,12 +78,50 @@ public class GameScreen implements Screen {
     // Procedural Generation
     private boolean isProcedural = false;
     private int currentDifficulty = 1;
+    private long runSeed; // Every floor of an endless run derives its seed from this
+    private de.tum.cit.fop.maze.Procedure.FloorCache floorCache;
+    // The next endless-mode floor, prepared on a worker thread while this one is played
+    private java.util.concurrent.ExecutorService floorWorker;
+    private java.util.concurrent.Future<PreparedFloor> nextFloor;
+    
+    // Infinite mode: one endless world, streamed in chunks around the player
+    private boolean isStreaming = false;
+    private de.tum.cit.fop.maze.Procedure.ChunkStream chunkStream;
+    private de.tum.cit.fop.maze.Procedure.DungeonGenerator chunkObjects; // Only builds the chunks' level objects
+    private final com.badlogic.gdx.utils.Array<de.tum.cit.fop.maze.Procedure.Chunk> streamedChunks = new com.badlogic.gdx.utils.Array<>();
+
+    /**
+     * An endless-mode floor with everything built that needs no textures.
+     */
+    private static class PreparedFloor {
+        final int difficulty;
+        final de.tum.cit.fop.maze.Procedure.DungeonGenerator generator;
+        final de.tum.cit.fop.maze.Procedure.Floor floor;
+        final de.tum.cit.fop.maze.AI.Grid grid; // Objects are indexed once they exist
+        final com.badlogic.gdx.utils.IntArray hearts = new com.badlogic.gdx.utils.IntArray();
+        final com.badlogic.gdx.utils.IntArray shields = new com.badlogic.gdx.utils.IntArray();
+
+        PreparedFloor(int difficulty, long seed, de.tum.cit.fop.maze.Procedure.FloorCache cache) {
+            int size = de.tum.cit.fop.maze.Procedure.DungeonLayout.floorSize(difficulty);
+            this.difficulty = difficulty;
+            generator = new de.tum.cit.fop.maze.Procedure.DungeonGenerator(size, size, seed);
+            generator.setCache(cache);
+            floor = generator.compile(difficulty);
+            grid = new de.tum.cit.fop.maze.AI.Grid(floor.getTiles(), new java.util.ArrayList<>());
+            grid.setNavGraph(floor.getNavGraph());
+            // Generated floors get their pickups from their seed as well
+            de.tum.cit.fop.maze.Procedure.Pickups.scatter(floor.getTiles(), new com.badlogic.gdx.math.RandomXS128(seed + 1), hearts, shields);
+        }
+    }
+
+    // Fixed timestep: the world advances in SIM_STEP ticks, frames draw between the last two
+    private static final float SIM_STEP = 1 / 60f;
+    private static final int MAX_STEPS_PER_FRAME = 5; // After a long frame the rest is dropped (slow-down instead of a death spiral)
+    private float accumulator = 0f;
+    private int simSteps; // Ticks run in the last frame (debug)
 
     private float levelTimer = 0f; // 记录当前关卡耗时（秒）
     private int score = 0;         // 当前得分
-    private static final int BASE_SCORE_PER_LEVEL = 1000; // 每关基础分
-    private static final int PENALTY_PER_SECOND = 10;     // 每秒扣除的分数
-    private static final int SCORE_PER_LIFE = 500;
 
     private String playerName;
     private int totalRunScore = 0; // 记录无尽模式累计总分
@@ -82,10 +140,11 @@ public GameScreen(MazeRunnerGame game, FileHandle mapFile) {
     /**
      * Constructor for GameScreen (Procedural Mode).
      */
-    public GameScreen(MazeRunnerGame game, boolean isProcedural, String playerName) {
+    public GameScreen(MazeRunnerGame game, boolean isProcedural, String playerName, long runSeed) {
         this.game = game;
         this.isProcedural = isProcedural;
         this.currentDifficulty = 1;
+        this.runSeed = runSeed;
 
         this.playerName = playerName; // 保存名字
         this.totalRunScore = 0;       // 初始化总分
@@ -94,6 +153,21 @@ public GameScreen(MazeRunnerGame game, boolean isProcedural, String playerName)
         setupLevel();
     }
     
+    /**
+     * Constructor for GameScreen (Infinite Mode).
+     */
+    public GameScreen(MazeRunnerGame game, String playerName, long runSeed) {
+        this.game = game;
+        this.isProcedural = true; // Scored and ranked like the endless mode
+        this.isStreaming = true;
+        this.currentDifficulty = 1;
+        this.runSeed = runSeed;
+        this.playerName = playerName;
+        
+        initCommon();
+        setupLevel();
+    }
+    
     private void initCommon() {
         // Create and configure the camera for the game view
         camera = new OrthographicCamera();
@@ -112,6 +186,10 @@ private void initCommon() {
     }
 
     private void setupLevel() {
+        if (isStreaming) {
+             setupStream();
+             return;
+        }
         if (isProcedural) {
              generateProceduralLevel();
              return;
@@ -129,25 +207,195 @@ private void setupLevel() {
             this.mapFile = Gdx.files.internal("maps/level-6.properties");
         }
 
-        mapObjects = MapLoader.loadMap(this.mapFile);
-
-        initMapObjects();
+        de.tum.cit.fop.maze.World.Level level = MapLoader.loadMap(this.mapFile);
+        tileMap = level.getTiles();
+        mapObjects = level.getObjects();
+        navGraph = level.getNavGraph();
+
+        de.tum.cit.fop.maze.AI.Grid navigation = new de.tum.cit.fop.maze.AI.Grid(tileMap, new java.util.ArrayList<>());
+        navigation.setNavGraph(navGraph);
+        com.badlogic.gdx.utils.IntArray hearts = new com.badlogic.gdx.utils.IntArray();
+        com.badlogic.gdx.utils.IntArray shields = new com.badlogic.gdx.utils.IntArray();
+        de.tum.cit.fop.maze.Procedure.Pickups.scatter(tileMap, com.badlogic.gdx.math.MathUtils.random, hearts, shields);
+        initMapObjects(navigation, hearts, shields);
     }
 
     private void generateProceduralLevel() {
-        // Size scales slightly with difficulty? Or static 50x50
-        int size = 40 + (currentDifficulty * 2);
-        if (size > 100) size = 100;
+        if (floorCache == null) {
+            floorCache = new de.tum.cit.fop.maze.Procedure.FloorCache(Gdx.files.local("cache/floors"));
+        }
+        PreparedFloor prepared = takeNextFloor();
+        if (prepared == null) {
+            prepared = new PreparedFloor(currentDifficulty, floorSeed(currentDifficulty), floorCache);
+        }
+        
+        // Only the textures are bound here
+        de.tum.cit.fop.maze.World.Level level = prepared.generator.build(prepared.floor);
+        tileMap = level.getTiles();
+        mapObjects = level.getObjects();
+        navGraph = level.getNavGraph();
+        
+        initMapObjects(prepared.grid, prepared.hearts, prepared.shields);
+        prepareNextFloor();
+    }
+    
+    /**
+     * Infinite mode: generates the chunk window around the start chunk. Further chunks
+     * are streamed in as the player walks, see {@link #streamChunks()}.
+     */
+    private void setupStream() {
+        chunkStream = new de.tum.cit.fop.maze.Procedure.ChunkStream(new de.tum.cit.fop.maze.Procedure.ChunkLayout(runSeed));
+        chunkObjects = new de.tum.cit.fop.maze.Procedure.DungeonGenerator(
+            de.tum.cit.fop.maze.Procedure.ChunkLayout.SIZE, de.tum.cit.fop.maze.Procedure.ChunkLayout.SIZE, runSeed);
+        tileMap = chunkStream.getTiles();
+        navGraph = null; // The window changes too often for a room graph
+        mapObjects = new java.util.ArrayList<>();
+        de.tum.cit.fop.maze.AI.Grid navigation = new de.tum.cit.fop.maze.AI.Grid(tileMap, new java.util.ArrayList<>());
+        com.badlogic.gdx.utils.IntArray hearts = new com.badlogic.gdx.utils.IntArray();
+        com.badlogic.gdx.utils.IntArray shields = new com.badlogic.gdx.utils.IntArray();
+        int size = de.tum.cit.fop.maze.Procedure.ChunkLayout.SIZE;
+        for (int y = 0; y < de.tum.cit.fop.maze.Procedure.ChunkStream.WINDOW; y++) {
+            for (int x = 0; x < de.tum.cit.fop.maze.Procedure.ChunkStream.WINDOW; x++) {
+                de.tum.cit.fop.maze.Procedure.Chunk chunk = chunkStream.getChunk(x, y);
+                chunkObjects.build(chunk, x * size * 16, y * size * 16, mapObjects);
+                // Pickup tiles of the chunk, in window tiles
+                for (int i = 0; i < chunk.getHearts().size; i++) {
+                    int tile = chunk.getHearts().get(i);
+                    hearts.add((y * size + tile / size) * tileMap.getWidth() + x * size + tile % size);
+                }
+                for (int i = 0; i < chunk.getShields().size; i++) {
+                    int tile = chunk.getShields().get(i);
+                    shields.add((y * size + tile / size) * tileMap.getWidth() + x * size + tile % size);
+                }
+            }
+        }
+        initMapObjects(navigation, hearts, shields);
+    }
+    
+    /**
+     * Infinite mode: moves the chunk window along with the player. The whole map moves
+     * the other way by the same amount; objects and enemies in the chunks that fell out of
+     * the window are dropped with them, and the chunks that came in are populated. The
+     * grid, the enemy simulation and the tile renderer move in place, so enemies keep
+     * chasing and only the new chunks are baked.
+     */
+    private void streamChunks() {
+        com.badlogic.gdx.math.Rectangle playerBounds = character.getBounds();
+        int playerTileX = (int)((playerBounds.x + playerBounds.width / 2) / 16);
+        int playerTileY = (int)((playerBounds.y + playerBounds.height / 2) / 16);
+        streamedChunks.clear();
+        if (!chunkStream.update(playerTileX, playerTileY, streamedChunks)) return;
+        
+        int size = de.tum.cit.fop.maze.Procedure.ChunkLayout.SIZE;
+        int tilesX = -chunkStream.getShiftX() * size;
+        int tilesY = -chunkStream.getShiftY() * size;
+        float dx = tilesX * 16f;
+        float dy = tilesY * 16f;
+        float windowSize = tileMap.getWidth() * 16f;
+        
+        // 1. Player and camera (the view rectangles are recomputed at the next render)
+        character.translate(dx, dy); // Not a teleport, it keeps being drawn between ticks
+        camera.position.add(dx, dy, 0);
+        camera.update();
+        viewBounds.x += dx;
+        viewBounds.y += dy;
+        cullBounds.x += dx;
+        cullBounds.y += dy;
+        
+        // 2. Objects, dropping the ones left behind (their occupancy cells leave the grid with them)
+        mapObjects.removeIf(obj -> {
+            obj.getPosition().add(dx, dy);
+            obj.getBounds().setPosition(obj.getBounds().x + dx, obj.getBounds().y + dy);
+            float x = obj.getPosition().x;
+            float y = obj.getPosition().y;
+            return x < 0 || y < 0 || x >= windowSize || y >= windowSize;
+        });
+        grid.shift(tileMap, tilesX, tilesY);
         
-        de.tum.cit.fop.maze.Procedure.DungeonGenerator generator = new de.tum.cit.fop.maze.Procedure.DungeonGenerator(size, size);
-        mapObjects = generator.generate(currentDifficulty);
+        // 3. Enemies, same; the flow field and player view follow the new grid version
+        enemies.shift(tilesX, tilesY);
         
-        initMapObjects();
+        // 4. The chunks that came in
+        List<GameObject> loaded = new java.util.ArrayList<>();
+        for (de.tum.cit.fop.maze.Procedure.Chunk chunk : streamedChunks) {
+            float x = (chunk.getChunkX() - chunkStream.getOriginX()) * size * 16f;
+            float y = (chunk.getChunkY() - chunkStream.getOriginY()) * size * 16f;
+            chunkObjects.build(chunk, x, y, loaded);
+            for (GameObject obj : loaded) {
+                grid.addObject(obj);
+            }
+            spawnEnemies(loaded);
+            mapObjects.addAll(loaded);
+            loaded.clear();
+            spawnPickups(chunk.getHearts(), chunk.getShields(), size, x, y);
+        }
+        rebuildSpatialIndex();
+        
+        // Deeper chunks count like deeper floors
+        currentDifficulty = Math.max(currentDifficulty, chunkStream.getCenter().getDifficulty());
+    }
+    
+    /**
+     * @return Seed of an endless-mode floor: same run seed and depth, same floor.
+     */
+    private long floorSeed(int difficulty) {
+        return runSeed + difficulty * 0x9E3779B97F4A7C15L;
+    }
+    
+    /**
+     * Starts preparing the floor after the current one on the floor worker.
+     */
+    private void prepareNextFloor() {
+        if (floorWorker == null) {
+            floorWorker = java.util.concurrent.Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "floor-worker");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY); // Frames come first
+                return thread;
+            });
+        }
+        int difficulty = currentDifficulty + 1;
+        long seed = floorSeed(difficulty);
+        de.tum.cit.fop.maze.Procedure.FloorCache cache = floorCache;
+        nextFloor = floorWorker.submit(() -> new PreparedFloor(difficulty, seed, cache));
+    }
+    
+    /**
+     * @return The prepared floor for the current difficulty (waiting for it if it is not done yet), or null.
+     */
+    private PreparedFloor takeNextFloor() {
+        if (nextFloor == null) return null;
+        java.util.concurrent.Future<PreparedFloor> pending = nextFloor;
+        nextFloor = null;
+        try {
+            PreparedFloor prepared = pending.get();
+            return prepared.difficulty == currentDifficulty ? prepared : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (java.util.concurrent.ExecutionException e) {
+            Gdx.app.error("GameScreen", "Could not prepare the next floor, generating it now", e.getCause());
+            return null;
+        }
     }
     
-    private void initMapObjects() {
+    /**
+     * @param navigation Grid of the tile layer without objects, indexed here.
+     * @param hearts Tiles (y * width + x) to spawn hearts on, see Pickups.
+     * @param shields Tiles to spawn shields on.
+     */
+    private void initMapObjects(de.tum.cit.fop.maze.AI.Grid navigation, com.badlogic.gdx.utils.IntArray hearts, com.badlogic.gdx.utils.IntArray shields) {
+        // Bake static tiles into chunk caches
+        if (tileRenderer != null) {
+            tileRenderer.dispose();
+        }
+        tileRenderer = new de.tum.cit.fop.maze.World.TileRenderer(tileMap);
+
         // Initialize AI Grid
-        grid = new de.tum.cit.fop.maze.AI.Grid(0, 0, mapObjects);
+        grid = navigation;
+        for (GameObject obj : mapObjects) {
+            grid.addObject(obj);
+        }
 
         // Find entry point to spawn character
         float spawnX = 0;
@@ -167,73 +415,115 @@ private void initMapObjects() {
              character.setPosition(spawnX+16, spawnY);
              // Maybe retain health/key in procedural mode?
         }
+        character.setGrid(grid);
         
-        // Create Enemy List
-        enemies = new java.util.ArrayList<>();
+        createSimulation();
+        spawnEnemies(mapObjects);
+        spawnPickups(hearts, shields, tileMap.getWidth(), 0, 0);
+        
+        damageNumbers = new java.util.ArrayList<>();
+        accumulator = 0f;
+        rebuildSpatialIndex();
+    }
+    
+    /**
+     * Creates the enemy store and the chase field, views and path service it shares, all on {@link #grid}.
+     */
+    private void createSimulation() {
+        enemies = new de.tum.cit.fop.maze.GameObj.EnemyStore<>(grid, character, 64,
+            com.badlogic.gdx.math.MathUtils.random.nextLong());
+        enemies.setHitListener(() -> {
+            // Play damage sound if file exists
+            FileHandle damageSoundFile = Gdx.files.internal("assets/damage.mp3");
+            if (damageSoundFile.exists()) {
+                Gdx.audio.newSound(damageSoundFile).play();
+            }
+        });
         
-        // Find Enemy Spawn Points and Convert to Real Enemies
+        // One shared flow field towards the player for all chasing enemies
+        flowField = new de.tum.cit.fop.maze.AI.FlowField(grid, FLOW_FIELD_RADIUS);
+        // Other searches run on the path workers against a snapshot of this level
+        if (pathService == null) {
+            pathService = new de.tum.cit.fop.maze.AI.PathService();
+        }
+        pathService.setGrid(grid);
+        // Visibility is computed once per player tile; patrol picks share one scratch view
+        playerView = new de.tum.cit.fop.maze.AI.FieldOfView(grid, PLAYER_VIEW_RADIUS);
+        de.tum.cit.fop.maze.AI.FieldOfView patrolView = new de.tum.cit.fop.maze.AI.FieldOfView(grid, 3);
+        enemies.setFlowField(flowField);
+        enemies.setPathService(pathService);
+        enemies.setFieldOfView(playerView, patrolView);
+    }
+    
+    /**
+     * Turns the spawn points among the given (grid-indexed) objects into enemies and removes them.
+     */
+    private void spawnEnemies(List<GameObject> objects) {
         List<GameObject> toRemove = new java.util.ArrayList<>();
-        for (GameObject obj : mapObjects) {
+        for (GameObject obj : objects) {
+             de.tum.cit.fop.maze.GameObj.Enemy enemy = null;
              if (obj instanceof de.tum.cit.fop.maze.GameObj.EnemySpawnPoint) {
-                 enemies.add(new de.tum.cit.fop.maze.GameObj.Enemy(
+                 enemy = new de.tum.cit.fop.maze.GameObj.Enemy(
                      obj.getPosition().x, 
                      obj.getPosition().y, 
-                     de.tum.cit.fop.maze.MapLoader.getMobAnimations(0, 0), // Base Enemy: Col 0, Row 0
-                     grid, 
-                     character
-                 ));
-                 toRemove.add(obj);
+                     de.tum.cit.fop.maze.MapLoader.getMobAnimations(0, 0) // Base Enemy: Col 0, Row 0
+                 );
              } else if (obj instanceof de.tum.cit.fop.maze.GameObj.GhostSpawnPoint) {
-                 enemies.add(new de.tum.cit.fop.maze.GameObj.Ghost(
+                 enemy = new de.tum.cit.fop.maze.GameObj.Ghost(
                      obj.getPosition().x, 
-                     obj.getPosition().y, 
-                     grid, 
-                     character
-                 ));
+                     obj.getPosition().y
+                 );
+             }
+             if (enemy != null) {
+                 enemies.add(enemy, enemy.getKind(), enemy.getPosition().x, enemy.getPosition().y, enemy.getHealth());
                  toRemove.add(obj);
              }
         }
         
-        // Remove spawn points from mapObjects so they don't render twice or collide
-        mapObjects.removeAll(toRemove);
-        
-        // Spawn Hearts (Chunk-based: 0-1 per 16x16 tile area)
-        java.util.Map<String, java.util.List<GameObject>> chunks = new java.util.HashMap<>();
-        int chunkSize = 16 * 16; // 16 tiles * 16 pixels = 256 pixels
-        
-        // 1. Group paths into chunks
+        // Remove spawn points so they don't render twice or collide
+        // (by identity in one pass; removeAll would scan toRemove once per object)
+        java.util.Set<GameObject> spawnPoints = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+        spawnPoints.addAll(toRemove);
+        objects.removeIf(spawnPoints::contains);
+        for (GameObject obj : toRemove) {
+            grid.removeObject(obj);
+        }
+    }
+    
+    /**
+     * Spawns hearts and shields (chunk-based, see Pickups).
+     *
+     * @param hearts Tiles (y * width + x) of an area whose bottom-left tile is at (x, y) pixels.
+     */
+    private void spawnPickups(com.badlogic.gdx.utils.IntArray hearts, com.badlogic.gdx.utils.IntArray shields, int width, float x, float y) {
+        for (int i = 0; i < hearts.size; i++) {
+            int tile = hearts.get(i);
+            de.tum.cit.fop.maze.GameObj.Heart heart = new de.tum.cit.fop.maze.GameObj.Heart(
+                x + (tile % width) * 16, y + (tile / width) * 16);
+            mapObjects.add(heart);
+            grid.addObject(heart);
+        }
+        for (int i = 0; i < shields.size; i++) {
+            int tile = shields.get(i);
+            de.tum.cit.fop.maze.GameObj.ShieldItem shield = new de.tum.cit.fop.maze.GameObj.ShieldItem(
+                x + (tile % width) * 16, y + (tile / width) * 16);
+            mapObjects.add(shield);
+            grid.addObject(shield);
+        }
+    }
+    
+    /**
+     * Fills the spatial indices of the visibility pass from scratch.
+     */
+    private void rebuildSpatialIndex() {
+        objectHash.clear();
         for (GameObject obj : mapObjects) {
-            if (obj instanceof de.tum.cit.fop.maze.GameObj.Path) {
-                int cx = (int) (obj.getPosition().x / chunkSize);
-                int cy = (int) (obj.getPosition().y / chunkSize);
-                String key = cx + "," + cy;
-                
-                if (!chunks.containsKey(key)) {
-                    chunks.put(key, new java.util.ArrayList<>());
-                }
-                chunks.get(key).add(obj);
-            }
+            objectHash.update(obj, obj.getPosition().x, obj.getPosition().y);
         }
-        
-        // 2. Spawn per chunk
-        for (java.util.List<GameObject> chunkPaths : chunks.values()) {
-            if (com.badlogic.gdx.math.MathUtils.randomBoolean(0.5f)) { 
-                GameObject randomPath = chunkPaths.get(com.badlogic.gdx.math.MathUtils.random(chunkPaths.size() - 1));
-                de.tum.cit.fop.maze.GameObj.Heart heart = new de.tum.cit.fop.maze.GameObj.Heart(randomPath.getPosition().x, randomPath.getPosition().y);
-                mapObjects.add(heart);
-            }
-            
-            // Chance to spawn 1 Shield (Lower chance, e.g. 20%)
-            if (com.badlogic.gdx.math.MathUtils.randomBoolean(0.2f)) {
-                GameObject randomPath = chunkPaths.get(com.badlogic.gdx.math.MathUtils.random(chunkPaths.size() - 1));
-                // Avoid stacking heart and shield?
-                // For simplicity, just add. overlap is rare or acceptable.
-                de.tum.cit.fop.maze.GameObj.ShieldItem shield = new de.tum.cit.fop.maze.GameObj.ShieldItem(randomPath.getPosition().x, randomPath.getPosition().y);
-                mapObjects.add(shield);
-            }
+        enemyHash.clear();
+        for (int i = 0; i < enemies.size(); i++) {
+            enemyHash.update(enemies.getView(i), enemies.getX(i), enemies.getY(i));
         }
-        
-        damageNumbers = new java.util.ArrayList<>();
     }
 
     private void setupPauseMenu() {
@@ -316,8 +606,10 @@ private void showGameOverMenu(boolean win) {
                     // If procedural, this restarts the run? Or restarts the level?
                     // Currently we hid retry for procedural lose.
                     // But if we passed null as retry action, that would be safer.
-                    if (isProcedural) {
-                        game.goToEndlessMode(playerName); // Restart run
+                    if (isStreaming) {
+                        game.goToInfiniteMode(playerName, runSeed); // Restart in the same world
+                    } else if (isProcedural) {
+                        game.goToEndlessMode(playerName, runSeed); // Restart run on the same floors
                     } else {
                         game.goToGame(this.mapFile);
                     }
@@ -380,6 +672,10 @@ public void updateInputProcessor() {
     public void toggleDebug() {
         debugEnabled = !debugEnabled;
     }
+
+    public boolean isDebugEnabled() {
+        return debugEnabled;
+    }
     
     public void zoomIn() {
         // With viewport, zoom modifies camera.zoom directly
@@ -412,59 +708,67 @@ public void render(float delta) {
         ScreenUtils.clear(0, 0, 0, 1); // Clear the screen
         boolean isLevelCompleted = character.isLevelCompleted();
         levelTimer += delta;
-        // Logic update
+        // Logic update: as many fixed ticks as the elapsed time covers
+        simSteps = 0;
         if (!isPaused && !isGameOver && !isLevelCompleted) {
-            if (character != null) {
-                // Check if shake is requested
-                if (character.isScreenShakeRequested()) {
-                    if (screenShake != null) screenShake.start(0.3f, 0.8f);
-                    character.clearScreenShakeRequest();
-                }
-                
-                // Check if damage number requested
-                if (character.isDamageNumberRequested()) {
-                     damageNumbers.add(new de.tum.cit.fop.maze.VFX.DamageNumber(character, 1));
-                     character.clearDamageNumberRequest();
-                }
-
-                character.update(delta, mapObjects, game.getConfigManager());
-
-                // Camera follow character with smooth lerp
-                float targetX = character.getPosition().x + 8; // Center of 16 width
-                float targetY = character.getPosition().y + 16; // Center of 32 height
-                
-                // Lerp factor (adjust for smoothness, 5f is typical)
-                float lerpSpeed = 5f;
-                camera.position.x += (targetX - camera.position.x) * lerpSpeed * delta;
-                camera.position.y += (targetY - camera.position.y) * lerpSpeed * delta;
-                
-                // Apply Shake (Post-Lerp)
-                if (screenShake != null) {
-                    screenShake.update(delta, camera);
-                } else {
-                    camera.update();
-                }
+            accumulator += delta;
+            while (accumulator >= SIM_STEP && simSteps < MAX_STEPS_PER_FRAME && !isGameOver) {
+                tick(SIM_STEP);
+                accumulator -= SIM_STEP;
+                simSteps++;
             }
-            if(mapObjects != null){
-                mapObjects.removeIf(GameObject::isMarkedForRemoval);
+            if (simSteps == MAX_STEPS_PER_FRAME) {
+                accumulator = Math.min(accumulator, SIM_STEP);
             }
-            if (character.isLevelCompleted()) {
-                showGameOverMenu(true);
+        }
+        float alpha = accumulator / SIM_STEP;
+        enemies.setInterpolation(alpha);
 
-            }
-            if(character.isDead()){
-                showGameOverMenu(false);
+        if (!isPaused && !isGameOver && !isLevelCompleted && character != null) {
+            // Camera follow character with smooth lerp
+            float targetX = character.getDrawX(alpha) + 8; // Center of 16 width
+            float targetY = character.getDrawY(alpha) + 16; // Center of 32 height
+            
+            // Lerp factor (adjust for smoothness, 5f is typical)
+            float lerpSpeed = 5f;
+            camera.position.x += (targetX - camera.position.x) * lerpSpeed * delta;
+            camera.position.y += (targetY - camera.position.y) * lerpSpeed * delta;
+            
+            // Apply Shake (Post-Lerp)
+            if (screenShake != null) {
+                screenShake.update(delta, camera);
+            } else {
+                camera.update();
             }
         }
 
         // Render
         viewport.apply(); // Update camera viewport
+        updateViewBounds();
+
+        // Draw static tile layer (floors & walls), only chunks on screen
+        if (tileRenderer != null) {
+            tileRenderer.render(camera, viewBounds, game.getSpriteBatch());
+        }
+
         game.getSpriteBatch().setProjectionMatrix(camera.combined);
         game.getSpriteBatch().begin();
 
-        // Draw map objects
-        if (mapObjects != null) {
-            for (GameObject obj : mapObjects) {
+        // Visibility pass: only entities near the camera rectangle are animated and drawn
+        cullBounds.set(viewBounds.x - CULL_MARGIN, viewBounds.y - CULL_MARGIN,
+            viewBounds.width + CULL_MARGIN * 2, viewBounds.height + CULL_MARGIN * 2);
+        visibleObjects.clear();
+        objectHash.query(cullBounds, visibleObjects);
+        objectsConsidered = visibleObjects.size;
+        objectsDrawn = 0;
+
+        // Draw map objects (level entities first, pickups on top)
+        for (int pass = 0; pass < 2; pass++) {
+            for (GameObject obj : visibleObjects) {
+                boolean isPickup = obj instanceof de.tum.cit.fop.maze.GameObj.Collectable;
+                if (isPickup != (pass == 1)) continue;
+                if (!isOnScreen(obj.getPosition().x, obj.getPosition().y, obj.getWidth(), obj.getHeight())) continue;
+
                 if (obj instanceof de.tum.cit.fop.maze.GameObj.Heart) {
                      ((de.tum.cit.fop.maze.GameObj.Heart) obj).update(delta);
                 } else if (obj instanceof de.tum.cit.fop.maze.GameObj.ShieldItem) {
@@ -474,19 +778,28 @@ public void render(float delta) {
                 if (obj.getTextureRegion() != null) {
                     game.getSpriteBatch().draw(obj.getTextureRegion(), obj.getPosition().x, obj.getPosition().y, obj.getWidth(), obj.getHeight());
                 }
+                objectsDrawn++;
             }
         }
 
         // Draw character
         if (character != null) {
-            character.draw(game.getSpriteBatch());
+            character.draw(game.getSpriteBatch(), alpha);
         }
         
         // Draw Enemies
-        for (de.tum.cit.fop.maze.GameObj.Enemy enemy : enemies) {
+        visibleEnemies.clear();
+        enemyHash.query(cullBounds, visibleEnemies);
+        enemiesConsidered = visibleEnemies.size;
+        enemiesDrawn = 0;
+        for (de.tum.cit.fop.maze.GameObj.Enemy enemy : visibleEnemies) {
+            // Status text is drawn up to ~12px above the sprite
+            if (!isOnScreen(enemy.getPosition().x, enemy.getPosition().y, enemy.getWidth(), enemy.getHeight() + 12)) continue;
+
             enemy.draw(game.getSpriteBatch());
             // Draw Status Icon and/or HP
             enemy.drawStatus(game.getSpriteBatch(), font, debugEnabled);
+            enemiesDrawn++;
         }
         
         // Draw Damage Numbers
@@ -494,7 +807,10 @@ public void render(float delta) {
             java.util.Iterator<de.tum.cit.fop.maze.VFX.DamageNumber> iter = damageNumbers.iterator();
             while (iter.hasNext()) {
                 de.tum.cit.fop.maze.VFX.DamageNumber dn = iter.next();
-                dn.render(game.getSpriteBatch(), font);
+                de.tum.cit.fop.maze.GameObj.MovableObject target = dn.getTarget();
+                if (isOnScreen(target.getPosition().x, target.getPosition().y, target.getWidth(), target.getHeight() * 2)) {
+                    dn.render(game.getSpriteBatch(), font);
+                }
                 
                 if (!isPaused && !isGameOver && !character.isLevelCompleted()) {
                     dn.update(delta);
@@ -508,20 +824,19 @@ public void render(float delta) {
 
         game.getSpriteBatch().end(); // Important to call this after drawing everything
         
-        // Update Enemies
-        if (!isPaused && !isGameOver && !character.isLevelCompleted()) {
-            java.util.Iterator<de.tum.cit.fop.maze.GameObj.Enemy> enemyIter = enemies.iterator();
-            while (enemyIter.hasNext()) {
-                de.tum.cit.fop.maze.GameObj.Enemy enemy = enemyIter.next();
-                enemy.update(delta);
-                if (enemy.isMarkedForRemoval()) {
-                    enemyIter.remove();
-                }
-            }
-        }
-        
         // Draw HUD
         if (character != null) {
+            de.tum.cit.fop.maze.AI.PathCache pathCache = grid.getPathCache();
+            hud.setDebugStats(debugEnabled, debugEnabled ? String.format(
+                "Sim steps: %d\nChunks drawn: %d\nObjects: %d drawn / %d considered (%d)\nEnemies: %d drawn / %d considered (%d, %d awake, %d resting)\nFlow field rebuilds: %d, view recomputes: %d\nPath jobs: %d submitted, %d shared, %d cancelled, %d in flight\nPath slices: %d queued, %d resumed, %d expansions\nPath cache: %d hits, %d partial, %d misses (%.0f%%)",
+                simSteps, tileRenderer.getDrawnChunks(),
+                objectsDrawn, objectsConsidered, mapObjects.size(),
+                enemiesDrawn, enemiesConsidered, enemies.size(), enemies.getAwake(), enemies.getResting(),
+                flowField.getRebuilds(), playerView.getComputes(),
+                pathService.getSubmitted(), pathService.getDeduplicated(), pathService.getCancelled(), pathService.getInFlight(),
+                pathService.getQueued(), pathService.getResumed(), pathService.getFrameExpansions(),
+                pathCache.getHits(), pathCache.getPartialHits(), pathCache.getMisses(),
+                pathCache.getHitRatio() * 100) : null);
             hud.update(character);
             hud.render(delta);
         }
@@ -543,22 +858,23 @@ public void render(float delta) {
             
             // Draw Wall Bounds (Green)
             shapeRenderer.setColor(Color.GREEN);
-            if (mapObjects != null) {
-                for (GameObject obj : mapObjects) {
-                    if (obj instanceof de.tum.cit.fop.maze.GameObj.Wall) {
-                        shapeRenderer.rect(
-                            obj.getBounds().x, 
-                            obj.getBounds().y, 
-                            obj.getBounds().width, 
-                            obj.getBounds().height
-                        );
+            if (tileMap != null) {
+                int minX = Math.max(0, (int) (viewBounds.x / 16));
+                int maxX = Math.min(tileMap.getWidth() - 1, (int) ((viewBounds.x + viewBounds.width) / 16));
+                int minY = Math.max(0, (int) (viewBounds.y / 16));
+                int maxY = Math.min(tileMap.getHeight() - 1, (int) ((viewBounds.y + viewBounds.height) / 16));
+                for (int y = minY; y <= maxY; y++) {
+                    for (int x = minX; x <= maxX; x++) {
+                        if (tileMap.isSolid(x, y)) {
+                            shapeRenderer.rect(x * 16, y * 16, 16, 16);
+                        }
                     }
                 }
             }
             
             // Draw Enemy Path Debug
-            for (de.tum.cit.fop.maze.GameObj.Enemy enemy : enemies) {
-                enemy.drawDebug(shapeRenderer);
+            for (int i = 0; i < enemies.size(); i++) {
+                enemies.getView(i).drawDebug(shapeRenderer);
             }
             
             shapeRenderer.end();
@@ -572,6 +888,79 @@ public void render(float delta) {
     }
 
 
+    /**
+     * Advances the world by one fixed step: player, chase field, enemies and pickups.
+     * Drawing, the camera and purely visual effects run once per frame in {@link #render}.
+     */
+    private void tick(float step) {
+        // Check if shake is requested
+        if (character.isScreenShakeRequested()) {
+            if (screenShake != null) screenShake.start(0.3f, 0.8f);
+            character.clearScreenShakeRequest();
+        }
+        
+        // Check if damage number requested
+        if (character.isDamageNumberRequested()) {
+             damageNumbers.add(new de.tum.cit.fop.maze.VFX.DamageNumber(character, 1));
+             character.clearDamageNumberRequest();
+        }
+
+        character.update(step, mapObjects, game.getConfigManager());
+        if (chunkStream != null) {
+            streamChunks();
+        }
+
+        // Move the shared chase field with the player (rebuilt only when a tile border is crossed)
+        com.badlogic.gdx.math.Rectangle playerBounds = character.getBounds();
+        int playerTileX = (int)((playerBounds.x + playerBounds.width / 2) / 16);
+        int playerTileY = (int)((playerBounds.y + playerBounds.height / 2) / 16);
+        flowField.update(playerTileX, playerTileY);
+        playerView.update(playerTileX, playerTileY);
+
+        if(mapObjects != null){
+            mapObjects.removeIf(obj -> {
+                if (!obj.isMarkedForRemoval()) return false;
+                grid.removeObject(obj); // Keep the collision index in sync
+                objectHash.remove(obj);
+                return true;
+            });
+        }
+
+        // Update Enemies (cullBounds is the area drawn last frame)
+        pathService.setFocus(character.getPosition().x + 8, character.getPosition().y + 16, cullBounds);
+        pathService.update(); // Hand over finished paths and start this step's search slices
+        enemies.setVisibleArea(cullBounds);
+        enemies.update(step); // One pass over the arrays of the awake enemies
+        for (de.tum.cit.fop.maze.GameObj.Enemy enemy : enemies.getRemoved()) {
+            enemyHash.remove(enemy);
+        }
+        for (int i = 0; i < enemies.getAwake(); i++) { // Sleeping and resting enemies do not move
+            enemyHash.update(enemies.getView(i), enemies.getX(i), enemies.getY(i));
+        }
+
+        if (character.isLevelCompleted()) {
+            showGameOverMenu(true);
+        }
+        if(character.isDead()){
+            showGameOverMenu(false);
+        }
+    }
+
+    /**
+     * Computes the world rectangle currently seen by the camera (zoom and shake included,
+     * the shake offset is applied to camera.position directly).
+     */
+    private void updateViewBounds() {
+        float w = camera.viewportWidth * camera.zoom;
+        float h = camera.viewportHeight * camera.zoom;
+        viewBounds.set(camera.position.x - w / 2, camera.position.y - h / 2, w, h);
+    }
+
+    private boolean isOnScreen(float x, float y, float width, float height) {
+        return x < viewBounds.x + viewBounds.width && x + width > viewBounds.x
+            && y < viewBounds.y + viewBounds.height && y + height > viewBounds.y;
+    }
+
     public void resize(int width, int height) {
         viewport.update(width, height, false); // Update Viewport
         pauseStage.getViewport().update(width, height, true);
@@ -601,26 +990,15 @@ public void dispose() {
         if (pauseStage != null) pauseStage.dispose();
         if (shapeRenderer != null) shapeRenderer.dispose();
         if (hud != null) hud.dispose();
+        if (tileRenderer != null) tileRenderer.dispose();
+        if (pathService != null) pathService.dispose();
+        if (floorWorker != null) floorWorker.shutdownNow();
     }
 
     public int calculateScore() {
-        int lifeScore = 0;
-        if (character != null) {
-            // character.getLives() 返回当前剩余生命数
-            lifeScore = character.getLives() * SCORE_PER_LIFE;
-        }
-
-        int timePenalty = (int) (levelTimer * PENALTY_PER_SECOND);
-        int totalScore = BASE_SCORE_PER_LEVEL - timePenalty;
-
-        // 如果是无尽模式，可以在这里加上难度系数乘数
-        if (isProcedural) {
-            totalScore *= currentDifficulty;
-        }
-
-        totalScore += lifeScore;
-
-        return Math.max(0, totalScore);
+        // character.getLives() 返回当前剩余生命数
+        int lives = character != null ? character.getLives() : 0;
+        return de.tum.cit.fop.maze.GameControl.Scoring.levelScore(levelTimer, lives, currentDifficulty, isProcedural);
     }
 
     // 获取格式化后的时间字符串 (例如 "01:23")
@@ -5,99 +5,101 @@
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import de.tum.cit.fop.maze.GameObj.*;
+import de.tum.cit.fop.maze.World.CompiledMap;
+import de.tum.cit.fop.maze.World.Level;
+import de.tum.cit.fop.maze.World.MapFile;
+import de.tum.cit.fop.maze.World.TileMap;
+import de.tum.cit.fop.maze.World.TileSet;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Properties;
 
 public class MapLoader {
 
-    public static List<GameObject> loadMap(FileHandle mapFile) {
+    public static Level loadMap(FileHandle mapFile) {
         List<GameObject> objects = new ArrayList<>();
-        Properties props = new Properties();
 
-        // 加载贴图资源 (建议后续移到专门的 ResourceManager 中)
-        Texture texture = new Texture(Gdx.files.internal("basictiles.png"));
-        TextureRegion[][] regions = TextureRegion.split(texture, 16, 16);
+        // 贴图资源由 TileSet 统一加载，所有关卡共用同一张纹理
+        TextureRegion[][] regions = TileSet.getRegions();
+
+        TileMap tiles = null;
+        CompiledMap map = readMap(mapFile);
+        if (map != null) {
+            tiles = map.getTiles();
+
+            // 只遍历地图上的实体，墙和地板已经在 TileMap 里了
+            for (int i = 0; i < map.getObjectCount(); i++) {
+
+                float worldX = map.getObjectX(i) * 16;
+                float worldY = map.getObjectY(i) * 16;
+
+                GameObject obj = null;
+                switch (map.getObjectType(i)) {
+                    case MapFile.ENTRY: // 入口
+                        obj = new EntryPoint(worldX, worldY, 16, 16, regions[6][0]);
+                        break;
+                    case MapFile.EXIT: // 出口
+                        obj = new Exit(worldX, worldY, 16, 16, regions[6][2]);
+                        break;
+                    case MapFile.TRAP: // 陷阱
+                        obj = new Trap(worldX, worldY, 16, 16, regions[9][2]);
+                        break;
+                    case MapFile.ENEMY: // 敌人
+                        obj = new EnemySpawnPoint(worldX, worldY, 16, 16, regions[3][6]);
+                        break;
+                    case MapFile.KEY: // 钥匙/宝箱
+                        obj = new Key(worldX, worldY, 16, 16, regions[4][4]);
+                        break;
+                    case MapFile.GHOST: // 幽灵 (Ghost)
+                        // Use same marker as Enemy for now, or maybe [3][7] if valid? 
+                        // Let's safe pick Enemy marker [3][6] for map editor visibility
+                        obj = new GhostSpawnPoint(worldX, worldY, 16, 16, regions[3][6]);
+                        break;
+                    default:
+                        break;
+                }
 
-        try {
-            props.load(mapFile.read());
-
-            // 1. 动态读取地图宽高，如果没有定义则默认为 15
-            int mapWidth = Integer.parseInt(props.getProperty("Width", "15"));
-            int mapHeight = Integer.parseInt(props.getProperty("Height", "15"));
-
-            // 2. 遍历整个网格
-            for (int y = 0; y < mapHeight; y++) {
-                for (int x = 0; x < mapWidth; x++) {
-
-                    String key = x + "," + y;
-                    float worldX = x * 16;
-                    float worldY = y * 16;
-
-                    // 判断当前坐标有什么东西
-                    int type = -1;
-                    if (props.containsKey(key)) {
-                        type = Integer.parseInt(props.getProperty(key).trim());
-                    }
-
-                    /**
-                     * 核心逻辑：分层渲染
-                     * 如果不是墙(type 0)，我们通常都需要先铺一层地板，
-                     * 这样陷阱、敌人、钥匙才不会浮在黑色背景上。
-                     */
-                    if (type != 0) {
-                        // 添加地板 (假设 basictiles.png 中 regions[1][1] 是地板)
-                        // 注意：这里需要你确认一下地板在图片里的位置，通常是第2行第2列或其他位置
-                        objects.add(new Path(worldX, worldY, 16, 16, regions[1][1]));
-                    }
-
-                    // 3. 添加具体的游戏对象
-                    GameObject obj = null;
-                    switch (type) {
-                        case 0: // 墙壁 (不需要地板，因为它会遮住)
-                            obj = new Wall(worldX, worldY, 16, 16, regions[0][0]);
-                            break;
-                        case 1: // 入口
-                            obj = new EntryPoint(worldX, worldY, 16, 16, regions[6][0]);
-                            break;
-                        case 2: // 出口
-                            obj = new Exit(worldX, worldY, 16, 16, regions[6][2]);
-                            break;
-                        case 3: // 陷阱
-                            obj = new Trap(worldX, worldY, 16, 16, regions[9][2]);
-                            break;
-                        case 4: // 敌人
-                            obj = new EnemySpawnPoint(worldX, worldY, 16, 16, regions[3][6]);
-                            break;
-                        case 5: // 钥匙/宝箱
-                            obj = new Key(worldX, worldY, 16, 16, regions[4][4]);
-                            break;
-                        case 6: // 幽灵 (Ghost)
-                            // Use same marker as Enemy for now, or maybe [3][7] if valid? 
-                            // Let's safe pick Enemy marker [3][6] for map editor visibility
-                            obj = new GhostSpawnPoint(worldX, worldY, 16, 16, regions[3][6]);
-                            break;
-                        default:
-                            // 如果 type 是 -1 (props里没有定义)，说明这里是纯地板
-                            // 前面已经铺过地板了，所以这里不用做任何事
-                            break;
-                    }
-
-                    if (obj != null) {
-                        objects.add(obj);
-                    }
+                if (obj != null) {
+                    objects.add(obj);
                 }
             }
+        }
+
+        if (tiles == null) {
+            tiles = new TileMap(1, 1);
+        }
+        return new Level(tiles, objects);
+    }
+
+    /**
+     * Reads a map: a .map file directly, a .properties map from its compiled .map if that
+     * is at least as new (see MapCompiler), otherwise from the text.
+     *
+     * @return The map, or null if it could not be read.
+     */
+    private static CompiledMap readMap(FileHandle mapFile) {
+        if (!mapFile.extension().equals("map")) {
+            FileHandle compiled = CompiledMap.fileFor(mapFile);
+            if (compiled.exists() && compiled.lastModified() >= mapFile.lastModified()) {
+                try {
+                    return CompiledMap.read(compiled);
+                } catch (IOException e) {
+                    Gdx.app.error("MapLoader", "Failed to read compiled map " + compiled.name() + ", parsing the source", e);
+                }
+            }
+        }
+        try {
+            return mapFile.extension().equals("map") ? CompiledMap.read(mapFile) : MapFile.compile(MapFile.read(mapFile));
         } catch (IOException e) {
             Gdx.app.error("MapLoader", "Failed to load map: " + mapFile.name(), e);
+            return null;
         }
-
-        return objects;
     }
 
     private static Texture mobsTexture;
+    // Animations per character block, shared by every mob of that kind
+    private static final com.badlogic.gdx.utils.IntMap<com.badlogic.gdx.graphics.g2d.Animation<TextureRegion>[]> mobAnimations = new com.badlogic.gdx.utils.IntMap<>();
 
     /**
      * Extracts animation frames for a character from mobs.png.
@@ -106,9 +108,13 @@ public static List<GameObject> loadMap(FileHandle mapFile) {
      * 
      * @param blockCol  Transformation grid column (0-3)
      * @param blockRow  Transformation grid row (0-1)
-     * @return Array of Animations: [0]=Down, [1]=Left, [2]=Right, [3]=Up
+     * @return Array of Animations: [0]=Down, [1]=Left, [2]=Right, [3]=Up. Shared, do not modify.
      */
     public static com.badlogic.gdx.graphics.g2d.Animation<TextureRegion>[] getMobAnimations(int blockCol, int blockRow) {
+        int key = blockRow * 4 + blockCol;
+        com.badlogic.gdx.graphics.g2d.Animation<TextureRegion>[] cached = mobAnimations.get(key);
+        if (cached != null) return cached;
+        
         if (mobsTexture == null) {
             mobsTexture = new Texture(Gdx.files.internal("mobs.png"));
         }
@@ -149,6 +155,7 @@ public static com.badlogic.gdx.graphics.g2d.Animation<TextureRegion>[] getMobAni
         upFrames[2] = tmp[gridRow+3][gridCol+2];
         anims[3] = new com.badlogic.gdx.graphics.g2d.Animation<>(frameDuration, upFrames);
         
+        mobAnimations.put(key, anims);
         return anims;
     }
 
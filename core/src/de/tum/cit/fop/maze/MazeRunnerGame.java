@@ -8,6 +8,7 @@
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.utils.Array;
 import de.tum.cit.fop.maze.GameControl.ConfigManager;
@@ -114,10 +115,35 @@ public void goToSettings() {
     }
     
     /**
-     * Switches to the procedural endless mode.
+     * Switches to the infinite mode, in a new random world.
+     */
+    public void goToInfiniteMode(String playerName) {
+        goToInfiniteMode(playerName, MathUtils.random.nextLong());
+    }
+    
+    /**
+     * Switches to the infinite mode: one endless world streamed in chunks. The same seed gives the same world.
+     */
+    public void goToInfiniteMode(String playerName, long seed) {
+        this.setScreen(new GameScreen(this, playerName, seed));
+        if (menuScreen != null) {
+            menuScreen.dispose();
+            menuScreen = null;
+        }
+    }
+    
+    /**
+     * Switches to the procedural endless mode, on a new random run.
      */
     public void goToEndlessMode(String playerName) {
-        this.setScreen(new GameScreen(this, true, playerName));
+        goToEndlessMode(playerName, MathUtils.random.nextLong());
+    }
+    
+    /**
+     * Switches to the procedural endless mode. The same seed gives the same floors.
+     */
+    public void goToEndlessMode(String playerName, long seed) {
+        this.setScreen(new GameScreen(this, true, playerName, seed));
         if (menuScreen != null) {
             menuScreen.dispose();
             menuScreen = null;
@@ -70,7 +70,17 @@ public void changed(ChangeEvent event, Actor actor) {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
                 //game.goToEndlessMode();
-                showNameInputDialog(game);
+                showNameInputDialog(game, false);
+            }
+        });
+
+        // Create and add an "Infinite Mode" button
+        TextButton infiniteButton = new TextButton("Infinite Mode", game.getSkin());
+        table.add(infiniteButton).width(300).padBottom(15).row();
+        infiniteButton.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                showNameInputDialog(game, true);
             }
         });
 
@@ -151,7 +161,10 @@ public void resume() {
     public void hide() {
     }
 
-    private void showNameInputDialog(MazeRunnerGame game) {
+    /**
+     * @param infinite Start the infinite mode instead of the endless mode.
+     */
+    private void showNameInputDialog(MazeRunnerGame game, boolean infinite) {
         TextField nameField = new TextField("Player", game.getSkin());
 
         Dialog dialog = new Dialog("", game.getSkin()) {
@@ -161,7 +174,11 @@ protected void result(Object object) {
                     String name = nameField.getText();
                     if (name.trim().isEmpty()) name = "Unknown";
                     // 调用修改后的 goToEndlessMode
-                    game.goToEndlessMode(name);
+                    if (infinite) {
+                        game.goToInfiniteMode(name);
+                    } else {
+                        game.goToEndlessMode(name);
+                    }
                 }
             }
         };
@@ -108,6 +108,10 @@ public void render(SpriteBatch batch, BitmapFont font) {
         }
     }
     
+    public de.tum.cit.fop.maze.GameObj.MovableObject getTarget() {
+        return target;
+    }
+
     public boolean isFinished() {
         return isFinished;
     }
@@ -0,0 +1,41 @@
+package de.tum.cit.fop.maze.World;
+
+import de.tum.cit.fop.maze.AI.NavGraph;
+import de.tum.cit.fop.maze.GameObj.GameObject;
+
+import java.util.List;
+
+/**
+ * Result of loading or generating a level: the static tile layer plus the
+ * interactive entities (entry, exit, keys, traps, spawn points) placed on it.
+ */
+public class Level {
+    private final TileMap tiles;
+    private final List<GameObject> objects;
+    private final NavGraph navGraph; // Only generated floors have one
+
+    public Level(TileMap tiles, List<GameObject> objects) {
+        this(tiles, objects, null);
+    }
+
+    public Level(TileMap tiles, List<GameObject> objects, NavGraph navGraph) {
+        this.tiles = tiles;
+        this.objects = objects;
+        this.navGraph = navGraph;
+    }
+
+    public TileMap getTiles() {
+        return tiles;
+    }
+
+    public List<GameObject> getObjects() {
+        return objects;
+    }
+
+    /**
+     * @return The room graph for hierarchical pathfinding, or null.
+     */
+    public NavGraph getNavGraph() {
+        return navGraph;
+    }
+}
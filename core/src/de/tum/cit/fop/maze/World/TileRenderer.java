@@ -0,0 +1,257 @@
+package de.tum.cit.fop.maze.World;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Draws the static tile layer from cached geometry.
+ * <p>
+ * The map is split into 16x16-tile chunks. A chunk is baked into a {@link SpriteCache}
+ * slot the first time it becomes visible and is only rebuilt when one of its tiles
+ * changes. Each frame only the chunks intersecting the camera rectangle are drawn,
+ * so the cost follows the screen area, not the map area. Slots are recycled
+ * (least recently drawn first) so huge maps do not need one cache per chunk.
+ * <p>
+ * When the whole map moves ({@link TileMap#shift}, the infinite mode's window) baked
+ * chunks keep their geometry: it is drawn with an offset instead, and only chunks
+ * that moved in from outside are baked.
+ */
+public class TileRenderer implements Disposable, TileMap.ChangeListener {
+    public static final int CHUNK_SIZE = 16; // Tiles per chunk side
+    private static final int MAX_SLOTS = 96;  // Enough for the whole screen at max zoom out
+    private static final int TILES_PER_CHUNK = CHUNK_SIZE * CHUNK_SIZE;
+    private static final int MAX_OFFSET = 1 << 14; // Tiles; rebake everything before float precision suffers
+
+    private final TileMap tiles;
+    private final int chunksX;
+    private final int chunksY;
+
+    private final SpriteCache cache;
+    private final int[] slotCacheIds;
+    private final int[] slotChunk;     // Chunk index held by each slot, -1 if free
+    private final long[] slotLastUsed; // Frame a slot was last drawn in
+    private final boolean[] slotDirty; // Scratch for mapShifted
+    private final int[] chunkSlot;     // Slot of each chunk, -1 if not baked
+    private final boolean[] chunkDirty;
+
+    private final IntArray overflow = new IntArray();
+
+    // Tiles the map moved since the baked geometry was laid out, see mapShifted
+    private int offsetX, offsetY;
+    private final Matrix4 offset = new Matrix4();
+
+    private long frame = 0;
+    private int drawnChunks = 0;
+
+    public TileRenderer(TileMap tiles) {
+        this.tiles = tiles;
+        this.chunksX = (tiles.getWidth() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunksY = (tiles.getHeight() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        int chunkCount = chunksX * chunksY;
+        int slots = Math.min(chunkCount, MAX_SLOTS);
+
+        chunkSlot = new int[chunkCount];
+        chunkDirty = new boolean[chunkCount];
+        java.util.Arrays.fill(chunkSlot, -1);
+
+        slotCacheIds = new int[slots];
+        slotChunk = new int[slots];
+        slotLastUsed = new long[slots];
+        slotDirty = new boolean[slots];
+        java.util.Arrays.fill(slotChunk, -1);
+
+        // Reserve every slot at full chunk size up front. SpriteCache only allows a
+        // cache to be redefined with at most as many sprites as it was created with.
+        cache = new SpriteCache(slots * TILES_PER_CHUNK, false);
+        TextureRegion filler = TileSet.getTileRegion(TileType.FLOOR.getId());
+        for (int i = 0; i < slots; i++) {
+            cache.beginCache();
+            for (int j = 0; j < TILES_PER_CHUNK; j++) {
+                cache.add(filler, 0, 0, 0, 0);
+            }
+            slotCacheIds[i] = cache.endCache();
+        }
+
+        tiles.setChangeListener(this);
+    }
+
+    @Override
+    public void tileChanged(int x, int y) {
+        int chunk = (y / CHUNK_SIZE) * chunksX + (x / CHUNK_SIZE);
+        chunkDirty[chunk] = true;
+    }
+
+    @Override
+    public void mapShifted(int dx, int dy) {
+        offsetX += dx;
+        offsetY += dy;
+        if (dx % CHUNK_SIZE != 0 || dy % CHUNK_SIZE != 0
+                || Math.abs(offsetX) > MAX_OFFSET || Math.abs(offsetY) > MAX_OFFSET) {
+            // Chunks do not line up with their old geometry (or it is too far out): bake them again
+            offsetX = 0;
+            offsetY = 0;
+            java.util.Arrays.fill(chunkDirty, true);
+            return;
+        }
+
+        // Move the chunks with their slots (and pending changes); chunks moved out free their slot
+        int dcx = dx / CHUNK_SIZE;
+        int dcy = dy / CHUNK_SIZE;
+        for (int slot = 0; slot < slotChunk.length; slot++) {
+            slotDirty[slot] = slotChunk[slot] >= 0 && chunkDirty[slotChunk[slot]];
+        }
+        java.util.Arrays.fill(chunkSlot, -1);
+        java.util.Arrays.fill(chunkDirty, false);
+        for (int slot = 0; slot < slotChunk.length; slot++) {
+            int chunk = slotChunk[slot];
+            if (chunk < 0) continue;
+            int cx = chunk % chunksX + dcx;
+            int cy = chunk / chunksX + dcy;
+            if (cx < 0 || cy < 0 || cx >= chunksX || cy >= chunksY) {
+                slotChunk[slot] = -1;
+                continue;
+            }
+            chunk = cy * chunksX + cx;
+            slotChunk[slot] = chunk;
+            chunkSlot[chunk] = slot;
+            chunkDirty[chunk] = slotDirty[slot];
+        }
+    }
+
+    /**
+     * Draws all chunks intersecting the given world rectangle.
+     * Must be called outside of SpriteBatch.begin()/end().
+     *
+     * @param batch Fallback batch, only used if more chunks are visible than there are cache slots.
+     */
+    public void render(OrthographicCamera camera, Rectangle view, SpriteBatch batch) {
+        frame++;
+        drawnChunks = 0;
+        overflow.clear();
+
+        int chunkPixels = CHUNK_SIZE * TileMap.TILE_SIZE;
+        int minCx = Math.max(0, (int) Math.floor(view.x / chunkPixels));
+        int maxCx = Math.min(chunksX - 1, (int) Math.floor((view.x + view.width) / chunkPixels));
+        int minCy = Math.max(0, (int) Math.floor(view.y / chunkPixels));
+        int maxCy = Math.min(chunksY - 1, (int) Math.floor((view.y + view.height) / chunkPixels));
+        if (minCx > maxCx || minCy > maxCy) return;
+
+        // 1. Make sure every visible chunk is baked (caches can't be built while drawing)
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                int chunk = cy * chunksX + cx;
+                int slot = chunkSlot[chunk];
+
+                if (slot < 0) {
+                    slot = acquireSlot();
+                    if (slot < 0) {
+                        // Every slot is in use this frame, draw this chunk through the batch
+                        overflow.add(chunk);
+                        continue;
+                    }
+                    chunkSlot[chunk] = slot;
+                    slotChunk[slot] = chunk;
+                    chunkDirty[chunk] = true;
+                }
+
+                if (chunkDirty[chunk]) {
+                    bakeChunk(slot, cx, cy);
+                    chunkDirty[chunk] = false;
+                }
+                slotLastUsed[slot] = frame;
+            }
+        }
+
+        // 2. Draw the cached chunks
+        cache.setProjectionMatrix(camera.combined);
+        cache.setTransformMatrix(offset.setToTranslation(offsetX * TileMap.TILE_SIZE, offsetY * TileMap.TILE_SIZE, 0));
+        cache.begin();
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                int slot = chunkSlot[cy * chunksX + cx];
+                if (slot >= 0) {
+                    cache.draw(slotCacheIds[slot]);
+                    drawnChunks++;
+                }
+            }
+        }
+        cache.end();
+
+        if (overflow.notEmpty()) {
+            batch.setProjectionMatrix(camera.combined);
+            batch.begin();
+            for (int i = 0; i < overflow.size; i++) {
+                int chunk = overflow.get(i);
+                drawChunk(batch, chunk % chunksX, chunk / chunksX);
+                drawnChunks++;
+            }
+            batch.end();
+        }
+    }
+
+    // Finds a free slot or evicts the least recently drawn one. Returns -1 if all slots were drawn this frame.
+    private int acquireSlot() {
+        int best = -1;
+        for (int i = 0; i < slotChunk.length; i++) {
+            if (slotChunk[i] < 0) return i;
+            if (slotLastUsed[i] != frame && (best < 0 || slotLastUsed[i] < slotLastUsed[best])) {
+                best = i;
+            }
+        }
+        if (best >= 0) {
+            chunkSlot[slotChunk[best]] = -1;
+            slotChunk[best] = -1;
+        }
+        return best;
+    }
+
+    // Geometry is laid out where the tiles were before the shifts since, see offsetX
+    private void bakeChunk(int slot, int cx, int cy) {
+        cache.beginCache(slotCacheIds[slot]);
+        int endX = Math.min((cx + 1) * CHUNK_SIZE, tiles.getWidth());
+        int endY = Math.min((cy + 1) * CHUNK_SIZE, tiles.getHeight());
+        for (int y = cy * CHUNK_SIZE; y < endY; y++) {
+            for (int x = cx * CHUNK_SIZE; x < endX; x++) {
+                TextureRegion region = TileSet.getTileRegion(tiles.getId(x, y));
+                if (region != null) {
+                    cache.add(region, (x - offsetX) * TileMap.TILE_SIZE, (y - offsetY) * TileMap.TILE_SIZE,
+                        TileMap.TILE_SIZE, TileMap.TILE_SIZE);
+                }
+            }
+        }
+        cache.endCache();
+    }
+
+    private void drawChunk(SpriteBatch batch, int cx, int cy) {
+        int endX = Math.min((cx + 1) * CHUNK_SIZE, tiles.getWidth());
+        int endY = Math.min((cy + 1) * CHUNK_SIZE, tiles.getHeight());
+        for (int y = cy * CHUNK_SIZE; y < endY; y++) {
+            for (int x = cx * CHUNK_SIZE; x < endX; x++) {
+                TextureRegion region = TileSet.getTileRegion(tiles.getId(x, y));
+                if (region != null) {
+                    batch.draw(region, x * TileMap.TILE_SIZE, y * TileMap.TILE_SIZE, TileMap.TILE_SIZE, TileMap.TILE_SIZE);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Number of chunks drawn in the last frame.
+     */
+    public int getDrawnChunks() {
+        return drawnChunks;
+    }
+
+    @Override
+    public void dispose() {
+        tiles.setChangeListener(null);
+        cache.dispose();
+    }
+}
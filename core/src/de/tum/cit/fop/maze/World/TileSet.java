@@ -0,0 +1,39 @@
+package de.tum.cit.fop.maze.World;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Render side of the tile definition table: maps tile ids to texture regions of
+ * basictiles.png. The texture is loaded once and shared by the map loader, the
+ * dungeon generator and the renderer.
+ */
+public class TileSet {
+    private static Texture texture;
+    private static TextureRegion[][] regions;
+    private static TextureRegion[] tileRegions;
+
+    /**
+     * @return basictiles.png split into 16x16 regions ([row][col]).
+     */
+    public static TextureRegion[][] getRegions() {
+        if (regions == null) {
+            texture = new Texture(Gdx.files.internal("basictiles.png"));
+            regions = TextureRegion.split(texture, TileMap.TILE_SIZE, TileMap.TILE_SIZE);
+
+            tileRegions = new TextureRegion[TileType.values().length];
+            tileRegions[TileType.FLOOR.getId()] = regions[1][1];
+            tileRegions[TileType.WALL.getId()] = regions[0][0];
+        }
+        return regions;
+    }
+
+    /**
+     * @return The region drawn for the given tile id, or null for tiles that are not drawn.
+     */
+    public static TextureRegion getTileRegion(int id) {
+        getRegions();
+        return tileRegions[id];
+    }
+}
@@ -0,0 +1,142 @@
+package de.tum.cit.fop.maze.AI;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Array-backed A* for the 4-connected tile grid.
+ * <p>
+ * All per-node state lives in flat int arrays indexed by {@code y * width + x}
+ * and the open list is an indexed binary heap with a real decrease-key, so a
+ * search does not allocate anything. Instead of clearing the arrays between
+ * searches every entry is stamped with the generation it was written in; an
+ * entry from an older generation simply counts as "not visited yet".
+ * <p>
+ * A search can also run in time slices ({@code begin} / {@code resume}); the
+ * context then keeps its state between the slices.
+ * <p>
+ * A search context is not thread-safe. Use {@link #get()} to obtain the
+ * context of the calling thread.
+ */
+public class AStarSearch {
+
+    private static final ThreadLocal<AStarSearch> CONTEXT = ThreadLocal.withInitial(AStarSearch::new);
+
+    /**
+     * @return The reusable search context of the calling thread.
+     */
+    public static AStarSearch get() {
+        return CONTEXT.get();
+    }
+
+    private final SearchState state = new SearchState();
+
+    // Current search, kept between time slices
+    private Grid grid;
+    private int end, endX, endY;
+
+    /**
+     * Finds a shortest 4-directional path between two tiles.
+     *
+     * @param out Receives the path as flat tile indices (y * width + x), start first.
+     *            Cleared before the search.
+     * @return True if a path was found.
+     */
+    public boolean search(Grid grid, int startX, int startY, int endX, int endY, IntArray out) {
+        out.clear();
+        int status = begin(grid, startX, startY, endX, endY);
+        if (status == SearchState.RUNNING) status = resume(Integer.MAX_VALUE, out);
+        return status == SearchState.FOUND;
+    }
+
+    /**
+     * Starts a search that is then driven by {@link #resume}.
+     *
+     * @return {@link SearchState#RUNNING}, or {@link SearchState#NO_PATH} if it is hopeless.
+     */
+    int begin(Grid grid, int startX, int startY, int endX, int endY) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        if (!grid.isWalkable(endX, endY)) return SearchState.NO_PATH; // Target unreachable
+        if (startX < 0 || startX >= width || startY < 0 || startY >= height) return SearchState.NO_PATH;
+
+        this.grid = grid;
+        this.endX = endX;
+        this.endY = endY;
+        end = endY * width + endX;
+        state.prepare(width * height);
+        state.relax(startY * width + startX, -1, 0, heuristic(startX, startY, endX, endY));
+        return SearchState.RUNNING;
+    }
+
+    /**
+     * Expands at most {@code maxExpansions} nodes of the current search.
+     *
+     * @param out Receives the path once it is found.
+     * @return {@link SearchState#FOUND}, {@link SearchState#NO_PATH} or
+     *         {@link SearchState#RUNNING} if the budget ran out first.
+     */
+    int resume(int maxExpansions, IntArray out) {
+        SearchState s = state;
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int budget = maxExpansions;
+
+        while (s.heapSize > 0) {
+            if (budget-- <= 0) return SearchState.RUNNING;
+            int current = s.poll();
+
+            if (current == end) {
+                buildPath(end, out);
+                return SearchState.FOUND;
+            }
+
+            int cx = current % width;
+            int cy = current / width;
+            int g = s.gCost[current] + 1;
+
+            // 4-Directional: up, down, right, left
+            for (int dir = 0; dir < 4; dir++) {
+                int nx = cx, ny = cy;
+                switch (dir) {
+                    case 0: ny++; break;
+                    case 1: ny--; break;
+                    case 2: nx++; break;
+                    default: nx--; break;
+                }
+                if (nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+                int next = ny * width + nx;
+                if (!grid.isWalkableIndex(next)) continue;
+
+                s.relax(next, current, g, heuristic(nx, ny, endX, endY));
+            }
+        }
+
+        return SearchState.NO_PATH;
+    }
+
+    /**
+     * @return Number of nodes expanded by the last search (for profiling).
+     */
+    public int getExpanded() {
+        return state.expanded;
+    }
+
+    /**
+     * @return Tiles the search arrays are sized for, i.e. the largest grid searched so far.
+     */
+    public int getCapacity() {
+        return state.capacity();
+    }
+
+    private static int heuristic(int x1, int y1, int x2, int y2) {
+        // Manhattan Distance for 4-way movement
+        return Math.abs(x1 - x2) + Math.abs(y1 - y2);
+    }
+
+    private void buildPath(int end, IntArray out) {
+        for (int node = end; node != -1; node = state.parent[node]) {
+            out.add(node);
+        }
+        out.reverse();
+    }
+}
@@ -0,0 +1,146 @@
+package de.tum.cit.fop.maze.AI;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Tiles visible from one origin tile, computed with recursive shadowcasting.
+ * <p>
+ * Each of the eight octants is scanned row by row outwards; a wall narrows the
+ * visible slope range for the rows behind it, so every tile within the radius
+ * is looked at once. The result is a bitset over the grid (one bit per tile,
+ * y * width + x), so "is tile X visible?" is a single lookup. Walls that are
+ * lit count as visible, which is what a fog-of-war wants.
+ * <p>
+ * Like {@link FlowField} the set is only recomputed when the origin enters a
+ * different tile or the grid changes.
+ */
+public class FieldOfView {
+    // Octant transforms: (xx, xy, yx, yy) per octant
+    private static final int[][] OCTANTS = {
+        {1, 0, 0, 1}, {0, 1, 1, 0}, {0, -1, 1, 0}, {-1, 0, 0, 1},
+        {-1, 0, 0, -1}, {0, -1, -1, 0}, {0, 1, -1, 0}, {1, 0, 0, -1}
+    };
+
+    private final Grid grid;
+    private final int radius;
+    private final long[] bits;
+    private final IntArray visible = new IntArray(); // Set bits, to clear them again cheaply
+
+    private int originX = Integer.MIN_VALUE;
+    private int originY = Integer.MIN_VALUE;
+    private int gridVersion;
+    private int computes;
+
+    /**
+     * @param radius View distance in tiles.
+     */
+    public FieldOfView(Grid grid, int radius) {
+        this.grid = grid;
+        this.radius = radius;
+        bits = new long[(grid.getWidth() * grid.getHeight() + 63) >> 6];
+    }
+
+    /**
+     * Moves the origin. The set is recomputed only if the origin changed tiles or the grid changed.
+     */
+    public void update(int x, int y) {
+        if (x == originX && y == originY && gridVersion == grid.getVersion()) return;
+        compute(x, y);
+    }
+
+    /**
+     * Recomputes the visible set for an origin.
+     */
+    public void compute(int x, int y) {
+        originX = x;
+        originY = y;
+        gridVersion = grid.getVersion();
+        computes++;
+
+        for (int i = 0; i < visible.size; i++) {
+            int tile = visible.get(i);
+            bits[tile >> 6] &= ~(1L << tile);
+        }
+        visible.clear();
+        if (x < 0 || x >= grid.getWidth() || y < 0 || y >= grid.getHeight()) return;
+
+        mark(x, y);
+        for (int[] octant : OCTANTS) {
+            castLight(1, 1f, 0f, octant[0], octant[1], octant[2], octant[3]);
+        }
+    }
+
+    /**
+     * Scans one octant from {@code row} outwards within the slopes {@code start} .. {@code end}.
+     */
+    private void castLight(int row, float start, float end, int xx, int xy, int yx, int yy) {
+        if (start < end) return;
+        int radiusSquared = radius * radius + radius; // Slightly rounder circles
+        float newStart = 0f;
+
+        for (int distance = row; distance <= radius; distance++) {
+            boolean blocked = false;
+            for (int dx = -distance, dy = -distance; dx <= 0; dx++) {
+                float leftSlope = (dx - 0.5f) / (dy + 0.5f);
+                float rightSlope = (dx + 0.5f) / (dy - 0.5f);
+                if (start < rightSlope) continue;
+                if (end > leftSlope) break;
+
+                int x = originX + dx * xx + dy * xy;
+                int y = originY + dx * yx + dy * yy;
+                boolean opaque = !grid.isWalkable(x, y); // Also true outside the map
+                if (dx * dx + dy * dy <= radiusSquared) mark(x, y);
+
+                if (blocked) {
+                    if (opaque) {
+                        newStart = rightSlope;
+                    } else {
+                        blocked = false;
+                        start = newStart;
+                    }
+                } else if (opaque && distance < radius) {
+                    // Start of a wall: scan the part in front of it, then continue behind it
+                    blocked = true;
+                    castLight(distance + 1, start, leftSlope, xx, xy, yx, yy);
+                    newStart = rightSlope;
+                }
+            }
+            if (blocked) break;
+        }
+    }
+
+    private void mark(int x, int y) {
+        if (x < 0 || x >= grid.getWidth() || y < 0 || y >= grid.getHeight()) return;
+        int tile = y * grid.getWidth() + x;
+        long bit = 1L << tile;
+        if ((bits[tile >> 6] & bit) != 0) return; // Octant borders are scanned twice
+        bits[tile >> 6] |= bit;
+        visible.add(tile);
+    }
+
+    /**
+     * @return True if the tile can be seen from the origin.
+     */
+    public boolean isVisible(int x, int y) {
+        if (x < 0 || x >= grid.getWidth() || y < 0 || y >= grid.getHeight()) return false;
+        int tile = y * grid.getWidth() + x;
+        return (bits[tile >> 6] & (1L << tile)) != 0;
+    }
+
+    /**
+     * @return The visible tiles (y * width + x) in no particular order. Do not modify.
+     */
+    public IntArray getVisibleTiles() {
+        return visible;
+    }
+
+    public int getOriginX() { return originX; }
+    public int getOriginY() { return originY; }
+
+    /**
+     * @return How often the set was recomputed (for profiling).
+     */
+    public int getComputes() {
+        return computes;
+    }
+}
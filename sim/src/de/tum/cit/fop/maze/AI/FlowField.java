@@ -0,0 +1,123 @@
+package de.tum.cit.fop.maze.AI;
+
+/**
+ * Shared distance field towards one goal tile (the player), so any number of
+ * chasing enemies can read their next step in O(1) instead of each running
+ * its own path search.
+ * <p>
+ * The field is a breadth-first search from the goal over walkable tiles,
+ * limited to {@code radius} steps. It is only rebuilt when the goal enters a
+ * different tile; while the player stays inside one tile every update is a
+ * no-op. Entries are generation-stamped like the search contexts, so a rebuild
+ * never clears the arrays.
+ */
+public class FlowField {
+    private final Grid grid;
+    private final int radius;
+
+    private final int[] distance; // Steps to the goal, valid while stamp == generation
+    private final int[] stamp;
+    private final int[] queue;
+    private int generation = 1; // Stamps start at 0, so nothing is valid before the first update
+
+    private int goalX = Integer.MIN_VALUE;
+    private int goalY = Integer.MIN_VALUE;
+    private int gridVersion;
+    private int rebuilds;
+
+    /**
+     * @param radius Maximum number of steps from the goal that are covered.
+     */
+    public FlowField(Grid grid, int radius) {
+        this.grid = grid;
+        this.radius = radius;
+        int size = grid.getWidth() * grid.getHeight();
+        distance = new int[size];
+        stamp = new int[size];
+        queue = new int[size];
+    }
+
+    /**
+     * Moves the goal. The field is rebuilt only if the goal changed tiles or the grid changed.
+     */
+    public void update(int x, int y) {
+        if (x == goalX && y == goalY && gridVersion == grid.getVersion()) return;
+        goalX = x;
+        goalY = y;
+        gridVersion = grid.getVersion();
+        rebuild();
+    }
+
+    private void rebuild() {
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        rebuilds++;
+        if (!grid.isWalkable(goalX, goalY)) return; // Goal inside a wall: empty field
+
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int head = 0;
+        int tail = 0;
+        int goal = goalY * width + goalX;
+        queue[tail++] = goal;
+        stamp[goal] = generation;
+        distance[goal] = 0;
+
+        while (head < tail) {
+            int tile = queue[head++];
+            int d = distance[tile] + 1;
+            if (d > radius) continue;
+            int x = tile % width;
+            int y = tile / width;
+            for (int dir = 0; dir < 4; dir++) {
+                int next;
+                switch (dir) {
+                    case 0: if (y + 1 >= height) continue; next = tile + width; break;
+                    case 1: if (y - 1 < 0) continue; next = tile - width; break;
+                    case 2: if (x + 1 >= width) continue; next = tile + 1; break;
+                    default: if (x - 1 < 0) continue; next = tile - 1; break;
+                }
+                if (stamp[next] == generation || !grid.isWalkableIndex(next)) continue;
+                stamp[next] = generation;
+                distance[next] = d;
+                queue[tail++] = next;
+            }
+        }
+    }
+
+    /**
+     * @return Steps from the tile to the goal, or -1 if the tile is outside the field.
+     */
+    public int getDistance(int x, int y) {
+        if (x < 0 || x >= grid.getWidth() || y < 0 || y >= grid.getHeight()) return -1;
+        int index = y * grid.getWidth() + x;
+        return stamp[index] == generation ? distance[index] : -1;
+    }
+
+    /**
+     * @return The neighbouring tile (y * width + x) one step closer to the goal,
+     *         or -1 if the tile is the goal itself or outside the field.
+     */
+    public int nextStep(int x, int y) {
+        int d = getDistance(x, y);
+        if (d <= 0) return -1;
+        // Same neighbour order as the path searches: up, down, right, left
+        if (getDistance(x, y + 1) == d - 1) return (y + 1) * grid.getWidth() + x;
+        if (getDistance(x, y - 1) == d - 1) return (y - 1) * grid.getWidth() + x;
+        if (getDistance(x + 1, y) == d - 1) return y * grid.getWidth() + x + 1;
+        return y * grid.getWidth() + x - 1; // Must be the left one
+    }
+
+    public int getGoalX() { return goalX; }
+    public int getGoalY() { return goalY; }
+
+    /**
+     * @return How often the field was rebuilt (for profiling).
+     */
+    public int getRebuilds() {
+        return rebuilds;
+    }
+}
@@ -0,0 +1,259 @@
+package de.tum.cit.fop.maze.AI;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import de.tum.cit.fop.maze.World.TileMap;
+import java.util.List;
+
+/**
+ * Represents the game map as a navigable grid for pathfinding.
+ * <p>
+ * Walkability is taken from the solid tiles of the level's {@link TileMap}.
+ * Besides walkability the grid also keeps a static occupancy index: every
+ * interactive map object (keys, exits, traps, pickups) is bucketed by the
+ * tiles it covers, so collision queries only have to look at the handful of
+ * cells a hitbox overlaps instead of the whole object list.
+ * <p>
+ * Every change to the navigation data bumps {@link #getVersion()}, which
+ * invalidates the grid's {@link PathCache}.
+ */
+public class Grid {
+    private boolean[] walkable; // index = y * width + x
+    private volatile int[] jumpDistances; // JPS+ table, see JumpPointSearch; null until needed after a shift
+    private NavGraph navGraph; // Optional room graph for long-range planning
+    private int width;
+    private int height;
+    private int tileSize = 16;
+    private int version;
+    private PathCache pathCache;
+
+    // Max. number of path tiles kept in the path cache (~64 KB)
+    private static final int PATH_CACHE_BUDGET = 16384;
+
+    // Occupancy index, one bucket per tile (index = y * width + x). Buckets are
+    // created lazily because most tiles are plain floor.
+    private Array<Occupant>[] cells;
+
+    /**
+     * Something that can be put into the occupancy index.
+     */
+    public interface Occupant {
+        Rectangle getBounds();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Grid(TileMap tiles, List<? extends Occupant> objects) {
+        this.width = tiles.getWidth();
+        this.height = tiles.getHeight();
+
+        walkable = new boolean[width * height];
+        cells = new Array[width * height];
+
+        // Solid tiles (walls) are not walkable
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                walkable[y * width + x] = !tiles.isSolid(x, y);
+            }
+        }
+        jumpDistances = JumpPointSearch.computeJumpDistances(walkable, width, height);
+        pathCache = new PathCache(PATH_CACHE_BUDGET);
+
+        // Index everything the player can bump into
+        for (Occupant obj : objects) {
+            addObject(obj);
+        }
+    }
+
+    private Grid(Grid source) {
+        this.width = source.width;
+        this.height = source.height;
+        this.walkable = source.walkable;
+        this.jumpDistances = source.jumpDistances;
+        this.navGraph = source.navGraph;
+        this.version = source.version;
+        this.pathCache = source.pathCache;
+    }
+
+    /**
+     * Navigation-only copy for searches on worker threads: walkability, jump table,
+     * room graph and path cache, but no occupancy index. The arrays are shared,
+     * which is safe because {@link #setWalkable} replaces them instead of writing
+     * into them. A snapshot keeps the version it was taken at.
+     */
+    public Grid snapshot() {
+        return new Grid(this);
+    }
+
+    public boolean isWalkable(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return false;
+        return walkable[y * width + x];
+    }
+
+    /**
+     * Unchecked walkability lookup by flat tile index (y * width + x), for the path searches.
+     */
+    public boolean isWalkableIndex(int index) {
+        return walkable[index];
+    }
+
+    /**
+     * Current walkability array. Never written after it was published, see {@link #setWalkable}.
+     */
+    boolean[] getWalkable() {
+        return walkable;
+    }
+
+    /**
+     * Precomputed jump distances, indexed by (y * width + x) * 4 + direction.
+     */
+    int[] getJumpDistances() {
+        int[] jump = jumpDistances;
+        if (jump == null) {
+            // Threads sharing a snapshot may both build it, either result is the same table
+            jump = JumpPointSearch.computeJumpDistances(walkable, width, height);
+            jumpDistances = jump;
+        }
+        return jump;
+    }
+
+    /**
+     * @return The abstract room graph of a generated floor, or null for hand-made maps.
+     */
+    public NavGraph getNavGraph() {
+        return navGraph;
+    }
+
+    public void setNavGraph(NavGraph navGraph) {
+        this.navGraph = navGraph;
+        version++; // Hierarchical routes change
+    }
+
+    /**
+     * Opens or closes a tile (e.g. a door). Copies the walkability and jump tables
+     * so that snapshots used by running searches stay untouched.
+     * <p>
+     * The room graph is dropped because its regions may no longer be connected.
+     */
+    public void setWalkable(int x, int y, boolean value) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return;
+        int index = y * width + x;
+        if (walkable[index] == value) return;
+
+        walkable = walkable.clone();
+        walkable[index] = value;
+        jumpDistances = JumpPointSearch.computeJumpDistances(walkable, width, height);
+        navGraph = null;
+        version++;
+    }
+
+    /**
+     * Follows a {@link TileMap#shift} of the tile layer by (dx, dy) tiles, for the infinite
+     * mode's moving window: walkability is read again from the tiles and the occupancy
+     * buckets move along, the ones moved out of the grid are dropped. Objects must be moved
+     * by the same amount. Like {@link #setWalkable}, new tables are allocated so snapshots
+     * stay untouched, and the room graph is dropped. The jump table is left to the first
+     * search that needs it, which usually runs on a path worker instead of this frame.
+     */
+    public void shift(TileMap tiles, int dx, int dy) {
+        boolean[] shifted = new boolean[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                shifted[y * width + x] = !tiles.isSolid(x, y);
+            }
+        }
+        walkable = shifted;
+        jumpDistances = null;
+        navGraph = null;
+        version++;
+
+        // Occupancy buckets, row by row in the order that never overwrites a row still to be copied
+        int rowLength = width - Math.abs(dx);
+        for (int i = 0; i < height; i++) {
+            int y = dy > 0 ? height - 1 - i : i;
+            int row = y * width;
+            int fromY = y - dy;
+            if (fromY < 0 || fromY >= height || rowLength <= 0) {
+                java.util.Arrays.fill(cells, row, row + width, null);
+                continue;
+            }
+            System.arraycopy(cells, fromY * width + Math.max(0, -dx), cells, row + Math.max(0, dx), rowLength);
+            if (dx > 0) java.util.Arrays.fill(cells, row, row + dx, null);
+            if (dx < 0) java.util.Arrays.fill(cells, row + rowLength, row + width, null);
+        }
+    }
+
+    /**
+     * @return Counter that changes whenever walkability or the room graph changes.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Cache of search results, shared with all snapshots of this grid.
+     */
+    public PathCache getPathCache() {
+        return pathCache;
+    }
+
+    /**
+     * Registers an object in every tile its bounds overlap.
+     * Used for pickups that are spawned after the grid was built.
+     */
+    public void addObject(Occupant obj) {
+        Rectangle b = obj.getBounds();
+        int minX = Math.max(0, toTile(b.x));
+        int maxX = Math.min(width - 1, toTile(b.x + b.width - 0.001f));
+        int minY = Math.max(0, toTile(b.y));
+        int maxY = Math.min(height - 1, toTile(b.y + b.height - 0.001f));
+
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                int index = y * width + x;
+                if (cells[index] == null) {
+                    cells[index] = new Array<>(false, 2);
+                }
+                cells[index].add(obj);
+            }
+        }
+    }
+
+    /**
+     * Removes an object from the occupancy index (e.g. a collected key).
+     */
+    public void removeObject(Occupant obj) {
+        Rectangle b = obj.getBounds();
+        int minX = Math.max(0, toTile(b.x));
+        int maxX = Math.min(width - 1, toTile(b.x + b.width - 0.001f));
+        int minY = Math.max(0, toTile(b.y));
+        int maxY = Math.min(height - 1, toTile(b.y + b.height - 0.001f));
+
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                Array<Occupant> bucket = cells[y * width + x];
+                if (bucket != null) {
+                    bucket.removeValue(obj, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The objects occupying the given tile, or null if there are none.
+     */
+    public Array<Occupant> getObjectsAt(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return null;
+        return cells[y * width + x];
+    }
+
+    /**
+     * Converts a world coordinate (pixels) into a tile coordinate.
+     */
+    public int toTile(float world) {
+        return MathUtils.floor(world / tileSize);
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+}
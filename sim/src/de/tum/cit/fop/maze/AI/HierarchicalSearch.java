@@ -0,0 +1,128 @@
+package de.tum.cit.fop.maze.AI;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Long-range route planning on a {@link NavGraph} (HPA*).
+ * <p>
+ * The start and goal tiles are linked into the abstract graph through the
+ * precomputed distance fields of their regions' nodes, then A* runs over the
+ * entrance nodes only. The
+ * caller refines just the first leg of the route (up to the entrance into the
+ * next region) on the tile grid; the remaining legs are planned again on the
+ * next repath anyway.
+ * <p>
+ * Like the other searches a context is not thread-safe; use {@link #get()}.
+ */
+public class HierarchicalSearch {
+
+    /** Start and goal share a region (or are not on the graph): search the tile grid directly. */
+    public static final int SAME_REGION = -1;
+    /** Start and goal lie in disconnected parts of the floor. */
+    public static final int UNREACHABLE = -2;
+
+    private static final ThreadLocal<HierarchicalSearch> CONTEXT = ThreadLocal.withInitial(HierarchicalSearch::new);
+
+    /**
+     * @return The reusable search context of the calling thread.
+     */
+    public static HierarchicalSearch get() {
+        return CONTEXT.get();
+    }
+
+    private final SearchState state = new SearchState();
+
+    // Cost of linking the start / goal to each node of their region, -1 if not linked
+    private final IntArray startCost = new IntArray();
+    private final IntArray goalCost = new IntArray();
+
+    /**
+     * Plans a route over the abstract graph.
+     *
+     * @return The tile (y * width + x) of the entrance into the next region along the
+     *         route, {@link #SAME_REGION} or {@link #UNREACHABLE}.
+     */
+    public int nextWaypoint(NavGraph graph, int startX, int startY, int endX, int endY) {
+        int startRegion = graph.getRegion(startX, startY);
+        int goalRegion = graph.getRegion(endX, endY);
+        if (startRegion < 0 || goalRegion < 0 || startRegion == goalRegion) return SAME_REGION;
+
+        int width = graph.getWidth();
+        int nodes = graph.getNodeCount();
+        int start = nodes;     // Virtual node for the start tile
+        int goal = nodes + 1;  // Virtual node for the goal tile
+
+        linkToRegion(graph, startY * width + startX, startRegion, startCost);
+        linkToRegion(graph, endY * width + endX, goalRegion, goalCost);
+
+        SearchState s = state;
+        s.prepare(nodes + 2);
+        s.relax(start, -1, 0, Math.abs(startX - endX) + Math.abs(startY - endY));
+
+        while (s.heapSize > 0) {
+            int current = s.poll();
+            if (current == goal) {
+                return firstNodeOutside(graph, startRegion, goal, start);
+            }
+            int g = s.gCost[current];
+
+            if (current == start) {
+                IntArray local = graph.getRegionNodes(startRegion);
+                for (int i = 0; i < local.size; i++) {
+                    int node = local.get(i);
+                    int cost = startCost.get(node);
+                    if (cost >= 0) s.relax(node, start, cost, heuristic(graph, node, endX, endY));
+                }
+                continue;
+            }
+
+            IntArray edges = graph.getEdges(current);
+            for (int i = 0; i < edges.size; i += 2) {
+                int next = edges.get(i);
+                s.relax(next, current, g + edges.get(i + 1), heuristic(graph, next, endX, endY));
+            }
+            if (graph.getNodeRegion(current) == goalRegion) {
+                int cost = goalCost.get(current);
+                if (cost >= 0) s.relax(goal, current, g + cost, 0);
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    /**
+     * @return Number of abstract nodes expanded by the last plan (for profiling).
+     */
+    public int getExpanded() {
+        return state.expanded;
+    }
+
+    private int firstNodeOutside(NavGraph graph, int startRegion, int goal, int start) {
+        // Walk back from the goal; the last node seen outside the start region is the next entrance
+        int waypoint = UNREACHABLE;
+        for (int node = state.parent[goal]; node != start; node = state.parent[node]) {
+            if (graph.getNodeRegion(node) != startRegion) {
+                waypoint = graph.getNodeTile(node);
+            }
+        }
+        return waypoint;
+    }
+
+    /**
+     * Looks up the distance from a tile to every node of its region.
+     */
+    private void linkToRegion(NavGraph graph, int tile, int r, IntArray cost) {
+        cost.setSize(graph.getNodeCount());
+        IntArray local = graph.getRegionNodes(r);
+        for (int i = 0; i < local.size; i++) {
+            int node = local.get(i);
+            cost.set(node, graph.distanceFrom(node, tile));
+        }
+    }
+
+    private static int heuristic(NavGraph graph, int node, int endX, int endY) {
+        int tile = graph.getNodeTile(node);
+        int width = graph.getWidth();
+        // Manhattan Distance for 4-way movement
+        return Math.abs(tile % width - endX) + Math.abs(tile / width - endY);
+    }
+}
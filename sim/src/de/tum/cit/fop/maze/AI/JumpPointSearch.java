@@ -0,0 +1,244 @@
+package de.tum.cit.fop.maze.AI;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * JPS+ (Jump Point Search with precomputed jump distances) for the
+ * 4-connected, uniform-cost tile grid.
+ * <p>
+ * Instead of expanding every tile, the search only stops at "jump points":
+ * tiles where an optimal path may have to turn. Moving horizontally a tile is
+ * a jump point if a wall ends next to it (a forced neighbour). Moving
+ * vertically a tile is a jump point if it has a forced neighbour or if a
+ * horizontal jump from it reaches a jump point. Since walls never change
+ * during a level, the distance to the next jump point (or wall) in every
+ * direction is computed once by {@link #computeJumpDistances} when the
+ * {@link Grid} is built, so a scan is a single array lookup.
+ * <p>
+ * Jump distance encoding per tile and direction: a value {@code d > 0} means
+ * the next jump point is {@code d} steps away, {@code d <= 0} means there is
+ * none and the tile can move {@code -d} steps before hitting a wall.
+ * <p>
+ * Like {@link AStarSearch} a context is not thread-safe; use {@link #get()}.
+ */
+public class JumpPointSearch {
+
+    // Directions: up, down, right, left (same order as the A* neighbours)
+    static final int UP = 0, DOWN = 1, RIGHT = 2, LEFT = 3;
+    private static final int[] DX = {0, 0, 1, -1};
+    private static final int[] DY = {1, -1, 0, 0};
+
+    private static final ThreadLocal<JumpPointSearch> CONTEXT = ThreadLocal.withInitial(JumpPointSearch::new);
+
+    /**
+     * @return The reusable search context of the calling thread.
+     */
+    public static JumpPointSearch get() {
+        return CONTEXT.get();
+    }
+
+    private final SearchState state = new SearchState();
+
+    // Current search, kept between time slices
+    private Grid grid;
+    private int end, endX, endY;
+
+    /**
+     * Builds the jump distance table for a walkability array (index y * width + x).
+     *
+     * @return Table indexed by {@code (y * width + x) * 4 + direction}.
+     */
+    static int[] computeJumpDistances(boolean[] walkable, int width, int height) {
+        int[] jump = new int[width * height * 4];
+
+        // Horizontal scans, against the direction of travel so each tile can reuse its neighbour
+        for (int y = 0; y < height; y++) {
+            for (int x = width - 1; x >= 0; x--) {
+                jump[(y * width + x) * 4 + RIGHT] = nextDistance(walkable, width, height, jump, x, y, RIGHT);
+            }
+            for (int x = 0; x < width; x++) {
+                jump[(y * width + x) * 4 + LEFT] = nextDistance(walkable, width, height, jump, x, y, LEFT);
+            }
+        }
+
+        // Vertical scans depend on the horizontal distances of the tiles they pass
+        for (int x = 0; x < width; x++) {
+            for (int y = height - 1; y >= 0; y--) {
+                jump[(y * width + x) * 4 + UP] = nextDistance(walkable, width, height, jump, x, y, UP);
+            }
+            for (int y = 0; y < height; y++) {
+                jump[(y * width + x) * 4 + DOWN] = nextDistance(walkable, width, height, jump, x, y, DOWN);
+            }
+        }
+        return jump;
+    }
+
+    private static int nextDistance(boolean[] walkable, int width, int height, int[] jump, int x, int y, int dir) {
+        if (!isWalkable(walkable, width, height, x, y)) return 0;
+        int nx = x + DX[dir];
+        int ny = y + DY[dir];
+        if (!isWalkable(walkable, width, height, nx, ny)) return 0;
+        if (isJumpPoint(walkable, width, height, jump, nx, ny, dir)) return 1;
+        int next = jump[(ny * width + nx) * 4 + dir];
+        return next > 0 ? next + 1 : next - 1;
+    }
+
+    private static boolean isJumpPoint(boolean[] walkable, int width, int height, int[] jump, int x, int y, int dir) {
+        int dx = DX[dir];
+        int dy = DY[dir];
+        if (dx != 0) {
+            // Forced neighbour: a side opens up right after a wall
+            return (isWalkable(walkable, width, height, x, y - 1) && !isWalkable(walkable, width, height, x - dx, y - 1))
+                || (isWalkable(walkable, width, height, x, y + 1) && !isWalkable(walkable, width, height, x - dx, y + 1));
+        }
+        if ((isWalkable(walkable, width, height, x - 1, y) && !isWalkable(walkable, width, height, x - 1, y - dy))
+            || (isWalkable(walkable, width, height, x + 1, y) && !isWalkable(walkable, width, height, x + 1, y - dy))) {
+            return true;
+        }
+        // A horizontal jump from here finds a jump point
+        int index = (y * width + x) * 4;
+        return jump[index + RIGHT] > 0 || jump[index + LEFT] > 0;
+    }
+
+    private static boolean isWalkable(boolean[] walkable, int width, int height, int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height && walkable[y * width + x];
+    }
+
+    /**
+     * Finds a shortest 4-directional path between two tiles.
+     *
+     * @param out Receives the full path as flat tile indices (y * width + x), start first.
+     *            Cleared before the search.
+     * @return True if a path was found.
+     */
+    public boolean search(Grid grid, int startX, int startY, int endX, int endY, IntArray out) {
+        out.clear();
+        if (!grid.isWalkable(endX, endY)) return false; // Target unreachable
+        if (!grid.isWalkable(startX, startY)) {
+            // Jump distances are only defined on floor tiles, let plain A* step out of the wall
+            return AStarSearch.get().search(grid, startX, startY, endX, endY, out);
+        }
+        begin(grid, startX, startY, endX, endY);
+        return resume(Integer.MAX_VALUE, out) == SearchState.FOUND;
+    }
+
+    /**
+     * Starts a search that is then driven by {@link #resume}. Start and goal must be floor tiles.
+     */
+    void begin(Grid grid, int startX, int startY, int endX, int endY) {
+        int width = grid.getWidth();
+        this.grid = grid;
+        this.endX = endX;
+        this.endY = endY;
+        end = endY * width + endX;
+        state.prepare(width * grid.getHeight());
+        state.relax(startY * width + startX, -1, 0, heuristic(startX, startY, endX, endY));
+    }
+
+    /**
+     * Expands at most {@code maxExpansions} jump points of the current search.
+     *
+     * @param out Receives the full path once it is found.
+     * @return {@link SearchState#FOUND}, {@link SearchState#NO_PATH} or
+     *         {@link SearchState#RUNNING} if the budget ran out first.
+     */
+    int resume(int maxExpansions, IntArray out) {
+        SearchState s = state;
+        int width = grid.getWidth();
+        int[] jump = grid.getJumpDistances();
+        int budget = maxExpansions;
+
+        while (s.heapSize > 0) {
+            if (budget-- <= 0) return SearchState.RUNNING;
+            int current = s.poll();
+
+            if (current == end) {
+                buildPath(end, width, out);
+                return SearchState.FOUND;
+            }
+
+            int cx = current % width;
+            int cy = current / width;
+            int g = s.gCost[current];
+
+            // Pruning: keep going straight or turn to either side, never walk back
+            int from = s.parent[current];
+            int arrival = -1;
+            if (from != -1) {
+                int px = from % width;
+                int py = from / width;
+                arrival = cx > px ? RIGHT : cx < px ? LEFT : cy > py ? UP : DOWN;
+            }
+
+            for (int dir = 0; dir < 4; dir++) {
+                if (arrival != -1 && dir == reverse(arrival)) continue;
+
+                int distance = jump[current * 4 + dir];
+                int range = distance > 0 ? distance : -distance;
+                if (range == 0) continue;
+
+                int steps = -1;
+                if (DX[dir] != 0) {
+                    // Goal on this row within reach
+                    int toGoal = (endX - cx) * DX[dir];
+                    if (endY == cy && toGoal > 0 && toGoal <= range) steps = toGoal;
+                } else {
+                    // Goal row within reach: stop there so the horizontal scan can find the goal
+                    int toGoal = (endY - cy) * DY[dir];
+                    if (toGoal > 0 && toGoal <= range) steps = toGoal;
+                }
+                if (steps < 0) {
+                    if (distance <= 0) continue; // Only a wall ahead
+                    steps = distance;
+                }
+
+                int nx = cx + DX[dir] * steps;
+                int ny = cy + DY[dir] * steps;
+                s.relax(ny * width + nx, current, g + steps, heuristic(nx, ny, endX, endY));
+            }
+        }
+
+        return SearchState.NO_PATH;
+    }
+
+    /**
+     * @return Number of jump points expanded by the last search (for profiling).
+     */
+    public int getExpanded() {
+        return state.expanded;
+    }
+
+    /**
+     * @return Tiles the search arrays are sized for, i.e. the largest grid searched so far.
+     */
+    public int getCapacity() {
+        return state.capacity();
+    }
+
+    private static int reverse(int dir) {
+        return dir ^ 1;
+    }
+
+    private static int heuristic(int x1, int y1, int x2, int y2) {
+        // Manhattan Distance for 4-way movement
+        return Math.abs(x1 - x2) + Math.abs(y1 - y2);
+    }
+
+    /**
+     * Walks the jump point chain back and fills in the straight segments between them.
+     */
+    private void buildPath(int end, int width, IntArray out) {
+        int node = end;
+        out.add(node);
+        for (int prev = state.parent[node]; prev != -1; prev = state.parent[node]) {
+            int step = node % width != prev % width ? (prev % width > node % width ? 1 : -1)
+                : (prev > node ? width : -width);
+            for (int tile = node + step; tile != prev; tile += step) {
+                out.add(tile);
+            }
+            out.add(prev);
+            node = prev;
+        }
+        out.reverse();
+    }
+}
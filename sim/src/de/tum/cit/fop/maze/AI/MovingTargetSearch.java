@@ -0,0 +1,281 @@
+package de.tum.cit.fop.maze.AI;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Incremental planner for one chaser following a moving target
+ * (Generalized Fringe-Retrieving A*, G-FRA*).
+ * <p>
+ * Instead of throwing the last A* search away, the next plan starts from what
+ * is still valid of it. When the chaser has moved along its path, every tile
+ * whose search-tree branch runs through the chaser's new tile keeps its exact
+ * distance (shifted by the distance already walked); all other tiles are
+ * dropped. The open list is rebuilt from the kept tiles and their unexplored
+ * neighbours, re-keyed for the target's new tile, and A* simply continues from
+ * there. If the target's tile was already expanded the plan is complete
+ * without a single expansion, so a replan costs roughly as much as the target
+ * moved outside the explored area. As long as the target stays on an
+ * expanded tile below the chaser, the plan is just the branch between them.
+ * <p>
+ * Tiles that became solid ({@link Grid#setWalkable}) only drop the branches
+ * running through them. A tile that opened up can make kept distances too
+ * long, so that starts a fresh search.
+ * <p>
+ * The search tree is per chaser, so every chaser needs its own planner. Not thread-safe.
+ */
+public class MovingTargetSearch {
+    private final SearchState state = new SearchState();
+    private final IntArray touched = new IntArray(); // Tiles stamped in the current generation
+    private final IntArray kept = new IntArray();
+    private final IntArray chain = new IntArray();
+    private final IntArray blocked = new IntArray();
+
+    // Subtree membership, valid while mark == IN / OUT of the current pass
+    private int[] mark = new int[0];
+    private int markStamp;
+
+    private Grid grid;
+    private boolean[] walkable; // Array of the grid version the tree belongs to
+    private int version;
+    private boolean valid;
+    private int rootTile = -1; // Tile with g = 0
+    private int goalTile = -1;
+    private int keyedGoal = -1; // Goal the open list is ordered for
+
+    private boolean pending; // Last update ran out of budget
+    private int expanded; // Tiles expanded by the last update
+
+    /**
+     * Moves the chaser and the target and continues the plan.
+     *
+     * @param maxExpansions Budget for this call. If it runs out the search continues with the next call.
+     * @param out           Receives the path (flat tile indices, chaser first, target last).
+     * @return True if a path was written to {@code out}; false if there is none or the budget ran out.
+     */
+    public boolean update(Grid grid, int startX, int startY, int goalX, int goalY, int maxExpansions, IntArray out) {
+        out.clear();
+        expanded = 0;
+        pending = false;
+        if (!grid.isWalkable(startX, startY) || !grid.isWalkable(goalX, goalY)) return false;
+
+        int width = grid.getWidth();
+        int start = startY * width + startX;
+        goalTile = goalY * width + goalX;
+
+        blocked.clear();
+        if (grid != this.grid) {
+            valid = false;
+        } else if (grid.getVersion() != version && !collectBlocked(grid)) {
+            valid = false; // Something opened up
+        }
+        this.grid = grid;
+        walkable = grid.getWalkable();
+        version = grid.getVersion();
+
+        // Goal already expanded below the chaser: the branch in between is a shortest path
+        if (valid && blocked.isEmpty() && isClosed(goalTile) && collectBranch(start, out)) {
+            return true;
+        }
+
+        SearchState s = state;
+        if (valid && start == rootTile && blocked.isEmpty()) {
+            // Same tree, only the target moved: re-key the open list
+            if (goalTile != keyedGoal) rekey();
+        } else if (valid && isClosed(start)) {
+            retarget(start);
+        } else {
+            s.prepare(width * grid.getHeight());
+            touched.clear();
+            s.relax(start, -1, 0, heuristic(start));
+            touched.add(start);
+            valid = true;
+        }
+        rootTile = start;
+        keyedGoal = goalTile;
+
+        if (!isClosed(goalTile)) {
+            int before = s.expanded;
+            int status = search(maxExpansions);
+            expanded = s.expanded - before;
+            pending = status == SearchState.RUNNING;
+            if (status != SearchState.FOUND) return false;
+        }
+        collectBranch(start, out);
+        return true;
+    }
+
+    /**
+     * Walks the parent chain from the goal up to {@code start}.
+     *
+     * @return False (and an empty {@code out}) if the chain does not pass {@code start}.
+     */
+    private boolean collectBranch(int start, IntArray out) {
+        out.clear();
+        for (int node = goalTile; node != -1; node = state.parent[node]) {
+            out.add(node);
+            if (node == start) {
+                out.reverse();
+                return true;
+            }
+        }
+        out.clear();
+        return false;
+    }
+
+    /**
+     * Records the tiles that became solid since the tree was built.
+     *
+     * @return False if a tile became walkable (the tree cannot be kept).
+     */
+    private boolean collectBlocked(Grid grid) {
+        boolean[] before = walkable;
+        boolean[] now = grid.getWalkable();
+        for (int tile = 0; tile < now.length; tile++) {
+            if (now[tile] == before[tile]) continue;
+            if (now[tile]) return false;
+            blocked.add(tile);
+        }
+        return true;
+    }
+
+    private boolean isClosed(int tile) {
+        return state.visited[tile] == state.generation && state.heapIndex[tile] == SearchState.CLOSED;
+    }
+
+    /**
+     * Keeps the subtree below the new start, shifted so the start has g = 0,
+     * and rebuilds the open list around it for the current goal.
+     */
+    private void retarget(int start) {
+        SearchState s = state;
+        int offset = s.gCost[start];
+
+        // Mark which stamped tiles hang below the new start (and not below a blocked tile)
+        if (mark.length < s.visited.length) mark = new int[s.visited.length];
+        int in = ++markStamp;
+        int out = ++markStamp;
+        for (int i = 0; i < blocked.size; i++) mark[blocked.get(i)] = out;
+        mark[start] = in;
+
+        kept.clear();
+        for (int i = 0; i < touched.size; i++) {
+            int tile = touched.get(i);
+            chain.clear();
+            int node = tile;
+            int result = out;
+            while (true) {
+                if (mark[node] == in || mark[node] == out) {
+                    result = mark[node];
+                    break;
+                }
+                chain.add(node);
+                node = s.parent[node];
+                if (node == -1) break; // Reached the old root without passing the start
+            }
+            for (int j = 0; j < chain.size; j++) mark[chain.get(j)] = result;
+            if (result == in) kept.add(tile);
+        }
+
+        // Closed flags of the old generation, read before prepare() reuses the heap
+        int keptClosed = 0;
+        for (int i = 0; i < kept.size; i++) {
+            int tile = kept.get(i);
+            if (s.heapIndex[tile] == SearchState.CLOSED) {
+                kept.set(i, kept.get(keptClosed));
+                kept.set(keptClosed++, tile);
+            }
+        }
+
+        s.prepare(s.visited.length);
+        touched.clear();
+        for (int i = 0; i < keptClosed; i++) {
+            int tile = kept.get(i);
+            s.visited[tile] = s.generation;
+            s.heapIndex[tile] = SearchState.CLOSED;
+            s.gCost[tile] -= offset;
+            touched.add(tile);
+        }
+        s.parent[start] = -1;
+        for (int i = keptClosed; i < kept.size; i++) {
+            int tile = kept.get(i);
+            s.relax(tile, s.parent[tile], s.gCost[tile] - offset, heuristic(tile));
+            touched.add(tile);
+        }
+        // Fringe: unexplored neighbours of the kept closed tiles
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        for (int i = 0; i < keptClosed; i++) {
+            int tile = kept.get(i);
+            int x = tile % width;
+            int y = tile / width;
+            int g = s.gCost[tile] + 1;
+            if (y + 1 < height) open(tile + width, tile, g);
+            if (y > 0) open(tile - width, tile, g);
+            if (x + 1 < width) open(tile + 1, tile, g);
+            if (x > 0) open(tile - 1, tile, g);
+        }
+    }
+
+    private void rekey() {
+        SearchState s = state;
+        for (int pos = 0; pos < s.heapSize; pos++) {
+            int tile = s.heapNode(pos);
+            s.fCost[tile] = s.gCost[tile] + heuristic(tile);
+        }
+        s.heapify();
+    }
+
+    private void open(int tile, int parent, int g) {
+        if (!walkable[tile]) return;
+        if (state.visited[tile] != state.generation) touched.add(tile);
+        state.relax(tile, parent, g, heuristic(tile));
+    }
+
+    /**
+     * Plain A* from the current open list until the goal is expanded.
+     */
+    private int search(int maxExpansions) {
+        SearchState s = state;
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int budget = maxExpansions;
+
+        while (s.heapSize > 0) {
+            if (budget-- <= 0) return SearchState.RUNNING;
+            int current = s.poll();
+
+            // The goal is expanded like any other tile: a later re-key continues from this
+            // open list, and a closed tile without open neighbours would cut the search off
+            int x = current % width;
+            int y = current / width;
+            int g = s.gCost[current] + 1;
+            // 4-Directional: up, down, right, left
+            if (y + 1 < height) open(current + width, current, g);
+            if (y > 0) open(current - width, current, g);
+            if (x + 1 < width) open(current + 1, current, g);
+            if (x > 0) open(current - 1, current, g);
+            if (current == goalTile) return SearchState.FOUND;
+        }
+        return SearchState.NO_PATH;
+    }
+
+    private int heuristic(int tile) {
+        int width = grid.getWidth();
+        // Manhattan Distance for 4-way movement
+        return Math.abs(tile % width - goalTile % width) + Math.abs(tile / width - goalTile / width);
+    }
+
+    /**
+     * @return True if the last {@link #update} ran out of budget before the plan was complete.
+     */
+    public boolean isPending() {
+        return pending;
+    }
+
+    /**
+     * @return Tiles expanded by the last {@link #update} (for profiling).
+     */
+    public int getExpanded() {
+        return expanded;
+    }
+}
@@ -0,0 +1,220 @@
+package de.tum.cit.fop.maze.AI;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Abstract navigation graph of a generated floor, used for hierarchical (HPA*) planning.
+ * <p>
+ * The floor is split into regions (the generator's rooms plus the connected
+ * corridor pieces between them). Wherever two regions touch, the touching
+ * stretch becomes an entrance: one node on each side, linked with cost 1.
+ * <p>
+ * When the graph is built every node also gets a distance field over its own
+ * region. Nodes of the same region are linked with their exact walking
+ * distance from it, and a query only has to look up how far its start and goal
+ * tiles are from the nodes of their regions.
+ */
+public class NavGraph {
+    private final int width;
+    private final int height;
+    private final int[] region; // Region id per tile (y * width + x), -1 for walls
+    private final int regionCount;
+
+    // Nodes
+    private final IntArray nodeTile = new IntArray();
+    private final IntArray nodeRegion = new IntArray();
+    private IntArray[] edges; // Per node: (target, cost) pairs
+    private IntArray[] regionNodes; // Per region: its node ids
+
+    // Distance fields: localIndex maps a tile to its slot within its region
+    private final int[] localIndex;
+    private int[][] distanceFields; // Per node, indexed by localIndex
+
+    /**
+     * @param region      Region id for every tile (y * width + x), -1 for solid tiles.
+     *                    Every region must be 4-connected.
+     * @param regionCount Number of region ids in use (0 .. regionCount - 1).
+     */
+    public NavGraph(int width, int height, int[] region, int regionCount) {
+        this.width = width;
+        this.height = height;
+        this.region = region;
+        this.regionCount = regionCount;
+
+        regionNodes = new IntArray[regionCount];
+        for (int i = 0; i < regionCount; i++) {
+            regionNodes[i] = new IntArray();
+        }
+
+        int[] regionSize = new int[regionCount];
+        localIndex = new int[width * height];
+        for (int i = 0; i < region.length; i++) {
+            if (region[i] >= 0) localIndex[i] = regionSize[region[i]]++;
+        }
+
+        IntArray links = new IntArray(); // Node pairs joined by an entrance
+        findEntrances(links);
+
+        edges = new IntArray[nodeTile.size];
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = new IntArray();
+        }
+        for (int i = 0; i < links.size; i += 2) {
+            addEdge(links.get(i), links.get(i + 1), 1);
+            addEdge(links.get(i + 1), links.get(i), 1);
+        }
+        computeDistanceFields(regionSize);
+    }
+
+    /**
+     * Scans both boundary orientations for runs of tiles where region A touches
+     * region B and places one node pair in the middle of each run.
+     */
+    private void findEntrances(IntArray links) {
+        // Vertical boundaries: tile (x, y) | (x + 1, y), runs go along y
+        for (int x = 0; x < width - 1; x++) {
+            int y = 0;
+            while (y < height) {
+                int a = region[y * width + x];
+                int b = region[y * width + x + 1];
+                if (a < 0 || b < 0 || a == b) {
+                    y++;
+                    continue;
+                }
+                int runStart = y;
+                while (y < height && region[y * width + x] == a && region[y * width + x + 1] == b) y++;
+                int mid = (runStart + y - 1) / 2;
+                addLink(links, mid * width + x, mid * width + x + 1);
+            }
+        }
+        // Horizontal boundaries: tile (x, y) / (x, y + 1), runs go along x
+        for (int y = 0; y < height - 1; y++) {
+            int x = 0;
+            while (x < width) {
+                int a = region[y * width + x];
+                int b = region[(y + 1) * width + x];
+                if (a < 0 || b < 0 || a == b) {
+                    x++;
+                    continue;
+                }
+                int runStart = x;
+                while (x < width && region[y * width + x] == a && region[(y + 1) * width + x] == b) x++;
+                int mid = (runStart + x - 1) / 2;
+                addLink(links, y * width + mid, (y + 1) * width + mid);
+            }
+        }
+    }
+
+    private void addLink(IntArray links, int tileA, int tileB) {
+        links.add(addNode(tileA));
+        links.add(addNode(tileB));
+    }
+
+    private int addNode(int tile) {
+        int id = nodeTile.size;
+        nodeTile.add(tile);
+        nodeRegion.add(region[tile]);
+        regionNodes[region[tile]].add(id);
+        return id;
+    }
+
+    private void addEdge(int from, int to, int cost) {
+        edges[from].add(to);
+        edges[from].add(cost);
+    }
+
+    /**
+     * Breadth-first search from every node, restricted to the node's own region.
+     * The result is kept as the node's distance field and also yields the
+     * intra-region edges.
+     */
+    private void computeDistanceFields(int[] regionSize) {
+        int[] dist = new int[width * height];
+        int[] stamp = new int[width * height];
+        int[] queue = new int[width * height];
+        distanceFields = new int[nodeTile.size][];
+
+        for (int node = 0; node < nodeTile.size; node++) {
+            int r = nodeRegion.get(node);
+            int reached = floodRegion(nodeTile.get(node), r, dist, stamp, node + 1, queue);
+
+            int[] field = new int[regionSize[r]];
+            java.util.Arrays.fill(field, -1);
+            for (int i = 0; i < reached; i++) {
+                int tile = queue[i];
+                field[localIndex[tile]] = dist[tile];
+            }
+            distanceFields[node] = field;
+
+            IntArray targets = regionNodes[r];
+            for (int i = 0; i < targets.size; i++) {
+                int other = targets.get(i);
+                int d = field[localIndex[nodeTile.get(other)]];
+                if (other != node && d >= 0) {
+                    addEdge(node, other, d);
+                }
+            }
+        }
+    }
+
+    /**
+     * BFS over the tiles of one region. Reached tiles get {@code stamp == generation}
+     * and their step count in {@code dist}; the first entries of {@code queue} list them.
+     *
+     * @return Number of tiles reached.
+     */
+    private int floodRegion(int startTile, int r, int[] dist, int[] stamp, int generation, int[] queue) {
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = startTile;
+        stamp[startTile] = generation;
+        dist[startTile] = 0;
+
+        while (head < tail) {
+            int tile = queue[head++];
+            int x = tile % width;
+            int y = tile / width;
+            int d = dist[tile] + 1;
+            for (int dir = 0; dir < 4; dir++) {
+                int next;
+                switch (dir) {
+                    case 0: if (y + 1 >= height) continue; next = tile + width; break;
+                    case 1: if (y - 1 < 0) continue; next = tile - width; break;
+                    case 2: if (x + 1 >= width) continue; next = tile + 1; break;
+                    default: if (x - 1 < 0) continue; next = tile - 1; break;
+                }
+                if (region[next] != r || stamp[next] == generation) continue;
+                stamp[next] = generation;
+                dist[next] = d;
+                queue[tail++] = next;
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * @return Region of a tile, or -1 for walls and out-of-bounds tiles.
+     */
+    public int getRegion(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return -1;
+        return region[y * width + x];
+    }
+
+    /**
+     * @return Walking distance from a node to a tile of the same region, or -1.
+     */
+    int distanceFrom(int node, int tile) {
+        if (region[tile] != nodeRegion.get(node)) return -1;
+        return distanceFields[node][localIndex[tile]];
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getRegionCount() { return regionCount; }
+    public int getNodeCount() { return nodeTile.size; }
+
+    int getNodeTile(int node) { return nodeTile.get(node); }
+    int getNodeRegion(int node) { return nodeRegion.get(node); }
+    IntArray getEdges(int node) { return edges[node]; }
+    IntArray getRegionNodes(int r) { return regionNodes[r]; }
+}
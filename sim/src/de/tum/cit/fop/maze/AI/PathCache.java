@@ -0,0 +1,232 @@
+package de.tum.cit.fop.maze.AI;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * LRU cache of tile paths keyed by (start tile, goal tile), bounded by the total
+ * number of path tiles it stores.
+ * <p>
+ * Every entry belongs to one {@link Grid#getVersion() grid version}; as soon as
+ * a lookup sees a newer version the whole cache is dropped, and results from
+ * older snapshots are ignored. Besides exact
+ * hits the cache reuses parts of stored paths: any piece of a shortest path is
+ * itself a shortest path, so if the requested goal lies on a path cached from
+ * the same start (or the requested start lies on a path cached towards the same
+ * end), the matching slice is returned without searching. Results of
+ * "no path" are cached as well.
+ * <p>
+ * Shared by the render thread and the path workers, so all methods are synchronized.
+ */
+public class PathCache {
+
+    private static class Entry {
+        long key;
+        int[] tiles; // Empty = no path
+        Entry prev, next; // LRU list, head = most recently used
+    }
+
+    private final int budget; // Max. number of stored path tiles
+    private int stored;
+    private int version;
+
+    private final LongMap<Entry> entries = new LongMap<>();
+    private final IntMap<Array<Entry>> byFirstTile = new IntMap<>();
+    private final IntMap<Array<Entry>> byLastTile = new IntMap<>();
+    private Entry head, tail;
+
+    // Statistics
+    private int hits;
+    private int partialHits;
+    private int misses;
+
+    /**
+     * @param budget Maximum number of path tiles kept (each costs 4 bytes plus entry overhead).
+     */
+    public PathCache(int budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Looks up a path.
+     *
+     * @param out Receives the tile path (start first) on a hit; empty if the goal is known to be unreachable.
+     * @return True on a hit (exact or partial), false if the caller has to search.
+     */
+    public synchronized boolean lookup(int startTile, int goalTile, int gridVersion, IntArray out) {
+        out.clear();
+        if (!checkVersion(gridVersion)) {
+            misses++;
+            return false;
+        }
+
+        Entry entry = entries.get(key(startTile, goalTile));
+        if (entry != null) {
+            touch(entry);
+            out.addAll(entry.tiles);
+            hits++;
+            return true;
+        }
+
+        // Goal lies on a path from the same start: take the prefix
+        Array<Entry> sameStart = byFirstTile.get(startTile);
+        if (sameStart != null) {
+            for (Entry candidate : sameStart) {
+                int index = indexOf(candidate.tiles, goalTile);
+                if (index >= 0) {
+                    touch(candidate);
+                    out.addAll(candidate.tiles, 0, index + 1);
+                    partialHits++;
+                    return true;
+                }
+            }
+        }
+        // Start lies on a path towards the same end: take the suffix
+        Array<Entry> sameEnd = byLastTile.get(goalTile);
+        if (sameEnd != null) {
+            for (Entry candidate : sameEnd) {
+                int index = indexOf(candidate.tiles, startTile);
+                if (index >= 0) {
+                    touch(candidate);
+                    out.addAll(candidate.tiles, index, candidate.tiles.length - index);
+                    partialHits++;
+                    return true;
+                }
+            }
+        }
+
+        misses++;
+        return false;
+    }
+
+    /**
+     * Stores a search result.
+     *
+     * @param path The tile path, or an empty array if there is no path.
+     */
+    public synchronized void put(int startTile, int goalTile, int gridVersion, IntArray path) {
+        if (!checkVersion(gridVersion)) return;
+        long key = key(startTile, goalTile);
+        if (entries.containsKey(key)) return; // Another thread got there first
+        if (path.size > budget) return;
+
+        Entry entry = new Entry();
+        entry.key = key;
+        entry.tiles = path.toArray();
+        entries.put(key, entry);
+        linkFirst(entry);
+        if (entry.tiles.length > 0) {
+            index(byFirstTile, entry.tiles[0], entry);
+            index(byLastTile, entry.tiles[entry.tiles.length - 1], entry);
+        }
+        stored += entry.tiles.length;
+
+        while (stored > budget || entries.size > budget) {
+            evict(tail);
+        }
+    }
+
+    /**
+     * Drops everything when a newer grid version shows up.
+     *
+     * @return False for an outdated version (a search that ran on an old snapshot).
+     */
+    private boolean checkVersion(int gridVersion) {
+        if (gridVersion < version) return false;
+        if (gridVersion > version) {
+            clear();
+            version = gridVersion;
+        }
+        return true;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        byFirstTile.clear();
+        byLastTile.clear();
+        head = tail = null;
+        stored = 0;
+    }
+
+    private void evict(Entry entry) {
+        entries.remove(entry.key);
+        unlink(entry);
+        if (entry.tiles.length > 0) {
+            unindex(byFirstTile, entry.tiles[0], entry);
+            unindex(byLastTile, entry.tiles[entry.tiles.length - 1], entry);
+        }
+        stored -= entry.tiles.length;
+    }
+
+    private static void index(IntMap<Array<Entry>> map, int tile, Entry entry) {
+        Array<Entry> list = map.get(tile);
+        if (list == null) {
+            list = new Array<>(false, 2);
+            map.put(tile, list);
+        }
+        list.add(entry);
+    }
+
+    private static void unindex(IntMap<Array<Entry>> map, int tile, Entry entry) {
+        Array<Entry> list = map.get(tile);
+        if (list == null) return;
+        list.removeValue(entry, true);
+        if (list.isEmpty()) map.remove(tile);
+    }
+
+    private static int indexOf(int[] tiles, int tile) {
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == tile) return i;
+        }
+        return -1;
+    }
+
+    private static long key(int startTile, int goalTile) {
+        return ((long) startTile << 32) | (goalTile & 0xffffffffL);
+    }
+
+    // --- LRU list ---
+
+    private void touch(Entry entry) {
+        if (entry == head) return;
+        unlink(entry);
+        linkFirst(entry);
+    }
+
+    private void linkFirst(Entry entry) {
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) head.prev = entry;
+        head = entry;
+        if (tail == null) tail = entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) entry.prev.next = entry.next;
+        else head = entry.next;
+        if (entry.next != null) entry.next.prev = entry.prev;
+        else tail = entry.prev;
+        entry.prev = entry.next = null;
+    }
+
+    // --- Statistics ---
+
+    public synchronized int getHits() { return hits; }
+    public synchronized int getPartialHits() { return partialHits; }
+    public synchronized int getMisses() { return misses; }
+    public synchronized int getSize() { return entries.size; }
+
+    /**
+     * @return Share of lookups answered from the cache (exact or partial), 0..1.
+     */
+    public synchronized float getHitRatio() {
+        int total = hits + partialHits + misses;
+        return total == 0 ? 0f : (hits + partialHits) / (float) total;
+    }
+
+    public synchronized void resetStats() {
+        hits = partialHits = misses = 0;
+    }
+}
@@ -4,6 +4,51 @@
 import java.util.*;
 
 public class PathFinder {
+
+    /**
+     * Search used by {@link #findPath}. All modes return optimal 4-directional paths.
+     */
+    public enum Mode {
+        ASTAR,    // Array-backed A*, expands every tile
+        JPS_PLUS  // Jump Point Search over the Grid's precomputed jump distances
+    }
+
+    private static volatile Mode mode = Mode.JPS_PLUS;
+
+    // Plan routes across rooms on the Grid's NavGraph (if it has one) and refine only the first leg
+    private static volatile boolean hierarchical = true;
+    // Shorter queries are cheap enough on the tile grid alone
+    static final int HIERARCHICAL_MIN_DISTANCE = 32;
+
+    public static Mode getMode() {
+        return mode;
+    }
+
+    public static void setMode(Mode mode) {
+        PathFinder.mode = mode;
+    }
+
+    public static boolean isHierarchical() {
+        return hierarchical;
+    }
+
+    public static void setHierarchical(boolean hierarchical) {
+        PathFinder.hierarchical = hierarchical;
+    }
+
+    // Answer repeated queries from the Grid's PathCache
+    private static volatile boolean caching = true;
+
+    public static boolean isCaching() {
+        return caching;
+    }
+
+    public static void setCaching(boolean caching) {
+        PathFinder.caching = caching;
+    }
+
+    // Per-thread query for findPath
+    private static final ThreadLocal<PathQuery> QUERY = ThreadLocal.withInitial(PathQuery::new);
     
     private static class Node implements Comparable<Node> {
         int x, y;
@@ -40,7 +85,31 @@ public int hashCode() {
         }
     }
     
+    /**
+     * Finds a shortest 4-directional path using the allocation-free search selected by {@link #setMode}.
+     * <p>
+     * On floors with a {@link NavGraph} a route into another room is planned on the
+     * graph first and only the leg to the next room entrance is returned; callers
+     * repath regularly and pick up the next leg from there.
+     * <p>
+     * Results are cached per (start tile, goal tile) in the grid's {@link PathCache}.
+     * Runs a {@link PathQuery} in a single slice.
+     *
+     * @return Waypoints in world coordinates (tile centers), or null if there is no path.
+     */
     public static List<Vector2> findPath(Grid grid, Vector2 startWorld, Vector2 endWorld) {
+        PathQuery query = QUERY.get();
+        if (!query.begin(grid, startWorld, endWorld)) {
+            query.resume(Integer.MAX_VALUE);
+        }
+        return query.getPath();
+    }
+
+    /**
+     * Original object-based A* (String keys, HashMap/HashSet, PriorityQueue.remove).
+     * Kept as the reference implementation for benchmarks and result comparison.
+     */
+    public static List<Vector2> findPathClassic(Grid grid, Vector2 startWorld, Vector2 endWorld) {
         int startX = (int)(startWorld.x / 16);
         int startY = (int)(startWorld.y / 16);
         int endX = (int)(endWorld.x / 16);
@@ -0,0 +1,184 @@
+package de.tum.cit.fop.maze.AI;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One path request that can be computed in time slices.
+ * <p>
+ * {@link #begin} does the cheap part (path cache lookup, room graph planning)
+ * and starts the tile search selected by {@link PathFinder#getMode()};
+ * {@link #resume} then continues it with a budget of node expansions until it
+ * finishes. The result is the same as {@link PathFinder#findPath}, which simply
+ * runs a query in one unlimited slice.
+ * <p>
+ * A query owns its search contexts, so a suspended search keeps its state until
+ * the next slice. It can be reused for the next request; it is not thread-safe.
+ * <p>
+ * With {@link #setDeferredCaching} the result only goes into the path cache
+ * when {@link #cacheResult()} is called, so a caller that runs the slices on
+ * other threads can keep the shared cache in a fixed order.
+ */
+public class PathQuery {
+    private final AStarSearch astar = new AStarSearch();
+    private final JumpPointSearch jps = new JumpPointSearch();
+    private final IntArray tiles = new IntArray();
+
+    private Grid grid;
+    private boolean searching; // A tile search was started
+    private boolean jpsActive;
+    private boolean done;
+    private boolean found;
+
+    // Where the result goes into the path cache, null if it is not cached
+    private PathCache cache;
+    private int startTile;
+    private int goalTile;
+    private int version;
+    private boolean deferredCaching;
+
+    /**
+     * Starts a new request, dropping whatever the query did before.
+     *
+     * @return True if the request was already answered (cache hit, unreachable goal).
+     */
+    public boolean begin(Grid grid, Vector2 startWorld, Vector2 endWorld) {
+        int startX = (int)(startWorld.x / 16);
+        int startY = (int)(startWorld.y / 16);
+        int endX = (int)(endWorld.x / 16);
+        int endY = (int)(endWorld.y / 16);
+        int width = grid.getWidth();
+
+        this.grid = grid;
+        searching = false;
+        done = false;
+        found = false;
+        cache = null;
+        tiles.clear();
+        startTile = startY * width + startX;
+        goalTile = endY * width + endX;
+        version = grid.getVersion();
+
+        if (!grid.isWalkable(endX, endY)) { // Target unreachable, whatever the cache holds
+            finish(false);
+            return true;
+        }
+        if (PathFinder.isCaching() && inBounds(startX, startY) && inBounds(endX, endY)) {
+            if (grid.getPathCache().lookup(startTile, goalTile, version, tiles)) {
+                done = true;
+                found = !tiles.isEmpty();
+                return true;
+            }
+            cache = grid.getPathCache();
+        }
+
+        NavGraph graph = grid.getNavGraph();
+        if (PathFinder.isHierarchical() && graph != null
+                && Math.abs(endX - startX) + Math.abs(endY - startY) >= PathFinder.HIERARCHICAL_MIN_DISTANCE) {
+            int waypoint = HierarchicalSearch.get().nextWaypoint(graph, startX, startY, endX, endY);
+            if (waypoint == HierarchicalSearch.UNREACHABLE) {
+                finish(false);
+                return true;
+            }
+            if (waypoint >= 0) {
+                endX = waypoint % width;
+                endY = waypoint / width;
+                if (!grid.isWalkable(endX, endY)) {
+                    finish(false);
+                    return true;
+                }
+            }
+        }
+
+        // Jump distances are only defined on floor tiles, let plain A* step out of a wall
+        jpsActive = PathFinder.getMode() == PathFinder.Mode.JPS_PLUS && grid.isWalkable(startX, startY);
+        searching = true;
+        if (jpsActive) {
+            jps.begin(grid, startX, startY, endX, endY);
+        } else if (astar.begin(grid, startX, startY, endX, endY) == SearchState.NO_PATH) {
+            finish(false);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Continues the search for at most {@code maxExpansions} nodes.
+     *
+     * @return True once the request is finished.
+     */
+    public boolean resume(int maxExpansions) {
+        if (done) return true;
+        int status = jpsActive ? jps.resume(maxExpansions, tiles) : astar.resume(maxExpansions, tiles);
+        if (status != SearchState.RUNNING) {
+            finish(status == SearchState.FOUND);
+        }
+        return done;
+    }
+
+    private void finish(boolean found) {
+        if (!found) tiles.clear();
+        this.found = found;
+        done = true;
+        if (!deferredCaching) cacheResult();
+    }
+
+    /**
+     * @param deferred True to leave the path cache alone until {@link #cacheResult()}.
+     */
+    public void setDeferredCaching(boolean deferred) {
+        this.deferredCaching = deferred;
+    }
+
+    /**
+     * Stores the finished result in the path cache, once. No-op for results that came
+     * from the cache or are not cached.
+     */
+    public void cacheResult() {
+        if (cache == null || !done) return;
+        cache.put(startTile, goalTile, version, tiles);
+        cache = null;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * @return Nodes expanded by the tile search so far (0 if it was answered without one).
+     */
+    public int getExpanded() {
+        if (!searching) return 0;
+        return jpsActive ? jps.getExpanded() : astar.getExpanded();
+    }
+
+    /**
+     * @return Tiles the search arrays are sized for (0 before the first search).
+     */
+    public int getCapacity() {
+        return Math.max(astar.getCapacity(), jps.getCapacity());
+    }
+
+    /**
+     * @return Waypoints in world coordinates (tile centers), or null if there is no path
+     *         (or the query is not finished yet). A new list on every call.
+     */
+    public List<Vector2> getPath() {
+        if (!done || !found) return null;
+        int width = grid.getWidth();
+        List<Vector2> path = new ArrayList<>(tiles.size);
+        for (int i = 0; i < tiles.size; i++) {
+            int tile = tiles.get(i);
+            // Convert back to world coordinates (Center of tile)
+            path.add(new Vector2((tile % width) * 16 + 8, (tile / width) * 16 + 8));
+        }
+        return path;
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && x < grid.getWidth() && y >= 0 && y < grid.getHeight();
+    }
+}
@@ -0,0 +1,384 @@
+package de.tum.cit.fop.maze.AI;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Schedules path searches on a small worker pool within a fixed per-frame budget.
+ * <p>
+ * {@link #request} queues a search and returns a {@link Request} handle.
+ * Every frame {@link #update()} hands the finished results back to their
+ * handles and then gives out time slices: queued searches are ordered by their
+ * distance to the player (on-screen ones first, see {@link #setFocus}) and
+ * dispatched as {@link PathQuery} slices of at most {@link #SLICE_EXPANSIONS}
+ * node expansions until the frame's budget is used up. A search that does not
+ * finish within its slice is suspended and resumed in a later frame, so
+ * distant enemies simply get their paths a little later. A slice is charged
+ * in full when it is handed out; what it did not use is given back to the
+ * next frame's budget once it returns. Results only ever change on the render
+ * thread.
+ * <p>
+ * Delivery does not depend on thread timing: {@link #update()} waits for the
+ * slices handed out in the previous frame (they had a whole frame, so usually
+ * they are long done) and takes them back in the order they were dispatched.
+ * Searches start ({@link PathQuery#begin}) on the render thread and their
+ * results go into the {@link PathCache} when they are delivered, so the cache
+ * also only changes there. A seeded simulation therefore plays out the same
+ * with the service as with synchronous searches.
+ * <p>
+ * Requests for the same (start tile, goal tile) pair that are in flight at the
+ * same time share one search. Each owner (an enemy) has at most one open
+ * request; a new one replaces it, and {@link #cancel(Object)} drops it when the
+ * owner changes state or is removed.
+ * <p>
+ * When the grid changes ({@link Grid#getVersion()}) the next request takes a
+ * fresh snapshot; searches still running on the old one finish normally.
+ * <p>
+ * Every query holds search arrays sized to the whole grid, so on large grids
+ * fewer of them run at once (see {@link #MAX_QUERY_TILES}), and idle queries
+ * are only kept while they fit the current grid.
+ */
+public class PathService implements com.badlogic.gdx.utils.Disposable {
+
+    // Node expansions per slice and (by default) per frame
+    public static final int SLICE_EXPANSIONS = 256;
+    public static final int DEFAULT_FRAME_BUDGET = 4096;
+    // Searches that hold a query (and its search arrays) at the same time
+    private static final int MAX_ACTIVE = 16;
+    private static final int MIN_ACTIVE = 2;
+    // Grid tiles summed over all queries, about 24 bytes each: 48 MB, so 2 queries on a 1000x1000 floor
+    private static final int MAX_QUERY_TILES = 2_000_000;
+    // On-screen requests count as if they were this much closer
+    private static final float ON_SCREEN_FACTOR = 0.25f;
+
+    /**
+     * Handle for one queued search. Only read it on the render thread.
+     */
+    public static class Request {
+        private final Object owner;
+        private Job job;
+        private boolean done;
+        private boolean cancelled;
+        private List<Vector2> path;
+
+        private Request(Object owner) {
+            this.owner = owner;
+        }
+
+        /** @return True once the result has been delivered (it may still be null = no path). */
+        public boolean isDone() { return done; }
+        public boolean isCancelled() { return cancelled; }
+        /** @return The path, or null if there is none. Shared between deduplicated requests, do not modify. */
+        public List<Vector2> getPath() { return path; }
+    }
+
+    private static class Job implements Runnable {
+        final long key;
+        final Grid grid;
+        final Vector2 start;
+        final Vector2 goal;
+        final Array<Request> requests = new Array<>(false, 2);
+        volatile boolean cancelled;
+
+        // Owned by the render thread while queued, by one worker while running
+        PathQuery query;
+        boolean started;
+        Future<?> running;
+        int slice;
+        int expanded; // Expansions of the last slice
+        float priority; // Lower runs first
+        int waited; // Frames spent in the queue without a slice
+        List<Vector2> result;
+
+        Job(long key, Grid grid, Vector2 start, Vector2 goal) {
+            this.key = key;
+            this.grid = grid;
+            this.start = start;
+            this.goal = goal;
+        }
+
+        @Override
+        public void run() {
+            expanded = 0;
+            if (cancelled) return;
+            int before = query.getExpanded();
+            if (query.resume(slice)) {
+                result = query.getPath();
+            }
+            expanded = query.getExpanded() - before;
+        }
+    }
+
+    private static final Comparator<Job> BY_PRIORITY = (a, b) -> Float.compare(a.priority, b.priority);
+
+    private final ExecutorService workers;
+    private final Array<Job> running = new Array<>(); // Slices of the last dispatch, in dispatch order
+
+    // Render-thread bookkeeping
+    private final LongMap<Job> inFlight = new LongMap<>();
+    private final ObjectMap<Object, Request> openByOwner = new ObjectMap<>();
+    private final Array<Job> queued = new Array<>(); // New and suspended searches
+    private final Array<PathQuery> freeQueries = new Array<>();
+    private int activeQueries;
+    private int maxActive = MAX_ACTIVE;
+    private int gridTiles;
+    private Grid source;
+    private Grid snapshot;
+
+    // Scheduling
+    private int frameBudget = DEFAULT_FRAME_BUDGET;
+    private final Vector2 focus = new Vector2();
+    private final Rectangle view = new Rectangle();
+
+    // Statistics (F3)
+    private int submitted;
+    private int deduplicated;
+    private int cancelledCount;
+    private int resumed;
+    private int frameExpansions;
+
+    public PathService() {
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger counter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "path-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Switches to a new level. All open requests are cancelled, and idle queries
+     * are dropped if the level has a different size.
+     */
+    public void setGrid(Grid grid) {
+        cancelAll();
+        source = grid;
+        snapshot = grid.snapshot();
+        int tiles = grid.getWidth() * grid.getHeight();
+        if (tiles != gridTiles) {
+            gridTiles = tiles;
+            freeQueries.clear(); // Sized for the old grid
+            maxActive = MathUtils.clamp(MAX_QUERY_TILES / tiles, MIN_ACTIVE, MAX_ACTIVE);
+        }
+    }
+
+    /**
+     * Sets what the scheduler prioritizes: requests starting close to the player
+     * go first, and requests starting inside the visible area count as closer still.
+     */
+    public void setFocus(float playerX, float playerY, Rectangle visibleArea) {
+        focus.set(playerX, playerY);
+        view.set(visibleArea);
+    }
+
+    /**
+     * @param expansions Node expansions handed out per frame.
+     */
+    public void setFrameBudget(int expansions) {
+        this.frameBudget = expansions;
+    }
+
+    public int getFrameBudget() {
+        return frameBudget;
+    }
+
+    /**
+     * Queues a path search for an owner, replacing its previous open request.
+     */
+    public Request request(Object owner, Vector2 startWorld, Vector2 endWorld) {
+        cancel(owner);
+        if (snapshot.getVersion() != source.getVersion()) {
+            snapshot = source.snapshot();
+        }
+
+        Request request = new Request(owner);
+        int startTile = (int) (startWorld.y / 16) * snapshot.getWidth() + (int) (startWorld.x / 16);
+        int goalTile = (int) (endWorld.y / 16) * snapshot.getWidth() + (int) (endWorld.x / 16);
+        long key = ((long) startTile << 32) | (goalTile & 0xffffffffL);
+
+        Job job = inFlight.get(key);
+        if (job != null && !job.cancelled) {
+            deduplicated++;
+        } else {
+            job = new Job(key, snapshot, new Vector2(startWorld), new Vector2(endWorld));
+            inFlight.put(key, job);
+            queued.add(job);
+            submitted++;
+        }
+        job.requests.add(request);
+        request.job = job;
+        openByOwner.put(owner, request);
+        return request;
+    }
+
+    /**
+     * Drops the open request of an owner (state change, removal). No-op if there is none.
+     */
+    public void cancel(Object owner) {
+        Request request = openByOwner.remove(owner);
+        if (request == null) return;
+        request.cancelled = true;
+        cancelledCount++;
+
+        Job job = request.job;
+        job.requests.removeValue(request, true);
+        if (job.requests.isEmpty()) {
+            job.cancelled = true; // A worker skips it if its slice has not started yet
+            if (inFlight.get(job.key) == job) inFlight.remove(job.key);
+            if (queued.removeValue(job, true)) release(job); // Not on a worker, free it now
+        }
+    }
+
+    private void cancelAll() {
+        Array<Object> owners = new Array<>();
+        for (Object owner : openByOwner.keys()) owners.add(owner);
+        for (Object owner : owners) cancel(owner);
+    }
+
+    /**
+     * Delivers finished searches and dispatches this frame's slices.
+     * Call once per frame on the render thread, before the enemies update.
+     * Waits for the slices of the previous call if they are still running.
+     */
+    public void update() {
+        frameExpansions = 0;
+        int unused = 0;
+        for (Job job : running) {
+            if (!await(job)) {
+                abandon(job);
+                continue;
+            }
+            frameExpansions += job.expanded;
+            if (job.cancelled) {
+                // Whether the worker still ran it is up to timing, so it refunds nothing
+                release(job);
+                continue;
+            }
+            unused += job.slice - job.expanded;
+            if (!job.query.isDone()) {
+                queued.add(job); // Suspended, continue with the next slice
+                resumed++;
+                continue;
+            }
+            job.query.cacheResult();
+            deliver(job, job.result);
+            release(job);
+        }
+        running.clear();
+        // Slices that finished early only cost what they expanded
+        dispatch(frameBudget + Math.min(unused, frameBudget));
+    }
+
+    private void dispatch(int budget) {
+        if (queued.isEmpty()) return;
+        for (Job job : queued) {
+            float distance = focus.dst(job.start);
+            if (view.contains(job.start)) distance *= ON_SCREEN_FACTOR;
+            job.priority = distance / (1 + job.waited); // Aging, so far requests are not starved
+        }
+        queued.sort(BY_PRIORITY);
+
+        int i = 0;
+        while (i < queued.size && budget > 0) {
+            Job job = queued.get(i);
+            if (job.query == null) {
+                if (activeQueries >= maxActive) {
+                    i++;
+                    continue; // Wait until a running search finishes
+                }
+                job.query = freeQueries.isEmpty() ? newQuery() : freeQueries.pop();
+                activeQueries++;
+            }
+            if (!job.started) {
+                job.started = true;
+                job.query.begin(job.grid, job.start, job.goal); // Cache lookup on this thread
+            }
+            job.slice = Math.min(SLICE_EXPANSIONS, budget);
+            budget -= job.slice;
+            job.waited = 0;
+            queued.removeIndex(i);
+            running.add(job);
+            job.running = workers.submit(job);
+        }
+        for (Job job : queued) job.waited++;
+    }
+
+    private static PathQuery newQuery() {
+        PathQuery query = new PathQuery();
+        query.setDeferredCaching(true); // Cached on delivery, see update()
+        return query;
+    }
+
+    private void deliver(Job job, List<Vector2> path) {
+        if (inFlight.get(job.key) == job) inFlight.remove(job.key);
+        for (Request request : job.requests) {
+            request.path = path;
+            request.done = true;
+            if (openByOwner.get(request.owner) == request) openByOwner.remove(request.owner);
+        }
+        job.requests.clear();
+    }
+
+    /**
+     * @return False if the slice failed or the render thread was interrupted while waiting.
+     */
+    private static boolean await(Job job) {
+        try {
+            job.running.get();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    // A slice that did not come back normally: its owners get no path, its query is not reused
+    private void abandon(Job job) {
+        if (!job.cancelled) deliver(job, null);
+        job.query = null;
+        activeQueries--;
+    }
+
+    private void release(Job job) {
+        PathQuery query = job.query;
+        if (query == null) return;
+        job.query = null;
+        activeQueries--;
+        // Keep no more than can run at once, and nothing still sized for a larger old grid
+        if (query.getCapacity() <= gridTiles && activeQueries + freeQueries.size < maxActive) {
+            freeQueries.add(query);
+        }
+    }
+
+    public int getSubmitted() { return submitted; }
+    public int getDeduplicated() { return deduplicated; }
+    public int getCancelled() { return cancelledCount; }
+    public int getInFlight() { return inFlight.size; }
+    /** @return Searches waiting for their first or next slice. */
+    public int getQueued() { return queued.size; }
+    /** @return How often a search was suspended and continued later. */
+    public int getResumed() { return resumed; }
+    /** @return Node expansions of the slices that came back this frame. */
+    public int getFrameExpansions() { return frameExpansions; }
+
+    @Override
+    public void dispose() {
+        cancelAll();
+        workers.shutdownNow();
+    }
+}
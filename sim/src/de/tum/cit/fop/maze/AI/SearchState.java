@@ -0,0 +1,153 @@
+package de.tum.cit.fop.maze.AI;
+
+/**
+ * Per-node bookkeeping shared by the grid searches: g/f cost, parent and an
+ * indexed binary min-heap over flat tile indices (y * width + x).
+ * <p>
+ * Entries are only valid while {@code visited[i] == generation}; {@link #prepare(int)}
+ * starts a new search by bumping the generation instead of clearing the arrays.
+ */
+class SearchState {
+    static final int CLOSED = -1;
+
+    // Result of a time-sliced search step
+    static final int RUNNING = 0;
+    static final int FOUND = 1;
+    static final int NO_PATH = 2;
+
+    int[] visited = new int[0];
+    int[] gCost = new int[0];
+    int[] fCost = new int[0];
+    int[] parent = new int[0];
+    int[] heapIndex = new int[0]; // Position in the heap, or CLOSED
+
+    // Indexed binary min-heap of node indices
+    private int[] heap = new int[0];
+    int heapSize;
+
+    int generation;
+    int expanded; // Nodes expanded by the current search
+
+    /**
+     * @return Tiles the arrays are currently sized for.
+     */
+    int capacity() {
+        return visited.length;
+    }
+
+    void prepare(int size) {
+        if (visited.length < size) {
+            visited = new int[size];
+            gCost = new int[size];
+            fCost = new int[size];
+            parent = new int[size];
+            heapIndex = new int[size];
+            heap = new int[size];
+            generation = 0;
+        }
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // Stamps would wrap around, start over with clean arrays
+            java.util.Arrays.fill(visited, 0);
+            generation = 1;
+        }
+        heapSize = 0;
+        expanded = 0;
+    }
+
+    /**
+     * Opens a node or lowers its cost. Closed nodes and worse costs are ignored.
+     */
+    void relax(int node, int parentNode, int g, int h) {
+        if (visited[node] != generation) {
+            visited[node] = generation;
+            gCost[node] = g;
+            fCost[node] = g + h;
+            parent[node] = parentNode;
+            push(node);
+        } else if (heapIndex[node] != CLOSED && g < gCost[node]) {
+            // Decrease-key: the heuristic part of f stays the same
+            fCost[node] -= gCost[node] - g;
+            gCost[node] = g;
+            parent[node] = parentNode;
+            siftUp(heapIndex[node]);
+        }
+    }
+
+    /**
+     * Removes the best open node and marks it closed.
+     */
+    int poll() {
+        int top = heap[0];
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            siftDown(0);
+        }
+        heapIndex[top] = CLOSED;
+        expanded++;
+        return top;
+    }
+
+    /**
+     * @return The node at a heap position (0 .. heapSize - 1).
+     */
+    int heapNode(int pos) {
+        return heap[pos];
+    }
+
+    /**
+     * Restores the heap order after the f costs of queued nodes were changed directly.
+     */
+    void heapify() {
+        for (int pos = (heapSize >> 1) - 1; pos >= 0; pos--) {
+            siftDown(pos);
+        }
+    }
+
+    /**
+     * Orders by f, and on equal f prefers the node with the larger g (closer to the goal).
+     */
+    private boolean less(int a, int b) {
+        if (fCost[a] != fCost[b]) return fCost[a] < fCost[b];
+        return gCost[a] > gCost[b];
+    }
+
+    private void push(int node) {
+        heap[heapSize] = node;
+        heapIndex[node] = heapSize;
+        heapSize++;
+        siftUp(heapSize - 1);
+    }
+
+    private void siftUp(int pos) {
+        int node = heap[pos];
+        while (pos > 0) {
+            int parentPos = (pos - 1) >> 1;
+            int other = heap[parentPos];
+            if (!less(node, other)) break;
+            heap[pos] = other;
+            heapIndex[other] = pos;
+            pos = parentPos;
+        }
+        heap[pos] = node;
+        heapIndex[node] = pos;
+    }
+
+    private void siftDown(int pos) {
+        int node = heap[pos];
+        int half = heapSize >> 1;
+        while (pos < half) {
+            int child = (pos << 1) + 1;
+            int right = child + 1;
+            if (right < heapSize && less(heap[right], heap[child])) child = right;
+            if (!less(heap[child], node)) break;
+            heap[pos] = heap[child];
+            heapIndex[heap[pos]] = pos;
+            pos = child;
+        }
+        heap[pos] = node;
+        heapIndex[node] = pos;
+    }
+}
@@ -0,0 +1,33 @@
+package de.tum.cit.fop.maze.GameControl;
+
+/**
+ * Score of a finished level.
+ */
+public final class Scoring {
+    private static final int BASE_SCORE_PER_LEVEL = 1000; // 每关基础分
+    private static final int PENALTY_PER_SECOND = 10;     // 每秒扣除的分数
+    private static final int SCORE_PER_LIFE = 500;
+
+    private Scoring() {
+    }
+
+    /**
+     * @param seconds    Time spent on the level.
+     * @param lives      Lives left.
+     * @param difficulty Floor number in endless mode (multiplies the base score), ignored otherwise.
+     * @param endless    True for endless mode.
+     */
+    public static int levelScore(float seconds, int lives, int difficulty, boolean endless) {
+        int timePenalty = (int) (seconds * PENALTY_PER_SECOND);
+        int totalScore = BASE_SCORE_PER_LEVEL - timePenalty;
+
+        // 如果是无尽模式，可以在这里加上难度系数乘数
+        if (endless) {
+            totalScore *= difficulty;
+        }
+
+        totalScore += lives * SCORE_PER_LIFE;
+
+        return Math.max(0, totalScore);
+    }
+}
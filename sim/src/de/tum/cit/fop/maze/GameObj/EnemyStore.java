@@ -0,0 +1,1485 @@
+package de.tum.cit.fop.maze.GameObj;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.AI.FieldOfView;
+import de.tum.cit.fop.maze.AI.FlowField;
+import de.tum.cit.fop.maze.AI.Grid;
+import de.tum.cit.fop.maze.AI.MovingTargetSearch;
+import de.tum.cit.fop.maze.AI.PathFinder;
+import de.tum.cit.fop.maze.AI.PathService;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Simulation state of all enemies of a level, stored as parallel arrays.
+ * <p>
+ * Enemy i is described by the i-th entry of every array (position, velocity,
+ * state, timers, path cursor, health), and {@link #update(float)} runs the AI,
+ * physics and collision of all of them in one loop over these arrays. The
+ * {@link View} objects handed to {@link #add} (the game's sprites) only read
+ * their entry by index and keep no simulation state of their own; the store
+ * itself needs no graphics and runs headless.
+ * <p>
+ * An update has two phases. The think phase (AI, physics, collision) only
+ * writes the entry of the enemy it works on and reads shared data that does
+ * not change meanwhile (grid, flow field, player view, player position), so it
+ * runs on a fork-join pool in batches of {@link #THINK_BATCH} enemies. Anything
+ * with effects outside the entry (hitting the player, shield damage, path
+ * requests, removals) is recorded as an action and applied by the commit phase
+ * on the calling thread in index order. Each enemy has its own random
+ * generator, seeded from the store's seed in the order enemies are added, so
+ * the result does not depend on how the batches were scheduled. A
+ * {@link PathService} delivers its results in a fixed frame and order too, so
+ * asynchronous searches keep the simulation reproducible as well.
+ * <p>
+ * Enemies are simulated at a level of detail that depends on where they are:
+ * on screen or within {@link #NEAR_RADIUS} of the player they tick every
+ * frame, further out every {@link #MID_INTERVAL}th frame with the accumulated
+ * delta, and beyond {@link #SLEEP_RADIUS} they fall asleep. Sleeping enemies
+ * are kept behind the awake ones and are not looked at at all; they sit in a
+ * coarse spatial hash and are woken when the player comes within
+ * {@link #WAKE_RADIUS} or they appear on screen. The cost of an update
+ * therefore depends on the enemies around the player, not on the floor size.
+ * <p>
+ * Enemies with nothing to do rest the same way: a patrolling enemy waiting for
+ * its next walk, a confused one standing still, a ghost at rest. Instead of
+ * measuring the distance to the player every frame they are registered in a
+ * tile-sized spatial hash; when the player enters another tile, only the
+ * resting enemies whose detection radius covers it are woken (and then see
+ * the player as usual). Their own timers wake them through a queue ordered by
+ * wake-up time, and the time spent resting is caught up on waking.
+ * <p>
+ * Removed, sleeping and woken enemies are swapped with other entries, so
+ * indices are not stable across {@link #update(float)} calls; the views are
+ * kept up to date.
+ */
+public class EnemyStore<V extends EnemyStore.View> {
+
+    /**
+     * The player as far as enemies are concerned.
+     */
+    public interface Target {
+        Rectangle getBounds();
+
+        boolean isShielded();
+
+        /** Takes one hit (the player decides what it costs). */
+        void takeDamage();
+    }
+
+    /**
+     * Stands for one entry outside the store, e.g. the sprite that draws it.
+     */
+    public interface View {
+        /** Called whenever the entry moves to another index. */
+        void attach(EnemyStore<?> store, int index);
+
+        /** Called once the entry was removed (killed). */
+        void detach();
+
+        int getIndex();
+    }
+
+    /**
+     * Entry of a resting enemy in the wake-up queue, one per enemy and reused.
+     */
+    private static final class Wakeup extends com.badlogic.gdx.utils.BinaryHeap.Node {
+        final View view;
+        boolean queued;
+
+        Wakeup(View view) {
+            super(0);
+            this.view = view;
+        }
+    }
+
+    // States
+    public static final byte PATROL = 0;
+    public static final byte CHASE = 1;
+    public static final byte RETREAT = 2;
+    public static final byte CONFUSED = 3;
+
+    // Kinds
+    public static final byte KIND_ENEMY = 0;
+    public static final byte KIND_GHOST = 1;
+
+    // Damage taken by enemies
+    private static final float FLASH_DURATION = 0.15f;
+    private static final float DAMAGE_COOLDOWN_DURATION = 1.0f; // 1 second invulnerability
+
+    // What the path of an enemy came from
+    private static final byte PATH_NONE = 0;
+    private static final byte PATH_SEARCH = 1;
+    private static final byte PATH_FLOW = 2; // One step of the flow field (-1 = the player itself)
+    private static final byte PATH_PLAN = 3; // Incremental chase plan
+
+    private static final float SPEED = 20f;
+    private static final float PATH_UPDATE_INTERVAL = 0.5f;
+    private static final float DETECTION_RANGE = 64f; // 4 Tiles (16 * 4)
+    private static final int CHASE_PLAN_BUDGET = 2048; // Expansions per frame, the plan continues next frame
+    private static final float SLIDE_THRESHOLD = 8.0f;
+
+    // Enemies per think task
+    public static final int THINK_BATCH = 256;
+
+    // Level of detail (pixels from the player's center)
+    public static final float NEAR_RADIUS = 320f; // 20 tiles, beyond sight and chase range
+    public static final int MID_INTERVAL = 4; // Frames between ticks of mid-range enemies, a power of two
+    public static final float WAKE_RADIUS = 640f; // 40 tiles
+    public static final float SLEEP_RADIUS = 768f; // 48 tiles, larger than WAKE_RADIUS so enemies do not flicker
+    private static final float SLEEP_CELL_SIZE = 256f;
+    static final byte TIER_NEAR = 0;
+    static final byte TIER_MID = 1;
+    static final byte TIER_ASLEEP = 2;
+    static final byte TIER_RESTING = 3;
+    private static final float GHOST_WAKE_RANGE = 80f; // 5 tiles
+    // The player moves up to a tile diagonal without changing tiles, so resting enemies keep this much extra distance
+    private static final float PERCEPTION_MARGIN = 24f;
+
+    // Actions recorded by the think phase for the commit phase
+    private static final byte ACTION_HIT = 1; // Touched the player
+    private static final byte ACTION_CANCEL = 2; // Drop the open path request
+    private static final byte ACTION_REQUEST = 4; // Search a path to (goalX, goalY)
+    private static final byte ACTION_PATROL = 8; // Pick a patrol point and search a path to it
+
+    private final Grid grid;
+    private final Target target;
+    private Runnable hitListener;
+
+    // Shared by all enemies
+    private FlowField flowField;
+    private PathService pathService; // null = search synchronously
+    private FieldOfView playerView;
+    private FieldOfView patrolView;
+    private ForkJoinPool pool = ForkJoinPool.commonPool(); // null = think on the calling thread
+
+    // Hot state, one entry per enemy; awake enemies first
+    private int size;
+    private int awake;
+    float[] x; // Sprite position (bottom left), the 8x8 hitbox is at x + 4, y + 4
+    float[] y;
+    private float[] lastX; // Position before the last update, for drawing between updates
+    private float[] lastY;
+    float[] vx;
+    float[] vy;
+    byte[] kind;
+    byte[] state;
+    float[] stateTime;
+    private float[] pathTimer;
+    private float[] waitTimer;
+    private float[] confusedTimer;
+    float[] flashTime;
+    private float[] cooldownTime;
+    int[] health;
+    IntArray[] path; // Flat tile indices, followed from pathIndex on
+    private int[] pathIndex;
+    private byte[] pathSource;
+    private float[] inputX; // Where the AI wants to go this frame (normalized)
+    private float[] inputY;
+    private long[] random; // Generator state, see nextRandom
+    private byte[] actions;
+    private float[] goalX; // Target of ACTION_REQUEST
+    private float[] goalY;
+    private byte[] tier;
+    private byte[] phase; // Frame offset of mid-range ticks, spreads them over the interval
+    private float[] skipped; // Delta accumulated while not ticking
+    private float[] restingSince; // Store time the enemy started resting
+
+    // Colder per-enemy data, only touched by enemies that search
+    private PathService.Request[] pending;
+    private MovingTargetSearch[] planner; // Only while chasing, see releasePlanner
+    private IntArray[] planTiles;
+    private int[] chaseFrom; // Tiles of the last plan
+    private int[] chaseTo;
+    private V[] views;
+    private Wakeup[] wakeup; // Created the first time an enemy rests
+
+    private final Array<V> removed = new Array<>();
+    private final de.tum.cit.fop.maze.World.SpatialHash<V> sleepers =
+        new de.tum.cit.fop.maze.World.SpatialHash<>(SLEEP_CELL_SIZE);
+    private final Array<V> nearSleepers = new Array<>();
+    private final Rectangle wakeArea = new Rectangle();
+    private float alpha = 1f;
+    private int frame;
+    private int added;
+
+    // Resting enemies, by tile and by the time their own timer wakes them
+    private final de.tum.cit.fop.maze.World.SpatialHash<V> resting =
+        new de.tum.cit.fop.maze.World.SpatialHash<>(16);
+    private final com.badlogic.gdx.utils.BinaryHeap<Wakeup> wakeups = new com.badlogic.gdx.utils.BinaryHeap<>();
+    private float time;
+    private int playerTile = -1;
+    private int perceptionWakes;
+    private final com.badlogic.gdx.math.RandomXS128 seeds; // Seeds the generator of every added enemy
+
+    // Player hitbox as of the start of the update, read by the think phase
+    private float targetX, targetY; // Center
+    private float targetLeft, targetBottom, targetRight, targetTop;
+    // Part of the world on screen, those enemies are always simulated in full
+    private final Rectangle visibleArea = new Rectangle();
+
+    // Commit phase scratch
+    private final Vector2 from = new Vector2();
+    private final Vector2 to = new Vector2();
+
+    /**
+     * @param seed Seeds the per-enemy random generators; the same seed and the same
+     *             sequence of calls give the same simulation, with or without a
+     *             think pool or {@link PathService}.
+     */
+    public EnemyStore(Grid grid, Target target, int capacity, long seed) {
+        this.grid = grid;
+        this.target = target;
+        this.seeds = new com.badlogic.gdx.math.RandomXS128(seed);
+        allocate(Math.max(capacity, 16));
+    }
+
+    /**
+     * Sets the part of the world on screen. Enemies in it tick every frame and do not sleep.
+     */
+    public void setVisibleArea(Rectangle area) {
+        visibleArea.set(area);
+    }
+
+    /**
+     * Sets how far the time being drawn is between the last two updates (0 .. 1).
+     */
+    public void setInterpolation(float alpha) {
+        this.alpha = alpha;
+    }
+
+    /**
+     * @param pool Pool for the think phase, or null to run it on the calling thread.
+     *             The result is the same either way.
+     */
+    public void setThinkPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @param listener Called on the updating thread whenever an enemy hits the player (e.g. to play a sound).
+     */
+    public void setHitListener(Runnable listener) {
+        this.hitListener = listener;
+    }
+
+    public void setFlowField(FlowField flowField) {
+        this.flowField = flowField;
+    }
+
+    public void setPathService(PathService pathService) {
+        this.pathService = pathService;
+    }
+
+    /**
+     * @param playerView Tiles visible from the player, kept up to date by the screen.
+     * @param patrolView Scratch view shared by all enemies for picking patrol points.
+     */
+    public void setFieldOfView(FieldOfView playerView, FieldOfView patrolView) {
+        this.playerView = playerView;
+        this.patrolView = patrolView;
+    }
+
+    /**
+     * Takes over the simulation of an enemy. It starts awake; the next update decides its level of detail.
+     *
+     * @param kind {@link #KIND_ENEMY} or {@link #KIND_GHOST}.
+     * @param x    Sprite position (bottom left).
+     */
+    public void add(V view, byte kind, float x, float y, int health) {
+        if (size == this.x.length) allocate(size * 2);
+        int i = size++;
+        this.x[i] = x;
+        this.y[i] = y;
+        lastX[i] = x;
+        lastY[i] = y;
+        vx[i] = 0;
+        vy[i] = 0;
+        this.kind[i] = kind;
+        state[i] = PATROL;
+        stateTime[i] = 0;
+        pathTimer[i] = 0;
+        waitTimer[i] = 0;
+        confusedTimer[i] = 0;
+        flashTime[i] = 0;
+        cooldownTime[i] = 0;
+        this.health[i] = health;
+        if (path[i] == null) path[i] = new IntArray(false, 16);
+        path[i].clear();
+        pathIndex[i] = 0;
+        pathSource[i] = PATH_NONE;
+        chaseFrom[i] = -1;
+        chaseTo[i] = -1;
+        inputX[i] = 0;
+        inputY[i] = 0;
+        random[i] = seeds.nextLong() | 1; // xorshift state must not be 0
+        actions[i] = 0;
+        tier[i] = TIER_NEAR;
+        phase[i] = (byte) (added++ & (MID_INTERVAL - 1));
+        skipped[i] = 0;
+        views[i] = view;
+        wakeup[i] = null;
+        view.attach(this, i);
+        swap(i, awake++);
+    }
+
+    private void allocate(int capacity) {
+        x = copy(x, capacity);
+        y = copy(y, capacity);
+        lastX = copy(lastX, capacity);
+        lastY = copy(lastY, capacity);
+        vx = copy(vx, capacity);
+        vy = copy(vy, capacity);
+        kind = copy(kind, capacity);
+        state = copy(state, capacity);
+        stateTime = copy(stateTime, capacity);
+        pathTimer = copy(pathTimer, capacity);
+        waitTimer = copy(waitTimer, capacity);
+        confusedTimer = copy(confusedTimer, capacity);
+        flashTime = copy(flashTime, capacity);
+        cooldownTime = copy(cooldownTime, capacity);
+        health = copy(health, capacity);
+        pathIndex = copy(pathIndex, capacity);
+        pathSource = copy(pathSource, capacity);
+        chaseFrom = copy(chaseFrom, capacity);
+        chaseTo = copy(chaseTo, capacity);
+        inputX = copy(inputX, capacity);
+        inputY = copy(inputY, capacity);
+        random = random == null ? new long[capacity] : java.util.Arrays.copyOf(random, capacity);
+        actions = copy(actions, capacity);
+        goalX = copy(goalX, capacity);
+        goalY = copy(goalY, capacity);
+        tier = copy(tier, capacity);
+        phase = copy(phase, capacity);
+        skipped = copy(skipped, capacity);
+        restingSince = copy(restingSince, capacity);
+        path = copy(path, new IntArray[capacity]);
+        pending = copy(pending, new PathService.Request[capacity]);
+        planner = copy(planner, new MovingTargetSearch[capacity]);
+        planTiles = copy(planTiles, new IntArray[capacity]);
+        views = copy(views, newViews(capacity));
+        wakeup = copy(wakeup, new Wakeup[capacity]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V[] newViews(int capacity) {
+        return (V[]) new View[capacity];
+    }
+
+    private static float[] copy(float[] array, int capacity) {
+        return array == null ? new float[capacity] : java.util.Arrays.copyOf(array, capacity);
+    }
+
+    private static int[] copy(int[] array, int capacity) {
+        return array == null ? new int[capacity] : java.util.Arrays.copyOf(array, capacity);
+    }
+
+    private static byte[] copy(byte[] array, int capacity) {
+        return array == null ? new byte[capacity] : java.util.Arrays.copyOf(array, capacity);
+    }
+
+    private static <T> T[] copy(T[] array, T[] into) {
+        if (array != null) System.arraycopy(array, 0, into, 0, array.length);
+        return into;
+    }
+
+    /**
+     * Runs one frame for every enemy. Enemies that died are removed afterwards
+     * and can be picked up with {@link #getRemoved()}.
+     */
+    public void update(float delta) {
+        removed.clear();
+        Rectangle targetBounds = target.getBounds();
+        targetX = targetBounds.x + targetBounds.width / 2;
+        targetY = targetBounds.y + targetBounds.height / 2;
+        targetLeft = targetBounds.x;
+        targetBottom = targetBounds.y;
+        targetRight = targetBounds.x + targetBounds.width;
+        targetTop = targetBounds.y + targetBounds.height;
+        frame++;
+        System.arraycopy(x, 0, lastX, 0, awake);
+        System.arraycopy(y, 0, lastY, 0, awake);
+
+        wakeSleepers();
+        wakeResting(delta);
+        if (pool != null && awake > THINK_BATCH) {
+            pool.invoke(new ThinkTask(0, awake, delta));
+        } else {
+            think(0, awake, delta);
+        }
+        time += delta;
+        commit();
+    }
+
+    /**
+     * Moves every enemy by whole tiles after the grid was shifted the same way
+     * ({@link Grid#shift}, the infinite mode's moving window). Enemies keep their
+     * state and paths; searches that were still running are dropped and asked
+     * for again, and chase plans start over. Enemies that end up outside the grid
+     * are removed and can be picked up with {@link #getRemoved()}.
+     */
+    public void shift(int dx, int dy) {
+        removed.clear();
+        float offsetX = dx * 16f;
+        float offsetY = dy * 16f;
+        float right = grid.getWidth() * 16f;
+        float top = grid.getHeight() * 16f;
+        Array<V> outside = nearSleepers; // Scratch, not in use between updates
+        outside.clear();
+        for (int i = 0; i < size; i++) {
+            x[i] += offsetX;
+            y[i] += offsetY;
+            lastX[i] += offsetX;
+            lastY[i] += offsetY;
+            goalX[i] += offsetX;
+            goalY[i] += offsetY;
+            if (x[i] < 0 || y[i] < 0 || x[i] >= right || y[i] >= top) {
+                outside.add(views[i]);
+                continue;
+            }
+
+            shiftPath(i, dx, dy);
+            if (pending[i] != null) {
+                // Searched on the old tiles
+                pathService.cancel(views[i]);
+                pending[i] = null;
+                pathTimer[i] = PATH_UPDATE_INTERVAL;
+            }
+            releasePlanner(i); // Its search tree is indexed by the old tiles
+            if (i >= awake) {
+                if (tier[i] == TIER_RESTING) {
+                    resting.update(views[i], x[i] + 8, y[i] + 8);
+                } else {
+                    sleepers.update(views[i], x[i], y[i]);
+                }
+            }
+        }
+        for (V view : outside) {
+            remove(view.getIndex());
+        }
+        outside.clear();
+        playerTile = -1;
+    }
+
+    // Moves the tiles of a path; it ends where it would leave the grid
+    private void shiftPath(int i, int dx, int dy) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        IntArray nodes = path[i];
+        for (int k = 0; k < nodes.size; k++) {
+            int node = nodes.get(k);
+            if (node < 0) continue; // The player itself
+            int tx = node % width + dx;
+            int ty = node / width + dy;
+            if (tx < 0 || ty < 0 || tx >= width || ty >= height) {
+                nodes.truncate(k);
+                break;
+            }
+            nodes.set(k, ty * width + tx);
+        }
+    }
+
+    /**
+     * Wakes the sleeping enemies near the player and on screen. Only looks at the hash cells there.
+     */
+    private void wakeSleepers() {
+        if (sleepers.size() == 0) return;
+        nearSleepers.clear();
+        wakeArea.set(targetX - WAKE_RADIUS, targetY - WAKE_RADIUS, WAKE_RADIUS * 2, WAKE_RADIUS * 2);
+        sleepers.query(wakeArea, nearSleepers);
+        sleepers.query(visibleArea, nearSleepers);
+        for (V enemy : nearSleepers) {
+            int i = enemy.getIndex();
+            if (i < awake) continue; // Found twice
+            float centerX = x[i] + 8;
+            float centerY = y[i] + 8;
+            if (Vector2.dst2(centerX, centerY, targetX, targetY) < WAKE_RADIUS * WAKE_RADIUS
+                    || visibleArea.contains(centerX, centerY)) {
+                wake(i);
+            }
+        }
+    }
+
+    /**
+     * Wakes resting enemies whose timer ran out, and, if the player entered another
+     * tile, the ones that could notice the player from where they stand.
+     */
+    private void wakeResting(float delta) {
+        // Due within this frame: the think phase then runs the timer out as if it had ticked all along
+        while (wakeups.size > 0 && wakeups.peek().getValue() <= time + delta) {
+            wake(wakeups.peek().view.getIndex()); // Takes it off the queue
+        }
+
+        int tile = (int) (targetY / 16) * grid.getWidth() + (int) (targetX / 16);
+        if (tile == playerTile) return;
+        playerTile = tile;
+        if (resting.size() == 0) return;
+
+        nearSleepers.clear();
+        float reach = GHOST_WAKE_RANGE + PERCEPTION_MARGIN;
+        wakeArea.set(targetX - reach, targetY - reach, reach * 2, reach * 2);
+        resting.query(wakeArea, nearSleepers);
+        for (V enemy : nearSleepers) {
+            int i = enemy.getIndex();
+            float range = perceptionRange(i);
+            if (Vector2.dst2(x[i] + 8, y[i] + 8, targetX, targetY) < range * range) {
+                wake(i);
+                perceptionWakes++;
+            }
+        }
+    }
+
+    private void wake(int i) {
+        if (tier[i] == TIER_RESTING) {
+            resting.remove(views[i]);
+            Wakeup node = wakeup[i];
+            if (node != null && node.queued) {
+                wakeups.remove(node);
+                node.queued = false;
+            }
+            // Catch up on the time spent resting
+            float elapsed = time - restingSince[i];
+            stateTime[i] += elapsed;
+            waitTimer[i] -= elapsed;
+            confusedTimer[i] -= elapsed;
+            flashTime[i] -= elapsed;
+            cooldownTime[i] -= elapsed;
+        } else {
+            sleepers.remove(views[i]);
+        }
+        tier[i] = TIER_NEAR;
+        skipped[i] = 0; // Time asleep is not simulated
+        swap(i, awake++);
+    }
+
+    /**
+     * @param delay Seconds until the enemy's own timer wakes it, or a negative value for none.
+     */
+    private void rest(int i, float delay) {
+        restingSince[i] = time;
+        lastX[i] = x[i];
+        lastY[i] = y[i];
+        resting.update(views[i], x[i] + 8, y[i] + 8);
+        if (delay >= 0) {
+            Wakeup node = wakeup[i];
+            if (node == null) node = wakeup[i] = new Wakeup(views[i]);
+            wakeups.add(node, time + delay);
+            node.queued = true;
+        }
+        swap(i, --awake);
+    }
+
+    /**
+     * Think phase, after the enemy ticked: marks it as resting if it will do nothing until
+     * its timer runs out or the player comes close.
+     */
+    private void checkResting(int i) {
+        if (vx[i] != 0 || vy[i] != 0 || actions[i] != 0 || flashTime[i] > 0) return;
+        float range = perceptionRange(i);
+        if (Vector2.dst2(x[i] + 8, y[i] + 8, targetX, targetY) < range * range) return;
+        if (kind[i] == KIND_GHOST) {
+            if (state[i] == PATROL) tier[i] = TIER_RESTING;
+        } else if (state[i] == PATROL) {
+            if (!hasPathLeft(i) && pending[i] == null && waitTimer[i] > 0) tier[i] = TIER_RESTING;
+        } else if (state[i] == CONFUSED) {
+            if (confusedTimer[i] > 0) tier[i] = TIER_RESTING;
+        }
+    }
+
+    /**
+     * @return Distance within which a resting enemy is woken when the player changes tiles.
+     */
+    private float perceptionRange(int i) {
+        return (kind[i] == KIND_GHOST ? GHOST_WAKE_RANGE : DETECTION_RANGE) + PERCEPTION_MARGIN;
+    }
+
+    private void sleep(int i) {
+        if (pending[i] != null) pathService.cancel(views[i]);
+        pending[i] = null;
+        releasePlanner(i);
+        vx[i] = 0;
+        vy[i] = 0;
+        lastX[i] = x[i];
+        lastY[i] = y[i];
+        sleepers.update(views[i], x[i], y[i]);
+        swap(i, --awake);
+    }
+
+    /**
+     * Splits a range of enemies until it fits into one batch.
+     */
+    private final class ThinkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final float delta;
+
+        ThinkTask(int from, int to, float delta) {
+            this.from = from;
+            this.to = to;
+            this.delta = delta;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THINK_BATCH) {
+                think(from, to, delta);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ThinkTask(from, middle, delta), new ThinkTask(middle, to, delta));
+        }
+    }
+
+    private void think(int from, int to, float delta) {
+        float nearSquared = NEAR_RADIUS * NEAR_RADIUS;
+        float sleepSquared = SLEEP_RADIUS * SLEEP_RADIUS;
+        for (int i = from; i < to; i++) {
+            float centerX = x[i] + 8;
+            float centerY = y[i] + 8;
+            float distanceSquared = Vector2.dst2(centerX, centerY, targetX, targetY);
+            boolean onScreen = visibleArea.contains(centerX, centerY);
+
+            float step;
+            if (onScreen || distanceSquared < nearSquared) {
+                tier[i] = TIER_NEAR;
+                step = delta + skipped[i];
+                skipped[i] = 0;
+            } else if (distanceSquared > sleepSquared) {
+                tier[i] = TIER_ASLEEP; // The commit phase moves it to the sleepers
+                continue;
+            } else {
+                tier[i] = TIER_MID;
+                skipped[i] += delta;
+                if (((frame + phase[i]) & (MID_INTERVAL - 1)) != 0) continue;
+                step = skipped[i];
+                skipped[i] = 0;
+            }
+
+            if (kind[i] == KIND_GHOST) {
+                updateGhost(i, step);
+            } else {
+                updateEnemy(i, step);
+            }
+            checkResting(i);
+        }
+    }
+
+    /**
+     * Applies the recorded actions in index order, then removes dead enemies
+     * and moves the ones that fell asleep behind the awake ones.
+     */
+    private void commit() {
+        for (int i = 0; i < awake; i++) {
+            byte action = actions[i];
+            if (action == 0) continue;
+            actions[i] = 0;
+
+            if ((action & ACTION_HIT) != 0 && hitTarget(i)) {
+                action &= ~(ACTION_REQUEST | ACTION_PATROL); // Recorded for the old state
+            }
+            if ((action & ACTION_CANCEL) != 0 && pathService != null) {
+                pathService.cancel(views[i]);
+            }
+            if ((action & ACTION_PATROL) != 0) {
+                pickRandomPatrolPoint(i);
+            } else if ((action & ACTION_REQUEST) != 0) {
+                searchPath(i, goalX[i], goalY[i]);
+            }
+        }
+
+        for (int i = awake - 1; i >= 0; i--) {
+            if (health[i] <= 0) {
+                remove(i);
+            } else if (tier[i] == TIER_ASLEEP) {
+                sleep(i);
+            } else if (tier[i] == TIER_RESTING) {
+                if (kind[i] == KIND_GHOST) {
+                    rest(i, -1); // Only the player wakes it
+                } else {
+                    rest(i, state[i] == PATROL ? waitTimer[i] : confusedTimer[i]);
+                }
+            }
+        }
+    }
+
+    private void updateEnemy(int i, float delta) {
+        stateTime[i] += delta;
+
+        // Reset input every frame (AI drives input)
+        inputX[i] = 0;
+        inputY[i] = 0;
+
+        // Pick up a path the workers finished since the last frame
+        if (pending[i] != null && pending[i].isDone()) {
+            setSearchPath(i, pending[i].getPath());
+            pending[i] = null;
+        }
+        byte stateBefore = state[i];
+
+        switch (state[i]) {
+            case PATROL:
+                updatePatrol(i, delta);
+                break;
+            case CHASE:
+                updateChase(i, delta);
+                break;
+            case RETREAT:
+                updateRetreat(i, delta);
+                break;
+            case CONFUSED:
+                updateConfused(i, delta);
+                break;
+        }
+
+        // Combat input must be set before physics
+        if (touchesTarget(i)) {
+            actions[i] |= ACTION_HIT;
+            if (health[i] > 40) {
+                // "Combat Jitter": move randomly around the player to simulate fighting
+                float jitterX = randomRange(i, -4f, 4f);
+                float jitterY = randomRange(i, -4f, 4f);
+                setInputTowards(i, x[i] + 8, y[i] + 8, targetX + jitterX, targetY + jitterY);
+            }
+        }
+
+        // A search queued for the old state is no longer wanted
+        if (state[i] != stateBefore) {
+            cancelPendingPath(i);
+            if (stateBefore == CHASE) releasePlanner(i);
+        }
+
+        // Follow the path with the input vector
+        IntArray nodes = path[i];
+        if (pathSource[i] != PATH_NONE && pathIndex[i] < nodes.size && state[i] != CONFUSED) {
+            int node = nodes.get(pathIndex[i]);
+            // Move our center to the node
+            float nodeX = (node < 0 ? targetX : (node % grid.getWidth()) * 16 + 8) - 8;
+            float nodeY = (node < 0 ? targetY : (node / grid.getWidth()) * 16 + 8) - 8;
+            float dx = nodeX - x[i];
+            float dy = nodeY - y[i];
+            float dist = (float) Math.sqrt(dx * dx + dy * dy);
+
+            // Tolerance of 5 prevents getting stuck near walls
+            if (dist < 5f) {
+                pathIndex[i]++;
+            } else if (inputX[i] == 0 && inputY[i] == 0) { // Combat jitter takes priority
+                inputX[i] = dx / dist;
+                inputY[i] = dy / dist;
+            }
+        }
+
+        // Speed depends on the state
+        boolean fast = state[i] == CHASE || state[i] == RETREAT;
+        updatePhysics(i, delta, fast ? SPEED * 4f : SPEED, fast ? 500f : 50f, fast ? 500f : 50f);
+
+        // Movement & collision, one axis at a time
+        float speed2 = vx[i] * vx[i] + vy[i] * vy[i];
+        if (speed2 > 1f) {
+            float speed = (float) Math.sqrt(speed2);
+            // Direction used for sliding
+            float dirX = vx[i] / speed;
+            float dirY = vy[i] / speed;
+            if (inputX[i] != 0 || inputY[i] != 0) {
+                dirX = inputX[i];
+                dirY = inputY[i];
+            }
+
+            float oldX = x[i];
+            x[i] += vx[i] * delta;
+            int wallX = collidingTile(x[i], y[i]);
+            if (wallX >= 0) x[i] = oldX;
+
+            float oldY = y[i];
+            y[i] += vy[i] * delta;
+            int wallY = collidingTile(x[i], y[i]);
+            if (wallY >= 0) y[i] = oldY;
+
+            slideAlongWalls(i, delta, dirX, dirY, wallX, wallY);
+        }
+    }
+
+    /**
+     * Ghosts float through walls: they sleep until the player comes close, then fly straight at them.
+     */
+    private void updateGhost(int i, float delta) {
+        stateTime[i] += delta;
+        inputX[i] = 0;
+        inputY[i] = 0;
+
+        // Wake up distance: 5 tiles = 80 pixels, give up distance: 10 tiles = 160 pixels
+        float centerX = x[i] + 8;
+        float centerY = y[i] + 8;
+        float dist = Vector2.dst(centerX, centerY, targetX, targetY);
+        float maxSpeed = 0f;
+
+        if (state[i] == RETREAT) {
+            // Fly directly away from the target
+            setInputTowards(i, centerX, centerY, 2 * centerX - targetX, 2 * centerY - targetY);
+            maxSpeed = 40f;
+            if (dist > 160f) {
+                state[i] = PATROL; // Go back to sleep
+                maxSpeed = 0f;
+            }
+        } else if (state[i] == CHASE) {
+            if (dist > 160f) {
+                state[i] = PATROL;
+            } else {
+                setInputTowards(i, centerX, centerY, targetX, targetY);
+                maxSpeed = 30f;
+            }
+        } else if (dist < 80f) {
+            state[i] = CHASE;
+        }
+
+        if (maxSpeed == 0 && vx[i] == 0 && vy[i] == 0) {
+            // Asleep and at rest: nothing moves, only the damage timers run
+            if (flashTime[i] > 0) flashTime[i] -= delta;
+            if (cooldownTime[i] > 0) cooldownTime[i] -= delta;
+            if (touchesTarget(i)) actions[i] |= ACTION_HIT;
+            return;
+        }
+        updatePhysics(i, delta, maxSpeed, 50f, 50f);
+
+        // No collision checks (Ghost!)
+        x[i] += vx[i] * delta;
+        y[i] += vy[i] * delta;
+
+        if (touchesTarget(i)) actions[i] |= ACTION_HIT;
+    }
+
+    private void updatePhysics(int i, float delta, float maxSpeed, float acceleration, float friction) {
+        if (flashTime[i] > 0) flashTime[i] -= delta;
+        if (cooldownTime[i] > 0) cooldownTime[i] -= delta;
+
+        vx[i] = approach(vx[i], inputX[i] * maxSpeed, (inputX[i] != 0 ? acceleration : friction) * delta);
+        vy[i] = approach(vy[i], inputY[i] * maxSpeed, (inputY[i] != 0 ? acceleration : friction) * delta);
+    }
+
+    private static float approach(float current, float target, float amount) {
+        if (current < target) {
+            return Math.min(current + amount, target);
+        } else {
+            return Math.max(current - amount, target);
+        }
+    }
+
+    private void setInputTowards(int i, float fromX, float fromY, float toX, float toY) {
+        float dx = toX - fromX;
+        float dy = toY - fromY;
+        float length = (float) Math.sqrt(dx * dx + dy * dy);
+        if (length == 0) {
+            inputX[i] = 0;
+            inputY[i] = 0;
+        } else {
+            inputX[i] = dx / length;
+            inputY[i] = dy / length;
+        }
+    }
+
+    /**
+     * @return Next value in [0, 1) of the enemy's own generator (xorshift64*).
+     */
+    private float nextRandom(int i) {
+        long r = random[i];
+        r ^= r >>> 12;
+        r ^= r << 25;
+        r ^= r >>> 27;
+        random[i] = r;
+        return ((r * 0x2545F4914F6CDD1DL) >>> 40) * 0x1.0p-24f;
+    }
+
+    private float randomRange(int i, float min, float max) {
+        return min + nextRandom(i) * (max - min);
+    }
+
+    /**
+     * @return Random integer in [min, max].
+     */
+    private int randomRange(int i, int min, int max) {
+        return min + (int) (nextRandom(i) * (max - min + 1));
+    }
+
+    private boolean touchesTarget(int i) {
+        // Our hitbox: 8x8 at x + 4, y + 4
+        float bx = x[i] + 4;
+        float by = y[i] + 4;
+        return bx < targetRight && bx + 8 > targetLeft && by < targetTop && by + 8 > targetBottom;
+    }
+
+    /**
+     * Commit phase: the enemy touched the player this frame.
+     *
+     * @return True if the enemy started retreating.
+     */
+    private boolean hitTarget(int i) {
+        if (hitListener != null) hitListener.run();
+
+        if (target.isShielded()) {
+            // Shield Effect: Enemy takes damage, Player is safe
+            damage(i, 20);
+        } else {
+            target.takeDamage();
+        }
+
+        if (health[i] <= 40 && state[i] != RETREAT) {
+            state[i] = RETREAT;
+            if (pending[i] != null) pathService.cancel(views[i]); // Searched for the old state
+            pending[i] = null;
+            releasePlanner(i);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Damages an enemy unless it was hit less than a second ago.
+     */
+    void damage(int i, int amount) {
+        if (i >= awake) {
+            // Hit while asleep: wake up so the next update sees the damage (and removes the dead)
+            wake(i);
+            i = awake - 1;
+        }
+        if (cooldownTime[i] > 0) return;
+        health[i] -= amount;
+        flashTime[i] = FLASH_DURATION; // Short visual flash
+        cooldownTime[i] = DAMAGE_COOLDOWN_DURATION; // Long invulnerability
+        if (health[i] < 0) health[i] = 0;
+    }
+
+    private void updatePatrol(int i, float delta) {
+        float dist = Vector2.dst(x[i] + 8, y[i] + 8, targetX, targetY);
+
+        // Player in range and visible
+        if (dist < DETECTION_RANGE && canSeeTarget(i)) {
+            state[i] = CHASE;
+            pathTimer[i] = PATH_UPDATE_INTERVAL;
+            return;
+        }
+
+        if (!hasPathLeft(i) && pending[i] == null) {
+            waitTimer[i] -= delta;
+            if (waitTimer[i] <= 0) {
+                actions[i] |= ACTION_PATROL;
+                waitTimer[i] = randomRange(i, 0f, 2f);
+            }
+        }
+    }
+
+    private void updateChase(int i, float delta) {
+        int tileX = (int) ((x[i] + 8) / 16);
+        int tileY = (int) ((y[i] + 8) / 16);
+        if (flowField != null && flowField.getDistance(tileX, tileY) >= 0) {
+            // Inside the player's flow field: take the next step from it, no search needed
+            cancelPendingPath(i);
+            if (pathSource[i] != PATH_FLOW || pathIndex[i] >= path[i].size) {
+                path[i].clear();
+                path[i].add(flowField.nextStep(tileX, tileY)); // -1 on the player's tile: head for the player
+                pathSource[i] = PATH_FLOW;
+                pathIndex[i] = 0;
+            }
+        } else {
+            if (pathSource[i] == PATH_FLOW) {
+                pathTimer[i] = PATH_UPDATE_INTERVAL; // Left the field, search right away
+                clearPath(i);
+                chaseFrom[i] = -1;
+            }
+            if (!updateChasePlan(i, tileX, tileY)) {
+                updateChasePath(i, delta); // No plan (e.g. standing in a wall): fall back to full searches
+            }
+        }
+
+        updateChaseState(i);
+    }
+
+    /**
+     * Repairs the incremental chase plan if the enemy or the player entered another tile.
+     *
+     * @return False if there is no plan to follow.
+     */
+    private boolean updateChasePlan(int i, int tileX, int tileY) {
+        int goalX = (int) (targetX / 16);
+        int goalY = (int) (targetY / 16);
+        int fromTile = tileY * grid.getWidth() + tileX;
+        int toTile = goalY * grid.getWidth() + goalX;
+        if (planner[i] == null) {
+            planner[i] = new MovingTargetSearch();
+            planTiles[i] = new IntArray();
+        } else if (fromTile == chaseFrom[i] && toTile == chaseTo[i] && !planner[i].isPending()) {
+            return pathSource[i] == PATH_PLAN; // Nothing changed
+        }
+        chaseFrom[i] = fromTile;
+        chaseTo[i] = toTile;
+
+        if (!planner[i].update(grid, tileX, tileY, goalX, goalY, CHASE_PLAN_BUDGET, planTiles[i])) {
+            // Keep walking the old plan while the repair continues next frame
+            return planner[i].isPending() && pathSource[i] == PATH_PLAN;
+        }
+        cancelPendingPath(i);
+        path[i].clear();
+        path[i].addAll(planTiles[i]);
+        pathSource[i] = PATH_PLAN;
+        pathIndex[i] = path[i].size > 1 ? 1 : 0; // Already inside the first tile, head for the next one
+        return true;
+    }
+
+    private void updateChasePath(int i, float delta) {
+        pathTimer[i] += delta;
+        // On big floors findPath only returns the leg to the next room, so also repath once it is walked
+        boolean legFinished = pathSource[i] != PATH_NONE && pathIndex[i] >= path[i].size && pending[i] == null;
+        if (pathTimer[i] > PATH_UPDATE_INTERVAL || (legFinished && pathTimer[i] > 0.1f)) {
+            pathTimer[i] = 0;
+            requestPath(i, targetX, targetY);
+        }
+    }
+
+    private void updateChaseState(int i) {
+        float dist = Vector2.dst(x[i] + 8, y[i] + 8, targetX, targetY);
+
+        if (health[i] <= 40) {
+            state[i] = RETREAT;
+            return;
+        }
+
+        // Out of sight alone does not end the chase, only distance does
+        if (dist > DETECTION_RANGE * 2f) {
+            state[i] = CONFUSED;
+            confusedTimer[i] = 3.0f;
+            clearPath(i);
+        }
+    }
+
+    private void updateRetreat(int i, float delta) {
+        pathTimer[i] += delta;
+        float centerX = x[i] + 8;
+        float centerY = y[i] + 8;
+
+        // Don't repath too often to avoid "jittery" movement; only if the timer expired or the path is finished
+        if ((pathTimer[i] > 1.5f || !hasPathLeft(i)) && pending[i] == null) {
+            pathTimer[i] = 0;
+
+            // Try a point 4 tiles straight away from the player first
+            float dx = centerX - targetX;
+            float dy = centerY - targetY;
+            float length = (float) Math.sqrt(dx * dx + dy * dy);
+            float fleeX = length > 0 ? centerX + dx / length * 64f : centerX;
+            float fleeY = length > 0 ? centerY + dy / length * 64f : centerY;
+
+            if (grid.isWalkable((int) (fleeX / 16), (int) (fleeY / 16))) {
+                requestPath(i, fleeX, fleeY);
+            } else {
+                int fallback = findRetreatTargetFallback(i);
+                if (fallback >= 0) {
+                    requestPath(i, (fallback % grid.getWidth()) * 16 + 8, (fallback / grid.getWidth()) * 16 + 8);
+                } else {
+                    clearPath(i);
+                }
+            }
+        }
+
+        // Only stop retreating if VERY far away (2x range)
+        if (Vector2.dst(centerX, centerY, targetX, targetY) > DETECTION_RANGE * 2f) {
+            state[i] = CONFUSED;
+            confusedTimer[i] = 3.0f;
+        }
+    }
+
+    /**
+     * Picks a nearby walkable tile that is further from the player. Reachability is
+     * left to the path search; if there is no path the next repath tries again.
+     *
+     * @return The tile, or -1 if none was found.
+     */
+    private int findRetreatTargetFallback(int i) {
+        float centerX = x[i] + 8;
+        float centerY = y[i] + 8;
+        int cx = (int) (centerX / 16);
+        int cy = (int) (centerY / 16);
+        float currentDist = Vector2.dst2(centerX, centerY, targetX, targetY);
+
+        for (int k = 0; k < 8; k++) {
+            int tx = cx + randomRange(i, -6, 6);
+            int ty = cy + randomRange(i, -6, 6);
+            if (grid.isWalkable(tx, ty)) {
+                float newDist = Vector2.dst2(tx * 16 + 8, ty * 16 + 8, targetX, targetY);
+                // Only move if it increases the distance by at least a tile
+                if (newDist > currentDist + 256) {
+                    return ty * grid.getWidth() + tx;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void updateConfused(int i, float delta) {
+        confusedTimer[i] -= delta;
+
+        // If the player gets close while confused, wake up
+        if (Vector2.dst(x[i] + 8, y[i] + 8, targetX, targetY) < DETECTION_RANGE) {
+            state[i] = health[i] <= 40 ? RETREAT : CHASE;
+            return;
+        }
+
+        if (confusedTimer[i] <= 0) {
+            state[i] = PATROL;
+        }
+    }
+
+    /**
+     * Commit phase: searches a path to a random visible tile close by.
+     */
+    private void pickRandomPatrolPoint(int i) {
+        float centerX = x[i] + 8;
+        float centerY = y[i] + 8;
+        int cx = (int) (centerX / 16);
+        int cy = (int) (centerY / 16);
+
+        if (patrolView != null) {
+            // Any floor tile we can see within 3 tiles, picked from one shadowcast instead of retrying lines
+            patrolView.compute(cx, cy);
+            IntArray visible = patrolView.getVisibleTiles();
+            int offset = visible.size > 0 ? randomRange(i, 0, visible.size - 1) : 0;
+            for (int k = 0; k < visible.size; k++) {
+                int tile = visible.get((offset + k) % visible.size);
+                int tx = tile % grid.getWidth();
+                int ty = tile / grid.getWidth();
+                if ((tx == cx && ty == cy) || !grid.isWalkable(tx, ty)) continue;
+                searchPath(i, tx * 16 + 8, ty * 16 + 8);
+                break;
+            }
+            return;
+        }
+
+        // Random point within 3 tiles
+        for (int k = 0; k < 10; k++) {
+            int tx = cx + randomRange(i, -3, 3);
+            int ty = cy + randomRange(i, -3, 3);
+            if (grid.isWalkable(tx, ty) && hasLineOfSight(cx, cy, tx, ty)) {
+                // In line of sight and at most 3 tiles away, so a path practically always exists
+                searchPath(i, tx * 16 + 8, ty * 16 + 8);
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return True if the enemy and the player can see each other. Uses the shared player view
+     *         (one bit lookup) when it is up to date, otherwise walks a line.
+     */
+    private boolean canSeeTarget(int i) {
+        int tx = (int) (targetX / 16);
+        int ty = (int) (targetY / 16);
+        int cx = (int) ((x[i] + 8) / 16);
+        int cy = (int) ((y[i] + 8) / 16);
+        if (playerView != null && playerView.getOriginX() == tx && playerView.getOriginY() == ty) {
+            return playerView.isVisible(cx, cy);
+        }
+        return hasLineOfSight(cx, cy, tx, ty);
+    }
+
+    // Bresenham's Line Algorithm
+    private boolean hasLineOfSight(int x0, int y0, int x1, int y1) {
+        int dx = Math.abs(x1 - x0);
+        int dy = Math.abs(y1 - y0);
+        int sx = x0 < x1 ? 1 : -1;
+        int sy = y0 < y1 ? 1 : -1;
+        int err = dx - dy;
+
+        while (true) {
+            if (!grid.isWalkable(x0, y0)) return false; // Hit wall
+            if (x0 == x1 && y0 == y1) break;
+
+            int e2 = 2 * err;
+            if (e2 > -dy) {
+                err -= dy;
+                x0 += sx;
+            }
+            if (e2 < dx) {
+                err += dx;
+                y0 += sy;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Think phase: asks the commit phase for a path from the enemy's center to a point.
+     */
+    private void requestPath(int i, float toX, float toY) {
+        actions[i] |= ACTION_REQUEST;
+        goalX[i] = toX;
+        goalY[i] = toY;
+    }
+
+    /**
+     * Commit phase: starts a path search from the enemy's center. With a PathService the
+     * result arrives in a later frame, until then the enemy keeps following its current path.
+     */
+    private void searchPath(int i, float toX, float toY) {
+        from.set(x[i] + 8, y[i] + 8);
+        to.set(toX, toY);
+        if (pathService == null) {
+            setSearchPath(i, PathFinder.findPath(grid, from, to));
+            return;
+        }
+        pending[i] = pathService.request(views[i], from, to);
+    }
+
+    private void setSearchPath(int i, List<Vector2> waypoints) {
+        path[i].clear();
+        pathIndex[i] = 0;
+        if (waypoints == null) {
+            pathSource[i] = PATH_NONE;
+            return;
+        }
+        for (int k = 0; k < waypoints.size(); k++) {
+            Vector2 waypoint = waypoints.get(k);
+            path[i].add((int) (waypoint.y / 16) * grid.getWidth() + (int) (waypoint.x / 16));
+        }
+        pathSource[i] = PATH_SEARCH;
+    }
+
+    /**
+     * Drops the open path request and any request recorded this frame.
+     */
+    private void cancelPendingPath(int i) {
+        actions[i] &= ~(ACTION_REQUEST | ACTION_PATROL);
+        if (pending[i] != null) {
+            actions[i] |= ACTION_CANCEL;
+            pending[i] = null;
+        }
+    }
+
+    /**
+     * Drops the chase plan. Its search arrays span the whole grid, so only chasing enemies keep one.
+     */
+    private void releasePlanner(int i) {
+        planner[i] = null;
+        planTiles[i] = null;
+        chaseFrom[i] = -1;
+    }
+
+    private void clearPath(int i) {
+        path[i].clear();
+        pathIndex[i] = 0;
+        pathSource[i] = PATH_NONE;
+    }
+
+    private boolean hasPathLeft(int i) {
+        return pathSource[i] != PATH_NONE && pathIndex[i] < path[i].size;
+    }
+
+    /**
+     * @return The first wall tile (y * width + x) the hitbox at this position overlaps, or -1.
+     */
+    private int collidingTile(float px, float py) {
+        // Hitbox is 8x8 at (px + 4, py + 4)
+        float left = px + 4;
+        float bottom = py + 4;
+        int minX = (int) (left / 16);
+        int maxX = (int) ((left + 8) / 16);
+        int minY = (int) (bottom / 16);
+        int maxY = (int) ((bottom + 8) / 16);
+
+        for (int tx = minX; tx <= maxX; tx++) {
+            for (int ty = minY; ty <= maxY; ty++) {
+                if (grid.isWalkable(tx, ty)) continue;
+                if (left < tx * 16 + 16 && left + 8 > tx * 16 && bottom < ty * 16 + 16 && bottom + 8 > ty * 16) {
+                    return ty * grid.getWidth() + tx;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Nudges an enemy that only clips a wall corner past it, so it does not get stuck on edges.
+     */
+    private void slideAlongWalls(int i, float delta, float dirX, float dirY, int wallX, int wallY) {
+        float slideSpeed = SPEED * 1.5f;
+        float left = x[i] + 4;
+        float bottom = y[i] + 4;
+
+        // X Collision, try slide Y
+        if (wallX >= 0 && Math.abs(dirX) > 0 && Math.abs(dirY) < 0.5f) {
+            float wallBottom = (wallX / grid.getWidth()) * 16;
+            float overlapY = Math.min(bottom + 8, wallBottom + 16) - Math.max(bottom, wallBottom);
+            if (overlapY > 0 && overlapY <= SLIDE_THRESHOLD) {
+                if (bottom + 4 < wallBottom + 8) y[i] -= slideSpeed * delta;
+                else y[i] += slideSpeed * delta;
+            }
+        }
+
+        // Y Collision, try slide X
+        if (wallY >= 0 && Math.abs(dirY) > 0 && Math.abs(dirX) < 0.5f) {
+            float wallLeft = (wallY % grid.getWidth()) * 16;
+            float overlapX = Math.min(left + 8, wallLeft + 16) - Math.max(left, wallLeft);
+            if (overlapX > 0 && overlapX <= SLIDE_THRESHOLD) {
+                if (left + 4 < wallLeft + 8) x[i] -= slideSpeed * delta;
+                else x[i] += slideSpeed * delta;
+            }
+        }
+    }
+
+    private void remove(int i) {
+        V view = views[i];
+        if (pending[i] != null) pathService.cancel(view);
+        if (i >= awake) {
+            // Dormant: wake it first so it leaves the hashes and the wake-up queue
+            wake(i);
+            i = awake - 1;
+        }
+        swap(i, --awake); // Keep the awake enemies in front
+        i = awake;
+
+        // Move the last enemy into the gap
+        int last = --size;
+        swap(i, last);
+        view.detach();
+        removed.add(view);
+        pending[last] = null;
+        releasePlanner(last);
+        views[last] = null;
+        wakeup[last] = null;
+    }
+
+    /**
+     * Exchanges two entries in every array.
+     */
+    private void swap(int i, int j) {
+        if (i == j) return;
+        float f;
+        int n;
+        byte b;
+        long l;
+        f = x[i]; x[i] = x[j]; x[j] = f;
+        f = y[i]; y[i] = y[j]; y[j] = f;
+        f = lastX[i]; lastX[i] = lastX[j]; lastX[j] = f;
+        f = lastY[i]; lastY[i] = lastY[j]; lastY[j] = f;
+        f = restingSince[i]; restingSince[i] = restingSince[j]; restingSince[j] = f;
+        f = vx[i]; vx[i] = vx[j]; vx[j] = f;
+        f = vy[i]; vy[i] = vy[j]; vy[j] = f;
+        b = kind[i]; kind[i] = kind[j]; kind[j] = b;
+        b = state[i]; state[i] = state[j]; state[j] = b;
+        f = stateTime[i]; stateTime[i] = stateTime[j]; stateTime[j] = f;
+        f = pathTimer[i]; pathTimer[i] = pathTimer[j]; pathTimer[j] = f;
+        f = waitTimer[i]; waitTimer[i] = waitTimer[j]; waitTimer[j] = f;
+        f = confusedTimer[i]; confusedTimer[i] = confusedTimer[j]; confusedTimer[j] = f;
+        f = flashTime[i]; flashTime[i] = flashTime[j]; flashTime[j] = f;
+        f = cooldownTime[i]; cooldownTime[i] = cooldownTime[j]; cooldownTime[j] = f;
+        n = health[i]; health[i] = health[j]; health[j] = n;
+        n = pathIndex[i]; pathIndex[i] = pathIndex[j]; pathIndex[j] = n;
+        b = pathSource[i]; pathSource[i] = pathSource[j]; pathSource[j] = b;
+        n = chaseFrom[i]; chaseFrom[i] = chaseFrom[j]; chaseFrom[j] = n;
+        n = chaseTo[i]; chaseTo[i] = chaseTo[j]; chaseTo[j] = n;
+        f = inputX[i]; inputX[i] = inputX[j]; inputX[j] = f;
+        f = inputY[i]; inputY[i] = inputY[j]; inputY[j] = f;
+        l = random[i]; random[i] = random[j]; random[j] = l;
+        b = actions[i]; actions[i] = actions[j]; actions[j] = b;
+        f = goalX[i]; goalX[i] = goalX[j]; goalX[j] = f;
+        f = goalY[i]; goalY[i] = goalY[j]; goalY[j] = f;
+        b = tier[i]; tier[i] = tier[j]; tier[j] = b;
+        b = phase[i]; phase[i] = phase[j]; phase[j] = b;
+        f = skipped[i]; skipped[i] = skipped[j]; skipped[j] = f;
+        IntArray tiles = path[i]; path[i] = path[j]; path[j] = tiles; // Buffers stay with their enemy
+        PathService.Request request = pending[i]; pending[i] = pending[j]; pending[j] = request;
+        MovingTargetSearch search = planner[i]; planner[i] = planner[j]; planner[j] = search;
+        tiles = planTiles[i]; planTiles[i] = planTiles[j]; planTiles[j] = tiles;
+        V view = views[i]; views[i] = views[j]; views[j] = view;
+        Wakeup node = wakeup[i]; wakeup[i] = wakeup[j]; wakeup[j] = node;
+        if (views[i] != null) views[i].attach(this, i);
+        if (views[j] != null) views[j].attach(this, j);
+    }
+
+    /**
+     * @return The enemies removed by the last {@link #update(float)} (killed) or {@link #shift} (left the grid).
+     */
+    public Array<V> getRemoved() {
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Number of awake enemies (neither asleep nor resting); they are the entries 0 .. getAwake() - 1.
+     */
+    public int getAwake() {
+        return awake;
+    }
+
+    /**
+     * @return Position of an entry to draw, between its last two updates.
+     */
+    float getDrawX(int i) {
+        return lastX[i] + (x[i] - lastX[i]) * alpha;
+    }
+
+    float getDrawY(int i) {
+        return lastY[i] + (y[i] - lastY[i]) * alpha;
+    }
+
+    /**
+     * @return Animation time of an entry, including the time it has been resting.
+     */
+    float getStateTime(int i) {
+        return tier[i] == TIER_RESTING ? stateTime[i] + time - restingSince[i] : stateTime[i];
+    }
+
+    /**
+     * @return Number of resting enemies.
+     */
+    public int getResting() {
+        return resting.size();
+    }
+
+    /**
+     * @return How often a resting enemy was woken because the player came close (for profiling).
+     */
+    public int getPerceptionWakes() {
+        return perceptionWakes;
+    }
+
+    public V getView(int i) {
+        return views[i];
+    }
+
+    public float getX(int i) {
+        return x[i];
+    }
+
+    public float getY(int i) {
+        return y[i];
+    }
+
+    public byte getState(int i) {
+        return state[i];
+    }
+
+    Grid getGrid() {
+        return grid;
+    }
+
+    float getTargetX() {
+        return targetX;
+    }
+
+    float getTargetY() {
+        return targetY;
+    }
+
+    /**
+     * @return Index of the next path node to walk to (for debug drawing).
+     */
+    int getPathIndex(int i) {
+        return pathSource[i] == PATH_NONE ? path[i].size : pathIndex[i];
+    }
+}
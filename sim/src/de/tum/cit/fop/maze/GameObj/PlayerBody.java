@@ -0,0 +1,334 @@
+package de.tum.cit.fop.maze.GameObj;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import de.tum.cit.fop.maze.AI.Grid;
+
+/**
+ * The player's body: position, velocity, the 8x8 hitbox and how it moves
+ * through a {@link Grid}. Wall tiles stop it per axis, and near a wall corner
+ * it slides around the corner. Map objects in the grid's occupancy index are
+ * looked at through {@link Contacts}, so the body needs no game classes and
+ * runs headless; the game's Character is its sprite and feeds it the keyboard
+ * through {@link Controls}.
+ * <p>
+ * A step is split in two so the caller can look at the new velocity before the
+ * body moves: {@link #accelerate} applies the input, {@link #move} moves and
+ * resolves collisions.
+ */
+public class PlayerBody {
+
+    /**
+     * What the player asks for this step.
+     */
+    public interface Controls {
+        /** Writes the pushed direction into {@code out}, each axis -1, 0 or 1. */
+        void getDirection(Vector2 out);
+
+        boolean isRunning();
+    }
+
+    /**
+     * Decides what the map objects under the hitbox do.
+     */
+    public interface Contacts {
+        /** @return True if touching the object matters (items, traps, exits); everything else is passed through. */
+        boolean isContact(Grid.Occupant occupant);
+
+        /** @return True if the object stops the body like a wall (e.g. an exit without the key). */
+        boolean blocks(Grid.Occupant occupant);
+
+        /** Called when the body moved onto a contact that does not block it. */
+        void touched(Grid.Occupant occupant);
+    }
+
+    public static final float WALK_SPEED = 100f;
+    public static final float RUN_SPEED = 200f;
+    private static final float ACCELERATION = 800f;
+    private static final float FRICTION = 800f;
+    // Near a wall corner the body slides past it if it overlaps the wall by at most this much
+    private static final float SLIDE_THRESHOLD = 8f;
+    private static final float SLIDE_SPEED = 100f;
+
+    private final Vector2 position = new Vector2();
+    private final Vector2 previousPosition = new Vector2(); // Before the last step, for drawing between steps
+    private final Vector2 velocity = new Vector2();
+    private final Vector2 input = new Vector2();
+    private final Rectangle bounds = new Rectangle(0, 0, 8, 8); // Offset by (4, 4) from the position
+    private float maxSpeed = WALK_SPEED;
+    private boolean moving;
+
+    private Grid grid;
+    private Contacts contacts;
+    private final Rectangle testBounds = new Rectangle();
+
+    // Walls are tiles, these stand in for the wall tile that was hit on each axis
+    private final Rectangle wallX = new Rectangle(0, 0, 16, 16);
+    private final Rectangle wallY = new Rectangle(0, 0, 16, 16);
+    private final Grid.Occupant wallHitX = () -> wallX;
+    private final Grid.Occupant wallHitY = () -> wallY;
+
+    public PlayerBody(float x, float y) {
+        setPosition(x, y);
+    }
+
+    /**
+     * Sets the grid whose walls and occupancy index the body collides with.
+     * Must be called whenever a new level is loaded.
+     */
+    public void setGrid(Grid grid) {
+        this.grid = grid;
+    }
+
+    public void setContacts(Contacts contacts) {
+        this.contacts = contacts;
+    }
+
+    /**
+     * Teleports the body; the move is not interpolated.
+     */
+    public void setPosition(float x, float y) {
+        position.set(x, y);
+        previousPosition.set(x, y);
+        updateBounds();
+    }
+
+    /**
+     * Moves the body and where it came from by the same amount, so drawing between
+     * steps is not disturbed (the infinite mode's moving window).
+     */
+    public void translate(float dx, float dy) {
+        position.add(dx, dy);
+        previousPosition.add(dx, dy);
+        updateBounds();
+    }
+
+    /**
+     * Starts a step: remembers the position and moves the velocity towards what the controls ask for.
+     */
+    public void accelerate(float delta, Controls controls) {
+        previousPosition.set(position);
+        maxSpeed = controls.isRunning() ? RUN_SPEED : WALK_SPEED;
+        input.set(0, 0);
+        controls.getDirection(input);
+        if (input.len2() > 0) {
+            input.nor(); // Normalize for consistent diagonal speed
+        }
+
+        float targetX = input.x * maxSpeed;
+        float targetY = input.y * maxSpeed;
+        velocity.x = approach(velocity.x, targetX, (input.x != 0 ? ACCELERATION : FRICTION) * delta);
+        velocity.y = approach(velocity.y, targetY, (input.y != 0 ? ACCELERATION : FRICTION) * delta);
+        moving = velocity.len() > 10f;
+    }
+
+    /**
+     * Ends a step: moves one axis at a time, stopping at walls and blocking contacts,
+     * and reports the contacts it touched.
+     */
+    public void move(float delta) {
+        if (velocity.len() <= 1f) return;
+        float oldX = position.x;
+        float oldY = position.y;
+
+        position.x += velocity.x * delta;
+        updateBounds();
+        Grid.Occupant hitX = collide(wallHitX);
+        resolve(hitX, oldX, true);
+
+        position.y += velocity.y * delta;
+        updateBounds();
+        Grid.Occupant hitY = collide(wallHitY);
+        resolve(hitY, oldY, false);
+
+        slide(delta, hitX == wallHitX ? wallX : null, hitY == wallHitY ? wallY : null);
+    }
+
+    /**
+     * @return The first wall tile (see {@link #isWall}) or contact the hitbox overlaps, or null.
+     */
+    public Grid.Occupant collide() {
+        return collide(wallHitX);
+    }
+
+    /**
+     * @return True if a result of {@link #collide()} is a wall tile rather than a map object.
+     */
+    public boolean isWall(Grid.Occupant hit) {
+        return hit == wallHitX || hit == wallHitY;
+    }
+
+    private Grid.Occupant collide(Grid.Occupant wallHit) {
+        // Only the tiles under the 8x8 hitbox can contain something we touch
+        int minX = grid.toTile(bounds.x);
+        int maxX = grid.toTile(bounds.x + bounds.width);
+        int minY = grid.toTile(bounds.y);
+        int maxY = grid.toTile(bounds.y + bounds.height);
+
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                if (!grid.isWalkable(x, y)) {
+                    if (overlapsTile(bounds, x, y)) {
+                        wallHit.getBounds().setPosition(x * 16, y * 16);
+                        return wallHit;
+                    }
+                    continue;
+                }
+
+                Array<Grid.Occupant> objs = grid.getObjectsAt(x, y);
+                if (objs == null) continue;
+
+                for (Grid.Occupant occupant : objs) {
+                    if (contacts.isContact(occupant) && bounds.overlaps(occupant.getBounds())) {
+                        return occupant;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private void resolve(Grid.Occupant hit, float oldPosition, boolean xAxis) {
+        if (hit == null) return;
+        if (!isWall(hit) && !contacts.blocks(hit)) {
+            contacts.touched(hit);
+            return;
+        }
+        if (xAxis) {
+            position.x = oldPosition;
+            velocity.x = 0;
+        } else {
+            position.y = oldPosition;
+            velocity.y = 0;
+        }
+        updateBounds();
+    }
+
+    // Slides around a wall corner the body only grazes, if the input pushes straight into the wall
+    private void slide(float delta, Rectangle hitX, Rectangle hitY) {
+        float slideAmount = SLIDE_SPEED * delta;
+
+        // Hit a wall on the X axis while moving horizontally
+        if (hitX != null && Math.abs(input.x) > 0 && Math.abs(input.y) == 0) {
+            float overlapY = Math.min(bounds.y + bounds.height, hitX.y + hitX.height) - Math.max(bounds.y, hitX.y);
+            if (overlapY > 0 && overlapY <= SLIDE_THRESHOLD) {
+                boolean slidingDown = bounds.y + bounds.height / 2 < hitX.y + hitX.height / 2;
+                // Only slide if the wall does not continue in that direction
+                float checkY = slidingDown ? hitX.y - 1 : hitX.y + hitX.height + 1;
+                if (!isWallAt(testBounds.set(hitX.x, checkY, hitX.width, 1), hitX)) {
+                    float newY = slidingDown ? position.y - slideAmount : position.y + slideAmount;
+                    if (isPositionFree(position.x, newY)) {
+                        position.y = newY;
+                        updateBounds();
+                    }
+                }
+            }
+        }
+
+        // Hit a wall on the Y axis while moving vertically
+        if (hitY != null && Math.abs(input.y) > 0 && Math.abs(input.x) == 0) {
+            float overlapX = Math.min(bounds.x + bounds.width, hitY.x + hitY.width) - Math.max(bounds.x, hitY.x);
+            if (overlapX > 0 && overlapX <= SLIDE_THRESHOLD) {
+                boolean slidingLeft = bounds.x + bounds.width / 2 < hitY.x + hitY.width / 2;
+                float checkX = slidingLeft ? hitY.x - 1 : hitY.x + hitY.width + 1;
+                if (!isWallAt(testBounds.set(checkX, hitY.y, 1, hitY.height), hitY)) {
+                    float newX = slidingLeft ? position.x - slideAmount : position.x + slideAmount;
+                    if (isPositionFree(newX, position.y)) {
+                        position.x = newX;
+                        updateBounds();
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isWallAt(Rectangle area, Rectangle ignoreWall) {
+        int minX = grid.toTile(area.x);
+        int maxX = grid.toTile(area.x + area.width);
+        int minY = grid.toTile(area.y);
+        int maxY = grid.toTile(area.y + area.height);
+        int ignoreX = grid.toTile(ignoreWall.x);
+        int ignoreY = grid.toTile(ignoreWall.y);
+
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                if (x == ignoreX && y == ignoreY) continue;
+                if (!grid.isWalkable(x, y) && overlapsTile(area, x, y)) return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isPositionFree(float x, float y) {
+        testBounds.set(x + 4, y + 4, 8, 8);
+        int minX = grid.toTile(testBounds.x);
+        int maxX = grid.toTile(testBounds.x + testBounds.width);
+        int minY = grid.toTile(testBounds.y);
+        int maxY = grid.toTile(testBounds.y + testBounds.height);
+
+        for (int ty = minY; ty <= maxY; ty++) {
+            for (int tx = minX; tx <= maxX; tx++) {
+                if (!grid.isWalkable(tx, ty)) {
+                    if (overlapsTile(testBounds, tx, ty)) return false;
+                    continue;
+                }
+
+                Array<Grid.Occupant> objs = grid.getObjectsAt(tx, ty);
+                if (objs == null) continue;
+
+                for (Grid.Occupant occupant : objs) {
+                    if (contacts.isContact(occupant) && contacts.blocks(occupant) && testBounds.overlaps(occupant.getBounds())) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    // Same test as Rectangle.overlaps against the 16x16 tile at (tileX, tileY)
+    private static boolean overlapsTile(Rectangle r, int tileX, int tileY) {
+        float tx = tileX * 16;
+        float ty = tileY * 16;
+        return r.x < tx + 16 && r.x + r.width > tx && r.y < ty + 16 && r.y + r.height > ty;
+    }
+
+    private static float approach(float current, float target, float amount) {
+        if (current < target) {
+            return Math.min(current + amount, target);
+        } else {
+            return Math.max(current - amount, target);
+        }
+    }
+
+    private void updateBounds() {
+        bounds.setPosition(position.x + 4, position.y + 4);
+    }
+
+    public Vector2 getPosition() {
+        return position;
+    }
+
+    /**
+     * @return Position before the last {@link #accelerate}, or of the last teleport.
+     */
+    public Vector2 getPreviousPosition() {
+        return previousPosition;
+    }
+
+    public Vector2 getVelocity() {
+        return velocity;
+    }
+
+    public Rectangle getBounds() {
+        return bounds;
+    }
+
+    /**
+     * @return True if the body moves noticeably (for the walk animation).
+     */
+    public boolean isMoving() {
+        return moving;
+    }
+}
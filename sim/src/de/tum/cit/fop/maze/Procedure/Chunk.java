@@ -0,0 +1,88 @@
+package de.tum.cit.fop.maze.Procedure;
+
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.World.MapFile;
+import de.tum.cit.fop.maze.World.TileMap;
+
+/**
+ * One square piece of the infinite mode's world: tiles, the placements of its level
+ * objects as {@link MapFile} types, and its pickups. Tile positions are local to the
+ * chunk (y * {@link ChunkLayout#SIZE} + x). Holds no textures, see {@link ChunkLayout}.
+ */
+public class Chunk {
+    private final int chunkX, chunkY;
+    private final int difficulty;
+    private final TileMap tiles;
+
+    // Placements, one entry per object
+    private final IntArray types = new IntArray();
+    private final IntArray positions = new IntArray();
+
+    // Pickup tiles, see Pickups
+    private final IntArray hearts = new IntArray();
+    private final IntArray shields = new IntArray();
+
+    public Chunk(int chunkX, int chunkY, int difficulty, TileMap tiles) {
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+        this.difficulty = difficulty;
+        this.tiles = tiles;
+    }
+
+    public void addObject(int type, int x, int y) {
+        types.add(type);
+        positions.add(y * ChunkLayout.SIZE + x);
+    }
+
+    public int getObjectCount() {
+        return types.size;
+    }
+
+    /**
+     * @return The {@link MapFile} type of an object.
+     */
+    public int getObjectType(int i) {
+        return types.get(i);
+    }
+
+    public int getObjectX(int i) {
+        return positions.get(i) % ChunkLayout.SIZE;
+    }
+
+    public int getObjectY(int i) {
+        return positions.get(i) / ChunkLayout.SIZE;
+    }
+
+    /**
+     * @return Tiles (y * SIZE + x) with a heart on them.
+     */
+    public IntArray getHearts() {
+        return hearts;
+    }
+
+    /**
+     * @return Tiles (y * SIZE + x) with a shield on them.
+     */
+    public IntArray getShields() {
+        return shields;
+    }
+
+    /**
+     * @return Chunk coordinates; the start chunk is (0, 0).
+     */
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkY() {
+        return chunkY;
+    }
+
+    public int getDifficulty() {
+        return difficulty;
+    }
+
+    public TileMap getTiles() {
+        return tiles;
+    }
+}
@@ -0,0 +1,161 @@
+package de.tum.cit.fop.maze.Procedure;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+import de.tum.cit.fop.maze.World.MapFile;
+import de.tum.cit.fop.maze.World.TileMap;
+import de.tum.cit.fop.maze.World.TileType;
+
+import java.util.List;
+
+/**
+ * Chunks of the infinite mode. A chunk depends only on the run seed and its chunk
+ * coordinates, so an evicted chunk comes back exactly as it was generated.
+ * <p>
+ * Each chunk is a small {@link DungeonLayout} (rooms inside an outer wall) with a door
+ * on each of its four edges. A door's position is derived from the edge it sits on,
+ * so both chunks sharing an edge carve their corridor to the same tiles, and every
+ * chunk is reachable from every other one.
+ */
+public class ChunkLayout {
+    public static final int SIZE = 32; // Tiles per chunk side
+
+    private static final int MAX_ENEMIES_PER_ROOM = 4;
+    private static final int MAX_TRAPS_PER_ROOM = 3;
+
+    // Salts of the hashes derived from the run seed
+    private static final int EAST_DOOR = 0;
+    private static final int NORTH_DOOR = 1;
+    private static final int LAYOUT = 2;
+    private static final int PLACEMENTS = 3;
+
+    private final long seed;
+
+    public ChunkLayout(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return Difficulty of a chunk: 1 at the start, growing by one every two chunks of distance.
+     */
+    public static int difficulty(int chunkX, int chunkY) {
+        return 1 + Math.max(Math.abs(chunkX), Math.abs(chunkY)) / 2;
+    }
+
+    public Chunk generate(int chunkX, int chunkY) {
+        int difficulty = difficulty(chunkX, chunkY);
+        DungeonLayout layout = new DungeonLayout(SIZE, SIZE, hash(chunkX, chunkY, LAYOUT));
+        TileMap tiles = layout.generate(difficulty);
+        List<Room> rooms = layout.getRooms();
+
+        // 1. Doors: the east and north ones are this chunk's, west and south belong to the neighbours
+        carveDoor(tiles, rooms, 0, door(chunkX - 1, chunkY, EAST_DOOR), true);
+        carveDoor(tiles, rooms, SIZE - 1, door(chunkX, chunkY, EAST_DOOR), true);
+        carveDoor(tiles, rooms, 0, door(chunkX, chunkY - 1, NORTH_DOOR), false);
+        carveDoor(tiles, rooms, SIZE - 1, door(chunkX, chunkY, NORTH_DOOR), false);
+
+        // 2. Enemies and traps, and the entry in the first room of the start chunk
+        Chunk chunk = new Chunk(chunkX, chunkY, difficulty, tiles);
+        RandomXS128 random = new RandomXS128(hash(chunkX, chunkY, PLACEMENTS));
+        boolean[] occupied = new boolean[SIZE * SIZE];
+        boolean start = chunkX == 0 && chunkY == 0;
+        if (start) {
+            Vector2 entry = rooms.get(0).getCenter();
+            place(chunk, occupied, MapFile.ENTRY, (int) entry.x, (int) entry.y);
+        }
+        int enemiesPerRoom = Math.min(1 + difficulty / 2, MAX_ENEMIES_PER_ROOM);
+        int trapsPerRoom = Math.min(1 + difficulty / 3, MAX_TRAPS_PER_ROOM);
+        for (int i = start ? 1 : 0; i < rooms.size(); i++) { // The player starts in a quiet room
+            Room room = rooms.get(i);
+            for (int j = 0; j < enemiesPerRoom; j++) {
+                int tile = getFreeRandomTile(room, random, occupied);
+                if (tile < 0) continue;
+                place(chunk, occupied, random.nextBoolean() ? MapFile.GHOST : MapFile.ENEMY, tile % SIZE, tile / SIZE);
+            }
+            for (int j = 0; j < trapsPerRoom; j++) {
+                int tile = getFreeRandomTile(room, random, occupied);
+                if (tile < 0) continue;
+                place(chunk, occupied, MapFile.TRAP, tile % SIZE, tile / SIZE);
+            }
+        }
+
+        // 3. Pickups
+        Pickups.scatter(tiles, random, chunk.getHearts(), chunk.getShields());
+        return chunk;
+    }
+
+    /**
+     * Carves a 2-tile wide corridor from a door on the chunk border to the closest room.
+     *
+     * @param edge   Column (vertical edges) or row (horizontal edges) of the border.
+     * @param offset Row or column of the door along the edge.
+     */
+    private void carveDoor(TileMap tiles, List<Room> rooms, int edge, int offset, boolean vertical) {
+        int doorX = vertical ? edge : offset;
+        int doorY = vertical ? offset : edge;
+        Room closest = null;
+        float best = Float.MAX_VALUE;
+        for (Room room : rooms) {
+            float distance = room.getCenter().dst2(doorX, doorY);
+            if (distance < best) {
+                best = distance;
+                closest = room;
+            }
+        }
+        if (closest == null) return;
+
+        int centerX = (int) closest.getCenter().x;
+        int centerY = (int) closest.getCenter().y;
+        if (vertical) {
+            carveRect(tiles, Math.min(doorX, centerX), doorY, Math.abs(centerX - doorX) + 1, 2);
+            carveRect(tiles, centerX, Math.min(doorY, centerY), 2, Math.abs(centerY - doorY) + 2);
+        } else {
+            carveRect(tiles, doorX, Math.min(doorY, centerY), 2, Math.abs(centerY - doorY) + 1);
+            carveRect(tiles, Math.min(doorX, centerX), centerY, Math.abs(centerX - doorX) + 2, 2);
+        }
+    }
+
+    private void carveRect(TileMap tiles, int x, int y, int width, int height) {
+        for (int ty = y; ty < y + height; ty++) {
+            for (int tx = x; tx < x + width; tx++) {
+                tiles.set(tx, ty, TileType.FLOOR);
+            }
+        }
+    }
+
+    /**
+     * @return Row or column of the door on the east (or north) edge of a chunk, away from the corners.
+     */
+    private int door(int chunkX, int chunkY, int edge) {
+        return 2 + (int) ((hash(chunkX, chunkY, edge) >>> 1) % (SIZE - 5));
+    }
+
+    private void place(Chunk chunk, boolean[] occupied, int type, int x, int y) {
+        chunk.addObject(type, x, y);
+        occupied[y * SIZE + x] = true;
+    }
+
+    // Free tile inside a room (y * SIZE + x), or -1 after 10 misses
+    private int getFreeRandomTile(Room room, RandomXS128 random, boolean[] occupied) {
+        for (int k = 0; k < 10; k++) {
+            Vector2 p = room.getRandomPoint(random);
+            int tile = (int) p.y * SIZE + (int) p.x;
+            if (!occupied[tile]) {
+                return tile;
+            }
+        }
+        return -1;
+    }
+
+    // Mixes the run seed with a chunk and a salt (SplitMix64 finalizer)
+    private long hash(int chunkX, int chunkY, int salt) {
+        long h = seed ^ chunkX * 0x9E3779B97F4A7C15L ^ chunkY * 0xC2B2AE3D27D4EB4FL ^ salt * 0x165667B19E3779F9L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,146 @@
+package de.tum.cit.fop.maze.Procedure;
+
+import com.badlogic.gdx.utils.Array;
+import de.tum.cit.fop.maze.World.TileMap;
+import de.tum.cit.fop.maze.World.TileType;
+
+/**
+ * The part of the infinite mode's world that exists right now: a square window of
+ * {@link #WINDOW}x{@link #WINDOW} chunks around the player, assembled into one fixed-size
+ * {@link TileMap}. Tile and world coordinates are local to the window.
+ * <p>
+ * When the player gets {@link #MARGIN} tiles past the middle chunk, the window moves by
+ * a chunk: the row or column behind the player is evicted and the one ahead is
+ * generated. Everything else on the map then has to move by {@link #getShiftX()} and
+ * {@link #getShiftY()} chunks the other way. The map moves in place
+ * ({@link TileMap#shift}), so only the tiles of the new chunks are written one by one.
+ */
+public class ChunkStream {
+    public static final int WINDOW = 5; // Chunks per side, odd so there is a middle one
+    public static final int MARGIN = 8; // Tiles; walking back and forth over a border does not move the window
+
+    private final ChunkLayout layout;
+    private final TileMap tiles;
+    private Chunk[] chunks = new Chunk[WINDOW * WINDOW]; // y * WINDOW + x
+    private Chunk[] spare = new Chunk[WINDOW * WINDOW];
+    private int originX, originY; // Chunk coordinates of the bottom-left chunk
+    private int shiftX, shiftY;
+
+    /**
+     * Generates the window around the start chunk.
+     */
+    public ChunkStream(ChunkLayout layout) {
+        this.layout = layout;
+        int size = WINDOW * ChunkLayout.SIZE;
+        tiles = new TileMap(size, size);
+        originX = -(WINDOW / 2);
+        originY = -(WINDOW / 2);
+        for (int y = 0; y < WINDOW; y++) {
+            for (int x = 0; x < WINDOW; x++) {
+                chunks[y * WINDOW + x] = load(x, y);
+            }
+        }
+    }
+
+    /**
+     * Moves the window if the player is far enough into a neighbouring chunk.
+     *
+     * @param tileX Player tile, local to the window.
+     * @param loaded Receives the chunks that were generated.
+     * @return Whether the window moved; see {@link #getShiftX()} and {@link #getShiftY()}.
+     */
+    public boolean update(int tileX, int tileY, Array<Chunk> loaded) {
+        shiftX = shift(tileX);
+        shiftY = shift(tileY);
+        if (shiftX == 0 && shiftY == 0) return false;
+
+        originX += shiftX;
+        originY += shiftY;
+        tiles.shift(-shiftX * ChunkLayout.SIZE, -shiftY * ChunkLayout.SIZE);
+        for (int y = 0; y < WINDOW; y++) {
+            for (int x = 0; x < WINDOW; x++) {
+                int oldX = x + shiftX;
+                int oldY = y + shiftY;
+                Chunk chunk;
+                if (oldX >= 0 && oldX < WINDOW && oldY >= 0 && oldY < WINDOW) {
+                    chunk = chunks[oldY * WINDOW + oldX]; // Its tiles moved along
+                } else {
+                    chunk = load(x, y);
+                    loaded.add(chunk);
+                }
+                spare[y * WINDOW + x] = chunk;
+            }
+        }
+        Chunk[] previous = chunks;
+        chunks = spare;
+        spare = previous;
+        java.util.Arrays.fill(spare, null);
+        return true;
+    }
+
+    // -1, 0 or 1 chunks to move along one axis
+    private static int shift(int tile) {
+        int middle = (WINDOW / 2) * ChunkLayout.SIZE;
+        if (tile < middle - MARGIN) return -1;
+        if (tile >= middle + ChunkLayout.SIZE + MARGIN) return 1;
+        return 0;
+    }
+
+    private Chunk load(int x, int y) {
+        Chunk chunk = layout.generate(originX + x, originY + y);
+        write(chunk, x, y);
+        return chunk;
+    }
+
+    // Copies a chunk's tiles into its place in the window
+    private void write(Chunk chunk, int x, int y) {
+        TileMap source = chunk.getTiles();
+        int left = x * ChunkLayout.SIZE;
+        int bottom = y * ChunkLayout.SIZE;
+        for (int ty = 0; ty < ChunkLayout.SIZE; ty++) {
+            for (int tx = 0; tx < ChunkLayout.SIZE; tx++) {
+                tiles.set(left + tx, bottom + ty, TileType.byId(source.getId(tx, ty)));
+            }
+        }
+    }
+
+    /**
+     * @return The window's tiles; the same map for the whole run.
+     */
+    public TileMap getTiles() {
+        return tiles;
+    }
+
+    /**
+     * @return Chunk at a window position (0 to WINDOW - 1).
+     */
+    public Chunk getChunk(int x, int y) {
+        return chunks[y * WINDOW + x];
+    }
+
+    /**
+     * @return Chunk the player is in the middle of.
+     */
+    public Chunk getCenter() {
+        return getChunk(WINDOW / 2, WINDOW / 2);
+    }
+
+    /**
+     * @return Chunks the window moved by in the last {@link #update}; window coordinates moved by -shift.
+     */
+    public int getShiftX() {
+        return shiftX;
+    }
+
+    public int getShiftY() {
+        return shiftY;
+    }
+
+    public int getOriginX() {
+        return originX;
+    }
+
+    public int getOriginY() {
+        return originY;
+    }
+}
@@ -0,0 +1,483 @@
+package de.tum.cit.fop.maze.Procedure;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.World.MapFile;
+import de.tum.cit.fop.maze.World.TileMap;
+import de.tum.cit.fop.maze.World.TileType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rooms and corridors of an endless-mode floor, plus its room graph and where the
+ * level objects go. Needs no textures; the game's {@code DungeonGenerator} turns the
+ * placements into level objects.
+ * <p>
+ * All randomness comes from the layout's own generator, so a seed always gives the same floor.
+ */
+public class DungeonLayout {
+    /**
+     * Bumped whenever a seed would carve or furnish a different floor, so cached floors go stale.
+     */
+    public static final int VERSION = 2;
+    
+    public static final int MAX_SIZE = 1000;
+    
+    // BSP leaves are cut until no side is longer than MAX_LEAF; a leaf holds one room plus a margin
+    private static final int MIN_LEAF = 10;
+    private static final int MAX_LEAF = 20;
+    private static final int ROOM_MIN = 6;
+    private static final int ROOM_MAX = 12;
+    private static final int BUCKET = 32; // Tiles; rooms closer than this are corridor candidates
+    private static final float LOOP_CHANCE = 0.15f; // Of the candidates the spanning tree does not need
+    
+    private final int width, height;
+    private final long seed;
+    private final RandomXS128 random = new RandomXS128();
+    private byte[] tiles; // Written directly while carving, then wrapped into the map
+    private TileMap map;
+    private final List<Room> rooms = new ArrayList<>();
+    private de.tum.cit.fop.maze.AI.NavGraph navGraph;
+    
+    public DungeonLayout(int width, int height) {
+        this(width, height, MathUtils.random.nextLong());
+    }
+    
+    public DungeonLayout(int width, int height, long seed) {
+        this.width = width;
+        this.height = height;
+        this.seed = seed;
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * @return Side length of the endless-mode floor at a difficulty: grows by 2 per floor up to {@link #MAX_SIZE}.
+     */
+    public static int floorSize(int difficultyLevel) {
+        return Math.min(40 + difficultyLevel * 2, MAX_SIZE);
+    }
+    
+    /**
+     * Carves rooms and corridors. The floor is cut into BSP leaves with one room each,
+     * and the rooms are joined by a spanning tree of corridors plus a few loops.
+     * The first room is a natural start and the last one, the room the most corridors
+     * away from it, a natural goal.
+     * <p>
+     * The number of rooms follows the floor area; the difficulty only matters for {@link #compile}.
+     */
+    public TileMap generate(int difficultyLevel) {
+        // Reset
+        random.setSeed(seed);
+        tiles = new byte[width * height];
+        java.util.Arrays.fill(tiles, TileType.WALL.getId());
+        rooms.clear();
+        
+        // 1. Place Rooms (inside the outer wall), remembering one candidate corridor per BSP split
+        IntArray candidates = new IntArray(); // Room index pairs
+        split(1, 1, width - 2, height - 2, candidates);
+        
+        // 2. Connect Rooms: spanning tree over the candidates, shortest first, plus loops
+        addNeighbourCandidates(candidates);
+        IntArray corridors = connect(candidates);
+        for (int i = 0; i < corridors.size; i += 2) {
+            connectRooms(rooms.get(corridors.get(i)), rooms.get(corridors.get(i + 1)));
+        }
+        
+        // 3. Start anywhere, goal as far away as the corridors allow
+        orderRooms(corridors);
+        
+        map = new TileMap(width, height, tiles);
+        tiles = null;
+        navGraph = buildNavGraph(map, rooms);
+        return map;
+    }
+    
+    /**
+     * Cuts an area into BSP leaves and puts one room into each. Rooms keep a tile of
+     * margin to their leaf, so two rooms never touch. The rooms of an area end up
+     * contiguous in {@link #rooms}, and every split adds a candidate corridor across it.
+     */
+    private void split(int x, int y, int w, int h, IntArray candidates) {
+        if (w <= MAX_LEAF && h <= MAX_LEAF) {
+            if (w < ROOM_MIN + 2 || h < ROOM_MIN + 2) return; // Too small for a room (tiny floors only)
+            int rw = random(ROOM_MIN, Math.min(ROOM_MAX, w - 2));
+            int rh = random(ROOM_MIN, Math.min(ROOM_MAX, h - 2));
+            Room room = new Room(x + random(1, w - rw - 1), y + random(1, h - rh - 1), rw, rh);
+            rooms.add(room);
+            carveRoom(room);
+            return;
+        }
+        
+        int first = rooms.size();
+        int middle;
+        float lineX, lineY; // Center of the cut
+        if (w >= h) {
+            int cut = random(MIN_LEAF, w - MIN_LEAF);
+            split(x, y, cut, h, candidates);
+            middle = rooms.size();
+            split(x + cut, y, w - cut, h, candidates);
+            lineX = x + cut;
+            lineY = y + h / 2f;
+        } else {
+            int cut = random(MIN_LEAF, h - MIN_LEAF);
+            split(x, y, w, cut, candidates);
+            middle = rooms.size();
+            split(x, y + cut, w, h - cut, candidates);
+            lineX = x + w / 2f;
+            lineY = y + cut;
+        }
+        
+        // The rooms of both halves closest to the middle of the cut
+        int a = closestRoom(first, middle, lineX, lineY);
+        int b = closestRoom(middle, rooms.size(), lineX, lineY);
+        if (a >= 0 && b >= 0) {
+            candidates.add(a);
+            candidates.add(b);
+        }
+    }
+    
+    private int closestRoom(int from, int to, float x, float y) {
+        int best = -1;
+        float bestDistance = Float.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            Room room = rooms.get(i);
+            float distance = Vector2.dst2(room.x + room.width / 2f, room.y + room.height / 2f, x, y);
+            if (distance < bestDistance) {
+                best = i;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Adds a candidate corridor between every two rooms whose centers are less than
+     * {@link #BUCKET} tiles apart. Room centers are bucketed, so only the 3x3 buckets
+     * around a room are looked at.
+     */
+    private void addNeighbourCandidates(IntArray candidates) {
+        int bucketsX = width / BUCKET + 1;
+        int bucketsY = height / BUCKET + 1;
+        int[] head = new int[bucketsX * bucketsY];
+        int[] next = new int[rooms.size()];
+        java.util.Arrays.fill(head, -1);
+        for (int i = 0; i < rooms.size(); i++) {
+            Vector2 center = rooms.get(i).getCenter();
+            int bucket = ((int) center.y / BUCKET) * bucketsX + (int) center.x / BUCKET;
+            next[i] = head[bucket];
+            head[bucket] = i;
+        }
+        
+        for (int i = 0; i < rooms.size(); i++) {
+            Vector2 center = rooms.get(i).getCenter();
+            int bx = (int) center.x / BUCKET;
+            int by = (int) center.y / BUCKET;
+            for (int y = Math.max(0, by - 1); y <= Math.min(bucketsY - 1, by + 1); y++) {
+                for (int x = Math.max(0, bx - 1); x <= Math.min(bucketsX - 1, bx + 1); x++) {
+                    for (int j = head[y * bucketsX + x]; j >= 0; j = next[j]) {
+                        if (j <= i) continue; // Each pair once
+                        Vector2 other = rooms.get(j).getCenter();
+                        if (center.dst2(other) < BUCKET * BUCKET) {
+                            candidates.add(i);
+                            candidates.add(j);
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Kruskal over the candidates, shortest first: every candidate that joins two
+     * unconnected groups of rooms becomes a corridor, and of the others a few
+     * ({@link #LOOP_CHANCE}) do as well, so the floor is not a pure tree.
+     *
+     * @return Room index pairs to carve corridors between.
+     */
+    private IntArray connect(IntArray candidates) {
+        int count = candidates.size / 2;
+        long[] order = new long[count]; // Squared length, then candidate index
+        for (int i = 0; i < count; i++) {
+            Vector2 a = rooms.get(candidates.get(i * 2)).getCenter();
+            Vector2 b = rooms.get(candidates.get(i * 2 + 1)).getCenter();
+            order[i] = ((long) a.dst2(b) << 32) | i;
+        }
+        java.util.Arrays.sort(order);
+        
+        int[] group = new int[rooms.size()];
+        for (int i = 0; i < group.length; i++) group[i] = i;
+        
+        IntArray corridors = new IntArray();
+        for (long entry : order) {
+            int i = (int) entry;
+            int a = candidates.get(i * 2);
+            int b = candidates.get(i * 2 + 1);
+            int rootA = find(group, a);
+            int rootB = find(group, b);
+            if (rootA != rootB) {
+                group[rootA] = rootB;
+            } else if (random.nextFloat() >= LOOP_CHANCE) {
+                continue;
+            }
+            corridors.add(a);
+            corridors.add(b);
+        }
+        return corridors;
+    }
+    
+    private static int find(int[] group, int i) {
+        while (group[i] != i) {
+            group[i] = group[group[i]]; // Path halving
+            i = group[i];
+        }
+        return i;
+    }
+    
+    /**
+     * Moves a random room to the front and the room the most corridors away from it to the back.
+     */
+    private void orderRooms(IntArray corridors) {
+        if (rooms.size() < 2) return;
+        int n = rooms.size();
+        
+        // Corridors as adjacency lists (offsets into one array)
+        int[] offset = new int[n + 1];
+        for (int i = 0; i < corridors.size; i++) offset[corridors.get(i) + 1]++;
+        for (int i = 0; i < n; i++) offset[i + 1] += offset[i];
+        int[] fill = java.util.Arrays.copyOf(offset, n);
+        int[] neighbours = new int[corridors.size];
+        for (int i = 0; i < corridors.size; i += 2) {
+            int a = corridors.get(i);
+            int b = corridors.get(i + 1);
+            neighbours[fill[a]++] = b;
+            neighbours[fill[b]++] = a;
+        }
+        
+        // Breadth-first from the start; the last room reached is the farthest
+        int start = random.nextInt(n);
+        int[] queue = new int[n];
+        boolean[] seen = new boolean[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        seen[start] = true;
+        while (head < tail) {
+            int room = queue[head++];
+            for (int k = offset[room]; k < offset[room + 1]; k++) {
+                int other = neighbours[k];
+                if (!seen[other]) {
+                    seen[other] = true;
+                    queue[tail++] = other;
+                }
+            }
+        }
+        int goal = queue[tail - 1];
+        
+        Room startRoom = rooms.get(start);
+        Room goalRoom = rooms.get(goal);
+        rooms.remove(Math.max(start, goal));
+        if (start != goal) rooms.remove(Math.min(start, goal));
+        rooms.add(0, startRoom);
+        if (start != goal) rooms.add(goalRoom);
+    }
+    
+    /**
+     * Generates the floor and places the entry, exit, key, spawn points and traps on it.
+     */
+    public Floor compile(int difficultyLevel) {
+        generate(difficultyLevel);
+        Floor floor = new Floor(seed, difficultyLevel, map, new ArrayList<>(rooms), navGraph);
+        if (rooms.isEmpty()) return floor;
+        
+        // Helper to track occupied tiles (to prevent stacking traps on keys/exits)
+        boolean[] occupied = new boolean[width * height];
+        
+        // First Room: Entry
+        Vector2 entryPos = rooms.get(0).getCenter();
+        place(floor, occupied, MapFile.ENTRY, (int)entryPos.x, (int)entryPos.y);
+        
+        // Last Room: Exit
+        Vector2 exitPos = rooms.get(rooms.size() - 1).getCenter();
+        place(floor, occupied, MapFile.EXIT, (int)exitPos.x, (int)exitPos.y);
+        
+        // Key (Random Room except Start/End)
+        if (rooms.size() > 2) {
+            Vector2 keyPos = rooms.get(random(1, rooms.size() - 2)).getCenter();
+            place(floor, occupied, MapFile.KEY, (int)keyPos.x, (int)keyPos.y);
+        } else {
+            // Few rooms: shifted by 2 tiles from the exit
+            int kx = (int)exitPos.x + 2;
+            if (kx >= width) kx = (int)exitPos.x - 2;
+            place(floor, occupied, MapFile.KEY, kx, (int)exitPos.y);
+        }
+        
+        // Populate Enemies & Traps
+        int enemyCountPerRoom = 1 + (difficultyLevel / 2);
+        int trapCountPerRoom = 1 + (difficultyLevel / 3);
+        
+        for (int i = 1; i < rooms.size(); i++) { // Skip start room
+            Room r = rooms.get(i);
+            
+            for (int j = 0; j < enemyCountPerRoom; j++) {
+                int tile = getFreeRandomTile(r, occupied);
+                if (tile < 0) continue; // Room too full
+                place(floor, occupied, random.nextBoolean() ? MapFile.GHOST : MapFile.ENEMY, tile % width, tile / width);
+            }
+            
+            for (int j = 0; j < trapCountPerRoom; j++) {
+                int tile = getFreeRandomTile(r, occupied);
+                if (tile < 0) continue;
+                place(floor, occupied, MapFile.TRAP, tile % width, tile / width);
+            }
+        }
+        return floor;
+    }
+    
+    private void place(Floor floor, boolean[] occupied, int type, int x, int y) {
+        floor.addObject(type, x, y);
+        occupied[y * width + x] = true;
+    }
+    
+    // Free tile inside a room (y * width + x), or -1 after 10 misses
+    private int getFreeRandomTile(Room r, boolean[] occupied) {
+        for (int k = 0; k < 10; k++) {
+            Vector2 p = r.getRandomPoint(random);
+            int tile = (int)p.y * width + (int)p.x;
+            if (!occupied[tile]) {
+                return tile;
+            }
+        }
+        return -1;
+    }
+    
+    // Inclusive range, like MathUtils.random(int, int)
+    private int random(int start, int end) {
+        return start + random.nextInt(end - start + 1);
+    }
+    
+    /**
+     * @return The tile layer of the last generated layout.
+     */
+    public TileMap getMap() {
+        return map;
+    }
+    
+    /**
+     * @return The rooms of the last generated layout, in the order they are connected.
+     */
+    public List<Room> getRooms() {
+        return rooms;
+    }
+    
+    /**
+     * @return The room graph of the last generated layout.
+     */
+    public de.tum.cit.fop.maze.AI.NavGraph getNavGraph() {
+        return navGraph;
+    }
+    
+    /**
+     * Labels every floor tile with its room, or with the connected corridor piece
+     * it belongs to, and hands the labelling to the NavGraph.
+     */
+    static de.tum.cit.fop.maze.AI.NavGraph buildNavGraph(TileMap map, List<Room> rooms) {
+        int width = map.getWidth();
+        int height = map.getHeight();
+        int[] region = new int[width * height];
+        java.util.Arrays.fill(region, -1);
+        
+        // Rooms first (they never overlap)
+        for (int i = 0; i < rooms.size(); i++) {
+            Room room = rooms.get(i);
+            for (int x = room.x; x < room.x + room.width; x++) {
+                for (int y = room.y; y < room.y + room.height; y++) {
+                    region[y * width + x] = i;
+                }
+            }
+        }
+        
+        // Remaining floor: one region per connected corridor piece
+        int regionCount = rooms.size();
+        IntArray stack = new IntArray();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int index = y * width + x;
+                if (region[index] != -1 || map.isSolid(x, y)) continue;
+                
+                int id = regionCount++;
+                region[index] = id;
+                stack.add(index);
+                while (stack.size > 0) {
+                    int tile = stack.pop();
+                    int tx = tile % width;
+                    int ty = tile / width;
+                    if (tx > 0) fillCorridor(map, region, stack, tx - 1, ty, id);
+                    if (tx < width - 1) fillCorridor(map, region, stack, tx + 1, ty, id);
+                    if (ty > 0) fillCorridor(map, region, stack, tx, ty - 1, id);
+                    if (ty < height - 1) fillCorridor(map, region, stack, tx, ty + 1, id);
+                }
+            }
+        }
+        
+        return new de.tum.cit.fop.maze.AI.NavGraph(width, height, region, regionCount);
+    }
+    
+    private static void fillCorridor(TileMap map, int[] region, IntArray stack, int x, int y, int id) {
+        int index = y * map.getWidth() + x;
+        if (region[index] != -1 || map.isSolid(x, y)) return;
+        region[index] = id;
+        stack.add(index);
+    }
+    
+    private void carveRoom(Room room) {
+        byte floor = TileType.FLOOR.getId();
+        for (int y = room.y; y < room.y + room.height; y++) {
+            java.util.Arrays.fill(tiles, y * width + room.x, y * width + room.x + room.width, floor);
+        }
+    }
+    
+    private void connectRooms(Room r1, Room r2) {
+        Vector2 c1 = r1.getCenter();
+        Vector2 c2 = r2.getCenter();
+        
+        int x1 = (int)c1.x;
+        int y1 = (int)c1.y;
+        int x2 = (int)c2.x;
+        int y2 = (int)c2.y;
+        
+        // Randomly choose X-then-Y or Y-then-X
+        if (random.nextBoolean()) {
+            carveHCorridor(x1, x2, y1);
+            carveVCorridor(y1, y2, x2);
+        } else {
+            carveVCorridor(y1, y2, x1);
+            carveHCorridor(x1, x2, y2);
+        }
+    }
+    
+    private void carveHCorridor(int x1, int x2, int y) {
+        for (int x = Math.min(x1, x2); x <= Math.max(x1, x2); x++) {
+            carvePoint(x, y);
+            carvePoint(x, y+1); // Wide corridors (2 tiles) for easy movement
+        }
+    }
+    
+    private void carveVCorridor(int y1, int y2, int x) {
+        for (int y = Math.min(y1, y2); y <= Math.max(y1, y2); y++) {
+            carvePoint(x, y);
+            carvePoint(x+1, y);
+        }
+    }
+    
+    private void carvePoint(int x, int y) {
+        if (x > 0 && x < width - 1 && y > 0 && y < height - 1) {
+            tiles[y * width + x] = TileType.FLOOR.getId();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package de.tum.cit.fop.maze.Procedure;
+
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.AI.NavGraph;
+import de.tum.cit.fop.maze.World.MapFile;
+import de.tum.cit.fop.maze.World.TileMap;
+
+import java.util.List;
+
+/**
+ * A compiled endless-mode floor: tiles, rooms, room graph and the placements of the
+ * level objects as {@link MapFile} types. Holds no textures, so it can be built on any
+ * thread and stored in a {@link FloorCache}.
+ */
+public class Floor {
+    private final long seed;
+    private final int difficulty;
+    private final TileMap tiles;
+    private final List<Room> rooms;
+    private final NavGraph navGraph;
+
+    // Placements, one entry per object
+    private final IntArray types = new IntArray();
+    private final IntArray positions = new IntArray(); // y * width + x
+
+    public Floor(long seed, int difficulty, TileMap tiles, List<Room> rooms, NavGraph navGraph) {
+        this.seed = seed;
+        this.difficulty = difficulty;
+        this.tiles = tiles;
+        this.rooms = rooms;
+        this.navGraph = navGraph;
+    }
+
+    public void addObject(int type, int x, int y) {
+        types.add(type);
+        positions.add(y * tiles.getWidth() + x);
+    }
+
+    public int getObjectCount() {
+        return types.size;
+    }
+
+    /**
+     * @return The {@link MapFile} type of an object.
+     */
+    public int getObjectType(int i) {
+        return types.get(i);
+    }
+
+    public int getObjectX(int i) {
+        return positions.get(i) % tiles.getWidth();
+    }
+
+    public int getObjectY(int i) {
+        return positions.get(i) / tiles.getWidth();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getDifficulty() {
+        return difficulty;
+    }
+
+    public TileMap getTiles() {
+        return tiles;
+    }
+
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    public NavGraph getNavGraph() {
+        return navGraph;
+    }
+}
@@ -0,0 +1,137 @@
+package de.tum.cit.fop.maze.Procedure;
+
+import com.badlogic.gdx.files.FileHandle;
+import de.tum.cit.fop.maze.World.TileMap;
+import de.tum.cit.fop.maze.World.TileType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compiled floors on disk, one deflated file per (seed, size, difficulty), so that a
+ * floor seen before (a retry, a shared seed) is read back instead of generated.
+ * <p>
+ * Files written by another {@link DungeonLayout#VERSION} are ignored. Only the newest
+ * {@link #MAX_FILES} floors are kept.
+ */
+public class FloorCache {
+    private static final int MAGIC = 0x464C5200; // "FLR\0"
+    private static final int MAX_FILES = 64;
+    private static final String SUFFIX = ".floor";
+
+    private final FileHandle dir;
+
+    public FloorCache(FileHandle dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * @return The cached floor, or null if there is none for this key.
+     * @throws IOException If the file exists but cannot be read.
+     */
+    public Floor load(long seed, int width, int height, int difficulty) throws IOException {
+        FileHandle file = fileFor(seed, width, height, difficulty);
+        if (!file.exists()) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(file.read())))) {
+            if (in.readInt() != MAGIC || in.readInt() != DungeonLayout.VERSION) return null;
+            if (in.readLong() != seed || in.readInt() != width || in.readInt() != height || in.readInt() != difficulty) {
+                return null;
+            }
+
+            byte[] ids = new byte[width * height];
+            in.readFully(ids);
+            for (byte id : ids) {
+                if (!TileType.isId(id)) throw new IOException("Unknown tile id " + id + " in " + file.name());
+            }
+            TileMap tiles = new TileMap(width, height, ids);
+
+            int roomCount = in.readInt();
+            List<Room> rooms = new ArrayList<>(roomCount);
+            for (int i = 0; i < roomCount; i++) {
+                rooms.add(new Room(in.readInt(), in.readInt(), in.readInt(), in.readInt()));
+            }
+
+            Floor floor = new Floor(seed, difficulty, tiles, rooms, DungeonLayout.buildNavGraph(tiles, rooms));
+            int objectCount = in.readInt();
+            for (int i = 0; i < objectCount; i++) {
+                int type = in.readByte();
+                floor.addObject(type, in.readInt(), in.readInt());
+            }
+            return floor;
+        }
+    }
+
+    /**
+     * Stores a floor, replacing any earlier file for its key. The file is written next to
+     * its final name and then moved, so readers never see half a floor.
+     */
+    public void save(Floor floor) throws IOException {
+        TileMap tiles = floor.getTiles();
+        int width = tiles.getWidth();
+        int height = tiles.getHeight();
+        FileHandle file = fileFor(floor.getSeed(), width, height, floor.getDifficulty());
+        FileHandle temp = file.sibling(file.name() + ".tmp");
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new DeflaterOutputStream(temp.write(false), deflater)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(DungeonLayout.VERSION);
+            out.writeLong(floor.getSeed());
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(floor.getDifficulty());
+
+            byte[] ids = new byte[width * height];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    ids[y * width + x] = tiles.getId(x, y);
+                }
+            }
+            out.write(ids);
+
+            out.writeInt(floor.getRooms().size());
+            for (Room room : floor.getRooms()) {
+                out.writeInt(room.x);
+                out.writeInt(room.y);
+                out.writeInt(room.width);
+                out.writeInt(room.height);
+            }
+
+            out.writeInt(floor.getObjectCount());
+            for (int i = 0; i < floor.getObjectCount(); i++) {
+                out.writeByte(floor.getObjectType(i));
+                out.writeInt(floor.getObjectX(i));
+                out.writeInt(floor.getObjectY(i));
+            }
+        } finally {
+            deflater.end();
+        }
+        temp.moveTo(file);
+        prune();
+    }
+
+    private FileHandle fileFor(long seed, int width, int height, int difficulty) {
+        return dir.child(String.format("%016x-%dx%d-%d%s", seed, width, height, difficulty, SUFFIX));
+    }
+
+    // Drops the oldest floors beyond MAX_FILES
+    private void prune() {
+        FileHandle[] files = dir.list(SUFFIX);
+        if (files.length <= MAX_FILES) return;
+        Arrays.sort(files, Comparator.comparingLong(FileHandle::lastModified));
+        for (int i = 0; i < files.length - MAX_FILES; i++) {
+            files[i].delete();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package de.tum.cit.fop.maze.Procedure;
+
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.World.TileMap;
+import de.tum.cit.fop.maze.World.TileType;
+
+import java.util.Random;
+
+/**
+ * Where the heart and shield pickups of a level go. The map is cut into chunks of
+ * {@link #CHUNK_TILES}x{@link #CHUNK_TILES} tiles; each chunk with floor in it gets a heart
+ * with 50% and a shield with 20% chance, each on a random floor tile of the chunk.
+ */
+public final class Pickups {
+    public static final int CHUNK_TILES = 16;
+
+    private Pickups() {
+    }
+
+    /**
+     * Adds the chosen tiles (y * width + x) to {@code hearts} and {@code shields}.
+     */
+    public static void scatter(TileMap tiles, Random random, IntArray hearts, IntArray shields) {
+        int width = tiles.getWidth();
+        int height = tiles.getHeight();
+        int chunksX = (width + CHUNK_TILES - 1) / CHUNK_TILES;
+        int chunksY = (height + CHUNK_TILES - 1) / CHUNK_TILES;
+        IntArray chunkFloors = new IntArray();
+
+        for (int cy = 0; cy < chunksY; cy++) {
+            for (int cx = 0; cx < chunksX; cx++) {
+                // 1. Collect floor tiles of this chunk
+                chunkFloors.clear();
+                for (int y = cy * CHUNK_TILES; y < Math.min((cy + 1) * CHUNK_TILES, height); y++) {
+                    for (int x = cx * CHUNK_TILES; x < Math.min((cx + 1) * CHUNK_TILES, width); x++) {
+                        if (tiles.get(x, y) == TileType.FLOOR) {
+                            chunkFloors.add(y * width + x);
+                        }
+                    }
+                }
+                if (chunkFloors.isEmpty()) continue;
+
+                // 2. Spawn per chunk (a heart and a shield may share a tile)
+                if (random.nextFloat() < 0.5f) {
+                    hearts.add(chunkFloors.get(random.nextInt(chunkFloors.size)));
+                }
+                if (random.nextFloat() < 0.2f) {
+                    shields.add(chunkFloors.get(random.nextInt(chunkFloors.size)));
+                }
+            }
+        }
+    }
+}
@@ -24,9 +24,16 @@ public Vector2 getCenter() {
     }
     
     public Vector2 getRandomPoint() {
+        return getRandomPoint(MathUtils.random);
+    }
+    
+    /**
+     * @return A tile inside the room, one tile away from its walls, drawn from the given generator.
+     */
+    public Vector2 getRandomPoint(java.util.Random random) {
         return new Vector2(
-            MathUtils.random(x + 1, x + width - 2),
-            MathUtils.random(y + 1, y + height - 2)
+            x + 1 + random.nextInt(width - 2),
+            y + 1 + random.nextInt(height - 2)
         );
     }
 }
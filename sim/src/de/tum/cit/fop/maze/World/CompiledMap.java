@@ -0,0 +1,269 @@
+package de.tum.cit.fop.maze.World;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * A level map as the game loads it: the tile layer plus the entities on it, as
+ * {@link MapFile} types. Maps are written in the .properties format ({@link MapFile#compile})
+ * and converted at build time into the binary .map format read here ({@link MapCompiler}).
+ * <p>
+ * Binary layout, big-endian:
+ * <pre>
+ * int    magic "MZM\0", format version
+ * int    width, height
+ * int    payload length, CRC32 of the header fields above and the payload
+ * byte   layer count; per layer: byte layer id, int run count, runs of (byte tile id, varint length)
+ * int    entity count; per entity: byte type, unsigned short x, unsigned short y
+ * </pre>
+ * Tile runs go row by row from the bottom-left tile (index y * width + x). Run lengths are
+ * unsigned LEB128 varints, so the short runs of a maze take a single byte.
+ */
+public class CompiledMap {
+    public static final String SUFFIX = ".map";
+    public static final int VERSION = 2;
+
+    private static final int MAGIC = 0x4D5A4D00; // "MZM\0"
+    private static final int HEADER_BYTES = 6 * 4;
+    private static final int LAYER_TILES = 0;
+    private static final int MAX_SIZE = 0xFFFF; // Entity coordinates are unsigned shorts
+    private static final long MAX_TILES = 4096L * 4096L; // Tile ids are read into one array
+    private static final int ENTITY_BYTES = 5;
+
+    private final TileMap tiles;
+
+    // Entities, one entry per object
+    private final IntArray types = new IntArray();
+    private final IntArray positions = new IntArray(); // y * width + x
+
+    public CompiledMap(TileMap tiles) {
+        this.tiles = tiles;
+    }
+
+    public void addObject(int type, int x, int y) {
+        types.add(type);
+        positions.add(y * tiles.getWidth() + x);
+    }
+
+    public int getObjectCount() {
+        return types.size;
+    }
+
+    /**
+     * @return The {@link MapFile} type of an object.
+     */
+    public int getObjectType(int i) {
+        return types.get(i);
+    }
+
+    public int getObjectX(int i) {
+        return positions.get(i) % tiles.getWidth();
+    }
+
+    public int getObjectY(int i) {
+        return positions.get(i) / tiles.getWidth();
+    }
+
+    public TileMap getTiles() {
+        return tiles;
+    }
+
+    /**
+     * @return Where the compiled form of a .properties map goes: next to it, with {@link #SUFFIX}.
+     */
+    public static FileHandle fileFor(FileHandle source) {
+        return source.sibling(source.nameWithoutExtension() + SUFFIX);
+    }
+
+    /**
+     * Reads a compiled map through a file channel (or from the classpath, inside a jar).
+     *
+     * @throws IOException If the file cannot be read or is not a valid compiled map of this version.
+     */
+    public static CompiledMap read(FileHandle file) throws IOException {
+        ByteBuffer buffer;
+        if (file.type() == Files.FileType.Classpath || !file.file().exists()) {
+            buffer = ByteBuffer.wrap(file.readBytes()); // Packed into the jar, no channel to read from
+        } else {
+            try (FileChannel channel = FileChannel.open(file.file().toPath(), StandardOpenOption.READ)) {
+                buffer = ByteBuffer.allocate((int) channel.size());
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // Read until full or end of file
+                }
+                buffer.flip();
+            }
+        }
+        return read(buffer);
+    }
+
+    /**
+     * Decodes a compiled map from a buffer positioned at its first byte.
+     */
+    public static CompiledMap read(ByteBuffer buffer) throws IOException {
+        ByteBuffer header = buffer.duplicate();
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a compiled map");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Compiled map version " + version + ", expected " + VERSION);
+        }
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (width <= 0 || height <= 0 || width > MAX_SIZE || height > MAX_SIZE || length != buffer.remaining()) {
+            throw new IOException("Compiled map is truncated or has a bad header");
+        }
+        header.limit(header.position() + HEADER_BYTES - 4);
+        CRC32 crc = new CRC32();
+        crc.update(header);
+        crc.update(buffer.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Compiled map checksum mismatch");
+        }
+        if ((long) width * height > MAX_TILES) {
+            throw new IOException("Compiled map too large: " + width + "x" + height);
+        }
+
+        try {
+            // 1. Tile layers (unknown layers are skipped, for newer converters)
+            byte[] ids = new byte[width * height];
+            int layers = buffer.get();
+            for (int layer = 0; layer < layers; layer++) {
+                int layerId = buffer.get();
+                int runs = buffer.getInt();
+                int at = 0;
+                for (int run = 0; run < runs; run++) {
+                    byte id = buffer.get();
+                    int runLength = getVarint(buffer);
+                    if (runLength < 0 || runLength > ids.length - at) throw new IOException("Compiled map tile runs overflow the map");
+                    if (layerId == LAYER_TILES) {
+                        if (!TileType.isId(id)) throw new IOException("Compiled map has an unknown tile id " + id);
+                        Arrays.fill(ids, at, at + runLength, id);
+                    }
+                    at += runLength;
+                }
+                if (at != ids.length) throw new IOException("Compiled map tile runs do not cover the map");
+            }
+            CompiledMap map = new CompiledMap(new TileMap(width, height, ids));
+
+            // 2. Entities
+            int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining() / ENTITY_BYTES) throw new IOException("Compiled map is truncated");
+            for (int i = 0; i < count; i++) {
+                int type = buffer.get();
+                int x = Short.toUnsignedInt(buffer.getShort());
+                int y = Short.toUnsignedInt(buffer.getShort());
+                if (x >= width || y >= height) throw new IOException("Compiled map entity outside the map");
+                map.addObject(type, x, y);
+            }
+            return map;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Compiled map is truncated", e);
+        }
+    }
+
+    /**
+     * Writes the map in the binary format. The file is written next to its final name and
+     * then moved, so the game never reads half a map.
+     */
+    public void write(FileHandle file) throws IOException {
+        int width = tiles.getWidth();
+        int height = tiles.getHeight();
+        if (width > MAX_SIZE || height > MAX_SIZE || (long) width * height > MAX_TILES) {
+            throw new IOException("Map too large for the compiled format: " + width + "x" + height);
+        }
+
+        // 1. Tile runs
+        IntArray runs = new IntArray(); // id, length
+        int cells = width * height;
+        for (int start = 0; start < cells; ) {
+            byte id = tiles.getId(start % width, start / width);
+            int end = start + 1;
+            while (end < cells && tiles.getId(end % width, end / width) == id) {
+                end++;
+            }
+            runs.add(id, end - start);
+            start = end;
+        }
+
+        // 2. Payload
+        int runBytes = 0;
+        for (int i = 1; i < runs.size; i += 2) {
+            runBytes += 1 + varintBytes(runs.get(i));
+        }
+        int payloadBytes = 1 + (1 + 4 + runBytes) + (4 + types.size * ENTITY_BYTES);
+        ByteBuffer payload = ByteBuffer.allocate(payloadBytes);
+        payload.put((byte) 1);
+        payload.put((byte) LAYER_TILES);
+        payload.putInt(runs.size / 2);
+        for (int i = 0; i < runs.size; i += 2) {
+            payload.put((byte) runs.get(i));
+            putVarint(payload, runs.get(i + 1));
+        }
+        payload.putInt(types.size);
+        for (int i = 0; i < types.size; i++) {
+            payload.put((byte) types.get(i));
+            payload.putShort((short) getObjectX(i));
+            payload.putShort((short) getObjectY(i));
+        }
+        payload.flip();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height).putInt(payloadBytes);
+        CRC32 crc = new CRC32();
+        crc.update(header.array(), 0, header.position());
+        crc.update(payload.duplicate());
+        header.putInt((int) crc.getValue());
+        header.flip();
+
+        // 3. Header and payload in one go
+        FileHandle temp = file.sibling(file.name() + ".tmp");
+        temp.parent().mkdirs();
+        try (FileChannel channel = FileChannel.open(temp.file().toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {header, payload};
+            while (payload.hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+        temp.moveTo(file);
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int varintBytes(int value) {
+        int bytes = 1;
+        while ((value & ~0x7F) != 0) {
+            bytes++;
+            value >>>= 7;
+        }
+        return bytes;
+    }
+
+    private static int getVarint(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IOException("Compiled map has a malformed run length");
+    }
+}
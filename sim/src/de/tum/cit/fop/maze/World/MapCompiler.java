@@ -0,0 +1,42 @@
+package de.tum.cit.fop.maze.World;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Build-time converter from .properties maps to {@link CompiledMap} files, each written
+ * next to its source.
+ * <p>
+ * Usage: {@code ./gradlew :sim:compileMaps}, or run with map files and/or directories as arguments.
+ */
+public final class MapCompiler {
+
+    private MapCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        for (String arg : args) {
+            File path = new File(arg);
+            File[] sources = path.isDirectory()
+                ? path.listFiles((dir, name) -> name.endsWith(".properties"))
+                : new File[] {path};
+            if (sources == null) continue;
+            for (File source : sources) {
+                compile(new FileHandle(source));
+            }
+        }
+    }
+
+    /**
+     * Converts one map. Fails if it cannot be read or written.
+     */
+    public static void compile(FileHandle source) throws IOException {
+        FileHandle target = CompiledMap.fileFor(source);
+        CompiledMap map = MapFile.compile(MapFile.read(source));
+        map.write(target);
+        System.out.printf("%s -> %s (%d -> %d bytes, %dx%d, %d entities)%n", source.name(), target.name(),
+            source.length(), target.length(), map.getTiles().getWidth(), map.getTiles().getHeight(), map.getObjectCount());
+    }
+}
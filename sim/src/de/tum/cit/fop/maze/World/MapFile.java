@@ -0,0 +1,116 @@
+package de.tum.cit.fop.maze.World;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * The .properties map format: one "x,y" key per non-floor tile, holding the
+ * type of what is there. Optional "Width"/"Height" keys give the map size.
+ * <p>
+ * This is the authoring format; the game prefers the binary {@link CompiledMap}
+ * converted from it. Only tiles and entity types are read here; turning the
+ * types into level objects is up to the game.
+ */
+public final class MapFile {
+    public static final int WALL = 0;
+    public static final int ENTRY = 1;
+    public static final int EXIT = 2;
+    public static final int TRAP = 3;
+    public static final int ENEMY = 4;
+    public static final int KEY = 5;
+    public static final int GHOST = 6;
+    public static final int NONE = -1; // Plain floor
+
+    private MapFile() {
+    }
+
+    public static Properties read(FileHandle mapFile) throws IOException {
+        Properties props = new Properties();
+        try (InputStream in = mapFile.read()) {
+            props.load(in);
+        }
+        return props;
+    }
+
+    /**
+     * Loads only the wall/floor layer of a map file.
+     */
+    public static TileMap loadTiles(FileHandle mapFile) throws IOException {
+        return buildTiles(read(mapFile));
+    }
+
+    /**
+     * @return The type at a tile, or {@link #NONE}.
+     */
+    public static int typeAt(Properties props, int x, int y) {
+        String value = props.getProperty(x + "," + y);
+        return value != null ? Integer.parseInt(value.trim()) : NONE;
+    }
+
+    public static TileMap buildTiles(Properties props) {
+        return compile(props).getTiles();
+    }
+
+    /**
+     * Parses a map in one pass over its keys: walls go into the tile layer, every other
+     * type becomes an entity (in row order, bottom-left first). Keys that are not "x,y"
+     * coordinates inside the map are ignored.
+     */
+    public static CompiledMap compile(Properties props) {
+        // 1. 动态读取地图宽高，如果没有定义则根据坐标推算，最后默认为 15
+        int mapWidth = Integer.parseInt(props.getProperty("Width", "-1"));
+        int mapHeight = Integer.parseInt(props.getProperty("Height", "-1"));
+        IntArray cells = new IntArray(props.size() * 3); // x, y, type of every coordinate key
+        int maxX = 14;
+        int maxY = 14;
+        for (String name : props.stringPropertyNames()) {
+            int comma = name.indexOf(',');
+            if (comma < 0) continue;
+            try {
+                int x = Integer.parseInt(name.substring(0, comma).trim());
+                int y = Integer.parseInt(name.substring(comma + 1).trim());
+                int type = Integer.parseInt(props.getProperty(name).trim());
+                cells.add(x, y, type);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+            } catch (NumberFormatException ignored) {
+                // Not a coordinate key
+            }
+        }
+        if (mapWidth < 0) mapWidth = maxX + 1;
+        if (mapHeight < 0) mapHeight = maxY + 1;
+
+        /**
+         * 核心逻辑：分层渲染
+         * 墙和地板只写入 TileMap（每格一个字节），
+         * 陷阱、敌人、钥匙等可交互的东西才创建 GameObject。
+         */
+        byte[] tiles = new byte[mapWidth * mapHeight];
+        Arrays.fill(tiles, TileType.FLOOR.getId());
+        int[] types = new int[mapWidth * mapHeight]; // Type + 1 per tile, 0 = nothing
+        for (int i = 0; i < cells.size; i += 3) {
+            int x = cells.get(i);
+            int y = cells.get(i + 1);
+            int type = cells.get(i + 2);
+            if (x < 0 || y < 0 || x >= mapWidth || y >= mapHeight) continue;
+            if (type == WALL) {
+                tiles[y * mapWidth + x] = TileType.WALL.getId();
+            } else if (type != NONE) {
+                types[y * mapWidth + x] = type + 1;
+            }
+        }
+
+        CompiledMap map = new CompiledMap(new TileMap(mapWidth, mapHeight, tiles));
+        for (int tile = 0; tile < types.length; tile++) {
+            if (types[tile] != 0) {
+                map.addObject(types[tile] - 1, tile % mapWidth, tile / mapWidth);
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,119 @@
+package de.tum.cit.fop.maze.World;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectLongMap;
+
+/**
+ * Uniform-grid spatial hash for entities that move around the world.
+ * Entities are bucketed by the cell containing their anchor point; moving an
+ * entity only touches the hash when it crosses a cell boundary.
+ *
+ * @param <T> Entity type
+ */
+public class SpatialHash<T> {
+    private final float cellSize;
+    private final LongMap<Array<T>> buckets = new LongMap<>();
+    private final ObjectLongMap<T> cellOf = new ObjectLongMap<>();
+    private final Array<Array<T>> freeBuckets = new Array<>(false, 16);
+
+    public SpatialHash(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Adds an entity or moves it to the cell containing (x, y).
+     *
+     * @return true if the entity ended up in a different cell than before.
+     */
+    public boolean update(T entity, float x, float y) {
+        long key = key(cellX(x), cellY(y));
+        if (cellOf.containsKey(entity)) {
+            long old = cellOf.get(entity, 0);
+            if (old == key) return false;
+            removeFromBucket(entity, old);
+        }
+        Array<T> bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = freeBuckets.isEmpty() ? new Array<T>(false, 4) : freeBuckets.pop();
+            buckets.put(key, bucket);
+        }
+        bucket.add(entity);
+        cellOf.put(entity, key);
+        return true;
+    }
+
+    public void remove(T entity) {
+        if (cellOf.containsKey(entity)) {
+            removeFromBucket(entity, cellOf.remove(entity, 0));
+        }
+    }
+
+    public void clear() {
+        for (Array<T> bucket : buckets.values()) {
+            bucket.clear();
+            freeBuckets.add(bucket);
+        }
+        buckets.clear();
+        cellOf.clear();
+    }
+
+    /**
+     * Collects every entity whose cell overlaps the given rectangle. The result is a
+     * superset: callers still test the exact bounds of each candidate.
+     */
+    public Array<T> query(Rectangle area, Array<T> out) {
+        int minX = cellX(area.x);
+        int maxX = cellX(area.x + area.width);
+        int minY = cellY(area.y);
+        int maxY = cellY(area.y + area.height);
+        for (int cy = minY; cy <= maxY; cy++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                Array<T> bucket = buckets.get(key(cx, cy));
+                if (bucket != null) {
+                    out.addAll(bucket);
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * @return The entities in a single cell, or null if it is empty.
+     */
+    public Array<T> getCell(int cx, int cy) {
+        return buckets.get(key(cx, cy));
+    }
+
+    public int cellX(float x) {
+        return MathUtils.floor(x / cellSize);
+    }
+
+    public int cellY(float y) {
+        return MathUtils.floor(y / cellSize);
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    public int size() {
+        return cellOf.size;
+    }
+
+    private void removeFromBucket(T entity, long key) {
+        Array<T> bucket = buckets.get(key);
+        if (bucket == null) return;
+        bucket.removeValue(entity, true);
+        if (bucket.isEmpty()) {
+            buckets.remove(key);
+            freeBuckets.add(bucket);
+        }
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+}
@@ -0,0 +1,109 @@
+package de.tum.cit.fop.maze.World;
+
+/**
+ * Compact static tile layer of a level: one byte per cell holding a {@link TileType} id.
+ * Floors and walls never move, so they are stored here instead of as one
+ * GameObject per tile. Index layout is y * width + x.
+ */
+public class TileMap {
+    public static final int TILE_SIZE = 16;
+
+    private final int width;
+    private final int height;
+    private final byte[] tiles;
+
+    /**
+     * Notified whenever a single tile changes (e.g. so cached geometry can be rebuilt).
+     */
+    public interface ChangeListener {
+        void tileChanged(int x, int y);
+
+        /** Called after {@link #shift}, instead of one call per moved tile. */
+        void mapShifted(int dx, int dy);
+    }
+
+    private ChangeListener changeListener;
+
+    public TileMap(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.tiles = new byte[width * height];
+    }
+
+    /**
+     * Wraps tile ids that were written directly (y * width + x). The map takes over the array.
+     */
+    public TileMap(int width, int height, byte[] tiles) {
+        this.width = width;
+        this.height = height;
+        this.tiles = tiles;
+    }
+
+    /**
+     * Sets every cell to the given type.
+     */
+    public void fill(TileType type) {
+        java.util.Arrays.fill(tiles, type.getId());
+    }
+
+    public TileType get(int x, int y) {
+        if (!inBounds(x, y)) return TileType.EMPTY;
+        return TileType.byId(tiles[y * width + x]);
+    }
+
+    public byte getId(int x, int y) {
+        if (!inBounds(x, y)) return TileType.EMPTY.getId();
+        return tiles[y * width + x];
+    }
+
+    public void set(int x, int y, TileType type) {
+        if (inBounds(x, y)) {
+            int index = y * width + x;
+            if (tiles[index] == type.getId()) return;
+            tiles[index] = type.getId();
+            if (changeListener != null) {
+                changeListener.tileChanged(x, y);
+            }
+        }
+    }
+
+    /**
+     * Moves every tile by (dx, dy); tiles moved out are dropped and the cells left
+     * behind become {@link TileType#EMPTY}. Used by the infinite mode's moving window.
+     */
+    public void shift(int dx, int dy) {
+        byte empty = TileType.EMPTY.getId();
+        int rowLength = width - Math.abs(dx);
+        // Walk the rows so that no source row is overwritten before it was copied
+        for (int i = 0; i < height; i++) {
+            int y = dy > 0 ? height - 1 - i : i;
+            int row = y * width;
+            int fromY = y - dy;
+            if (fromY < 0 || fromY >= height || rowLength <= 0) {
+                java.util.Arrays.fill(tiles, row, row + width, empty);
+                continue;
+            }
+            System.arraycopy(tiles, fromY * width + Math.max(0, -dx), tiles, row + Math.max(0, dx), rowLength);
+            if (dx > 0) java.util.Arrays.fill(tiles, row, row + dx, empty);
+            if (dx < 0) java.util.Arrays.fill(tiles, row + rowLength, row + width, empty);
+        }
+        if (changeListener != null) {
+            changeListener.mapShifted(dx, dy);
+        }
+    }
+
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    public boolean isSolid(int x, int y) {
+        return get(x, y).isSolid();
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+}
@@ -0,0 +1,39 @@
+package de.tum.cit.fop.maze.World;
+
+/**
+ * Shared tile definition table. Every cell of a {@link TileMap} only stores the
+ * id of its tile type; all per-type data (solidity, texture) lives here and in
+ * {@code TileSet} so that thousands of tiles do not carry their own objects.
+ */
+public enum TileType {
+    EMPTY(false),   // Outside of the carved map, nothing is drawn
+    FLOOR(false),
+    WALL(true);
+
+    private static final TileType[] BY_ID = values();
+
+    private final boolean solid;
+
+    TileType(boolean solid) {
+        this.solid = solid;
+    }
+
+    public byte getId() {
+        return (byte) ordinal();
+    }
+
+    public boolean isSolid() {
+        return solid;
+    }
+
+    public static TileType byId(int id) {
+        return BY_ID[id];
+    }
+
+    /**
+     * @return Whether {@link #byId} knows the id, for data read from files.
+     */
+    public static boolean isId(int id) {
+        return id >= 0 && id < BY_ID.length;
+    }
+}
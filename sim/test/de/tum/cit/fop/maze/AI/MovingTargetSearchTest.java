@@ -0,0 +1,84 @@
+package de.tum.cit.fop.maze.AI;
+
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.World.TileMap;
+import de.tum.cit.fop.maze.World.TileType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The incremental planner against plain A* along random chases: every replan
+ * must be as long as a fresh search, including the ones that find no path.
+ */
+public class MovingTargetSearchTest {
+    private static final int SIZE = 24;
+
+    @Test
+    public void chaseMatchesAStar() {
+        for (int seed = 0; seed < 40; seed++) {
+            chase(seed, false);
+        }
+    }
+
+    @Test
+    public void chaseWithChangingWallsMatchesAStar() {
+        for (int seed = 0; seed < 40; seed++) {
+            chase(seed, true);
+        }
+    }
+
+    private static void chase(long seed, boolean changeWalls) {
+        Random random = new Random(seed);
+        TileMap tiles = new TileMap(SIZE, SIZE);
+        tiles.fill(TileType.FLOOR);
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                if (random.nextInt(100) < 30) tiles.set(x, y, TileType.WALL);
+            }
+        }
+        Grid grid = new Grid(tiles, new ArrayList<>());
+        int chaser = randomFloor(grid, random);
+        int target = randomFloor(grid, random);
+
+        MovingTargetSearch planner = new MovingTargetSearch();
+        IntArray plan = new IntArray();
+        IntArray expected = new IntArray();
+        for (int step = 0; step < 200; step++) {
+            if (changeWalls && random.nextInt(10) == 0) {
+                int tile = random.nextInt(SIZE * SIZE);
+                if (tile != chaser && tile != target) {
+                    grid.setWalkable(tile % SIZE, tile / SIZE, !grid.isWalkableIndex(tile));
+                }
+            }
+            target = wander(grid, target, random);
+
+            boolean found = planner.update(grid, chaser % SIZE, chaser / SIZE, target % SIZE, target / SIZE, Integer.MAX_VALUE, plan);
+            boolean exists = AStarSearch.get().search(grid, chaser % SIZE, chaser / SIZE, target % SIZE, target / SIZE, expected);
+            String at = "seed " + seed + " step " + step;
+            assertEquals(at, exists, found);
+            if (!found) continue;
+            assertEquals(at, expected.size, plan.size);
+            if (plan.size > 1) chaser = plan.get(1);
+        }
+    }
+
+    private static int randomFloor(Grid grid, Random random) {
+        int tile;
+        do {
+            tile = random.nextInt(SIZE * SIZE);
+        } while (!grid.isWalkableIndex(tile));
+        return tile;
+    }
+
+    // One step to a random open neighbour, or stay
+    private static int wander(Grid grid, int tile, Random random) {
+        int x = tile % SIZE + random.nextInt(3) - 1;
+        int y = tile / SIZE;
+        if (x == tile % SIZE) y += random.nextInt(3) - 1;
+        return grid.isWalkable(x, y) ? y * SIZE + x : tile;
+    }
+}
@@ -0,0 +1,166 @@
+package de.tum.cit.fop.maze.GameObj;
+
+import com.badlogic.gdx.math.Rectangle;
+import de.tum.cit.fop.maze.AI.FieldOfView;
+import de.tum.cit.fop.maze.AI.FlowField;
+import de.tum.cit.fop.maze.AI.Grid;
+import de.tum.cit.fop.maze.AI.PathService;
+import de.tum.cit.fop.maze.Procedure.DungeonLayout;
+import de.tum.cit.fop.maze.World.TileMap;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * A seeded simulation must not depend on threads: the think phase on a pool and
+ * path searches on the path workers give the same positions and states
+ * as a serial run, frame by frame.
+ */
+public class EnemyStoreDeterminismTest {
+    private static final int SIZE = 120;
+    private static final int ENEMIES = 1500;
+    private static final int TICKS = 600;
+
+    private static ForkJoinPool pool;
+
+    private static class Player implements EnemyStore.Target {
+        final Rectangle bounds = new Rectangle(0, 0, 8, 8);
+
+        @Override
+        public Rectangle getBounds() {
+            return bounds;
+        }
+
+        @Override
+        public boolean isShielded() {
+            return false;
+        }
+
+        @Override
+        public void takeDamage() {
+        }
+    }
+
+    private static class Agent implements EnemyStore.View {
+        int index;
+
+        @Override
+        public void attach(EnemyStore<?> store, int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void detach() {
+        }
+
+        @Override
+        public int getIndex() {
+            return index;
+        }
+    }
+
+    @BeforeClass
+    public static void createPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void shutDownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void synchronousSearchesMatchSerial() {
+        long serial = run(null, false);
+        assertEquals(serial, run(pool, false));
+    }
+
+    @Test
+    public void pathServiceMatchesSerial() {
+        long serial = run(null, true);
+        assertEquals(serial, run(pool, true));
+        assertEquals(serial, run(pool, true));
+    }
+
+    /**
+     * @return Hash over every enemy's position and state after every tick.
+     */
+    private static long run(ForkJoinPool thinkPool, boolean withPathService) {
+        // A fresh grid each time, so no run starts with another one's path cache
+        TileMap tiles = new DungeonLayout(SIZE, SIZE, 1).generate(SIZE / 10);
+        Grid grid = new Grid(tiles, new ArrayList<>());
+        Random random = new Random(3);
+        int[] floor = new int[SIZE * SIZE];
+        int floorCount = 0;
+        for (int tile = 0; tile < floor.length; tile++) {
+            if (grid.isWalkable(tile % SIZE, tile / SIZE)) floor[floorCount++] = tile;
+        }
+
+        Player player = new Player();
+        FlowField flowField = new FlowField(grid, 32);
+        FieldOfView playerView = new FieldOfView(grid, 12);
+        PathService pathService = withPathService ? new PathService() : null;
+        EnemyStore<Agent> enemies = new EnemyStore<>(grid, player, ENEMIES, 1);
+        enemies.setThinkPool(thinkPool);
+        enemies.setFlowField(flowField);
+        enemies.setFieldOfView(playerView, new FieldOfView(grid, 3));
+        if (pathService != null) {
+            pathService.setGrid(grid);
+            enemies.setPathService(pathService);
+        }
+        for (int i = 0; i < ENEMIES; i++) {
+            int tile = floor[random.nextInt(floorCount)];
+            byte kind = i % 4 == 0 ? EnemyStore.KIND_GHOST : EnemyStore.KIND_ENEMY;
+            enemies.add(new Agent(), kind, (tile % SIZE) * 16, (tile / SIZE) * 16, 100);
+        }
+
+        int goal = floor[random.nextInt(floorCount)];
+        int start = floor[random.nextInt(floorCount)];
+        player.bounds.setPosition((start % SIZE) * 16 + 4, (start / SIZE) * 16 + 4);
+        Rectangle screen = new Rectangle();
+        long hash = 17;
+        try {
+            for (int tick = 0; tick < TICKS; tick++) {
+                // The player walks straight to a random floor tile, then picks the next one
+                float px = player.bounds.x + 4;
+                float py = player.bounds.y + 4;
+                float gx = (goal % SIZE) * 16 + 8;
+                float gy = (goal / SIZE) * 16 + 8;
+                float distance = (float) Math.hypot(gx - px, gy - py);
+                if (distance < 2f) {
+                    goal = floor[random.nextInt(floorCount)];
+                } else {
+                    float step = Math.min(distance, 100f / 60f);
+                    player.bounds.x += (gx - px) / distance * step;
+                    player.bounds.y += (gy - py) / distance * step;
+                }
+
+                int tileX = (int) (player.bounds.x + 4) / 16;
+                int tileY = (int) (player.bounds.y + 4) / 16;
+                flowField.update(tileX, tileY);
+                playerView.update(tileX, tileY);
+                screen.set(px - 320, py - 180, 640, 360);
+                if (pathService != null) {
+                    pathService.setFocus(px, py, screen);
+                    pathService.update();
+                }
+                enemies.setVisibleArea(screen);
+                enemies.update(1 / 60f);
+                for (int i = 0; i < enemies.size(); i++) {
+                    hash = hash * 31 + Float.floatToIntBits(enemies.getX(i));
+                    hash = hash * 31 + Float.floatToIntBits(enemies.getY(i));
+                    hash = hash * 31 + enemies.getState(i);
+                }
+            }
+        } finally {
+            if (pathService != null) pathService.dispose();
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,106 @@
+package de.tum.cit.fop.maze.GameObj;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import de.tum.cit.fop.maze.AI.Grid;
+import de.tum.cit.fop.maze.World.TileMap;
+import de.tum.cit.fop.maze.World.TileType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The player's body walking right along a corridor of floor tiles into a wall.
+ */
+public class PlayerBodyTest {
+    private static final float STEP = 1 / 60f;
+
+    private static class Walker implements PlayerBody.Controls, PlayerBody.Contacts {
+        boolean locked;
+        final List<Grid.Occupant> touched = new ArrayList<>();
+
+        @Override
+        public void getDirection(Vector2 out) {
+            out.x = 1;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return false;
+        }
+
+        @Override
+        public boolean isContact(Grid.Occupant occupant) {
+            return true;
+        }
+
+        @Override
+        public boolean blocks(Grid.Occupant occupant) {
+            return locked;
+        }
+
+        @Override
+        public void touched(Grid.Occupant occupant) {
+            if (!touched.contains(occupant)) touched.add(occupant);
+        }
+    }
+
+    @Test
+    public void stopsAtWalls() {
+        Walker walker = new Walker();
+        PlayerBody body = corridor(new ArrayList<>(), walker);
+        walk(body, walker);
+        // The hitbox ends at the wall tile x = 8
+        assertEquals(8 * 16, body.getBounds().x + body.getBounds().width, 0.5f);
+        assertEquals(0, body.getVelocity().x, 0);
+        body.setPosition(body.getPosition().x + 1, body.getPosition().y);
+        assertTrue(body.isWall(body.collide()));
+    }
+
+    @Test
+    public void blockingContactsStopLikeWalls() {
+        Rectangle door = new Rectangle(5 * 16, 16, 16, 16);
+        List<Grid.Occupant> objects = new ArrayList<>();
+        objects.add(() -> door);
+        Walker walker = new Walker();
+        walker.locked = true;
+        PlayerBody body = corridor(objects, walker);
+        walk(body, walker);
+        assertEquals(door.x, body.getBounds().x + body.getBounds().width, 0.5f);
+        assertTrue(walker.touched.isEmpty());
+    }
+
+    @Test
+    public void passableContactsAreTouched() {
+        Rectangle key = new Rectangle(5 * 16, 16, 16, 16);
+        List<Grid.Occupant> objects = new ArrayList<>();
+        objects.add(() -> key);
+        Walker walker = new Walker();
+        PlayerBody body = corridor(objects, walker);
+        walk(body, walker);
+        assertEquals(1, walker.touched.size());
+        assertEquals(8 * 16, body.getBounds().x + body.getBounds().width, 0.5f);
+    }
+
+    // Floor from x = 1 to 7 in row 1, walls everywhere else; the body starts on tile (1, 1)
+    private static PlayerBody corridor(List<Grid.Occupant> objects, PlayerBody.Contacts contacts) {
+        TileMap tiles = new TileMap(10, 3);
+        tiles.fill(TileType.WALL);
+        for (int x = 1; x < 8; x++) tiles.set(x, 1, TileType.FLOOR);
+        PlayerBody body = new PlayerBody(16, 16);
+        body.setGrid(new Grid(tiles, objects));
+        body.setContacts(contacts);
+        return body;
+    }
+
+    private static void walk(PlayerBody body, PlayerBody.Controls controls) {
+        for (int i = 0; i < 300; i++) {
+            body.accelerate(STEP, controls);
+            body.move(STEP);
+        }
+    }
+}
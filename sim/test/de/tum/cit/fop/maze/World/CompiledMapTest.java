@@ -0,0 +1,150 @@
+package de.tum.cit.fop.maze.World;
+
+import com.badlogic.gdx.files.FileHandle;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The binary map format against the .properties maps in maps/ (tests run in the project root).
+ */
+public class CompiledMapTest {
+    private static final File MAPS = new File("maps");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void compileMatchesTextLookups() throws IOException {
+        for (File source : levels()) {
+            Properties props = MapFile.read(new FileHandle(source));
+            CompiledMap map = MapFile.compile(props);
+            TileMap tiles = map.getTiles();
+
+            int[] types = new int[tiles.getWidth() * tiles.getHeight()];
+            java.util.Arrays.fill(types, MapFile.NONE);
+            for (int i = 0; i < map.getObjectCount(); i++) {
+                types[map.getObjectY(i) * tiles.getWidth() + map.getObjectX(i)] = map.getObjectType(i);
+            }
+            for (int y = 0; y < tiles.getHeight(); y++) {
+                for (int x = 0; x < tiles.getWidth(); x++) {
+                    int type = MapFile.typeAt(props, x, y);
+                    String at = source.getName() + " " + x + "," + y;
+                    assertEquals(at, type == MapFile.WALL, tiles.get(x, y) == TileType.WALL);
+                    assertEquals(at, type == MapFile.WALL ? MapFile.NONE : type, types[y * tiles.getWidth() + x]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        for (File source : levels()) {
+            CompiledMap expected = MapFile.compile(MapFile.read(new FileHandle(source)));
+            FileHandle file = new FileHandle(folder.newFile(source.getName() + CompiledMap.SUFFIX));
+            expected.write(file);
+            CompiledMap actual = CompiledMap.read(file);
+
+            TileMap tiles = expected.getTiles();
+            assertEquals(source.getName(), tiles.getWidth(), actual.getTiles().getWidth());
+            assertEquals(source.getName(), tiles.getHeight(), actual.getTiles().getHeight());
+            for (int y = 0; y < tiles.getHeight(); y++) {
+                for (int x = 0; x < tiles.getWidth(); x++) {
+                    assertEquals(source.getName() + " " + x + "," + y, tiles.getId(x, y), actual.getTiles().getId(x, y));
+                }
+            }
+            assertEquals(source.getName(), expected.getObjectCount(), actual.getObjectCount());
+            for (int i = 0; i < expected.getObjectCount(); i++) {
+                assertEquals(expected.getObjectType(i), actual.getObjectType(i));
+                assertEquals(expected.getObjectX(i), actual.getObjectX(i));
+                assertEquals(expected.getObjectY(i), actual.getObjectY(i));
+            }
+        }
+    }
+
+    @Test
+    public void rejectsTruncatedFiles() throws IOException {
+        byte[] bytes = compiled("level-4");
+        for (int length = 0; length < bytes.length; length += Math.max(1, length / 4)) {
+            assertRejected("truncated to " + length, ByteBuffer.wrap(bytes, 0, length).slice());
+        }
+        assertRejected("last byte missing", ByteBuffer.wrap(bytes, 0, bytes.length - 1).slice());
+    }
+
+    @Test
+    public void rejectsEveryFlippedBit() throws IOException {
+        byte[] bytes = compiled("level-2");
+        for (int i = 0; i < bytes.length; i++) {
+            for (int bit = 0; bit < 8; bit++) {
+                bytes[i] ^= (byte) (1 << bit);
+                assertRejected("bit " + bit + " of byte " + i, ByteBuffer.wrap(bytes));
+                bytes[i] ^= (byte) (1 << bit);
+            }
+        }
+    }
+
+    @Test
+    public void rejectsHugeMapsWithoutAllocating() {
+        assertRejected("65535x65535", seal(0xFFFF, 0xFFFF, ByteBuffer.allocate(0)));
+    }
+
+    @Test
+    public void rejectsRunsThatDoNotCoverTheMap() {
+        ByteBuffer payload = ByteBuffer.allocate(16);
+        payload.put((byte) 1).put((byte) 0).putInt(1); // One tile layer, one run
+        payload.put(TileType.WALL.getId()).put((byte) 3); // 3 of 4 tiles
+        payload.putInt(0).flip();
+        assertRejected("short runs", seal(2, 2, payload));
+    }
+
+    @Test
+    public void rejectsUnknownTileIds() {
+        ByteBuffer payload = ByteBuffer.allocate(16);
+        payload.put((byte) 1).put((byte) 0).putInt(1);
+        payload.put((byte) 42).put((byte) 4);
+        payload.putInt(0).flip();
+        assertRejected("tile id 42", seal(2, 2, payload));
+    }
+
+    private static File[] levels() {
+        File[] files = MAPS.listFiles((dir, name) -> name.startsWith("level-") && name.endsWith(".properties"));
+        assertTrue("no maps in " + MAPS.getAbsolutePath(), files != null && files.length > 0);
+        return files;
+    }
+
+    private byte[] compiled(String level) throws IOException {
+        FileHandle file = new FileHandle(folder.newFile(level + CompiledMap.SUFFIX));
+        MapFile.compile(MapFile.read(new FileHandle(new File(MAPS, level + ".properties")))).write(file);
+        return file.readBytes();
+    }
+
+    // A well-formed header with a valid checksum around a hand-written payload
+    private static ByteBuffer seal(int width, int height, ByteBuffer payload) {
+        ByteBuffer buffer = ByteBuffer.allocate(24 + payload.remaining());
+        buffer.putInt(0x4D5A4D00).putInt(CompiledMap.VERSION).putInt(width).putInt(height).putInt(payload.remaining());
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        crc.update(payload.duplicate());
+        buffer.putInt((int) crc.getValue()).put(payload).flip();
+        return buffer;
+    }
+
+    private static void assertRejected(String what, ByteBuffer buffer) {
+        try {
+            CompiledMap.read(buffer);
+            fail(what + ": accepted");
+        } catch (IOException expected) {
+            // Rejected as it should be
+        }
+    }
+}